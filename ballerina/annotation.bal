@@ -14,5 +14,41 @@
 // specific language governing permissions and limitations
 // under the License.
 
+# Instruction set architecture of an AWS Lambda function.
+public enum Architecture {
+    # 64-bit x86, which native executables, linked Java runtimes and container images are built for
+    X86_64 = "x86_64",
+    # 64-bit ARM, for JVM functions deployed with a Java runtime layer built for it
+    ARM64 = "arm64"
+}
+
+# JVM flags of a function, or the optimization level of the native executable of a function packaged on its own.
+public enum Preset {
+    # C1 and the serial collector on the JVM, `-O1` for native executables
+    FAST_START = "fast-start",
+    # C2 on the JVM, `-O3` for native executables
+    THROUGHPUT = "throughput"
+}
+
+# Deployment configuration of an AWS Lambda function, used in the commands printed to deploy it and to tune the
+# runtime it starts on. Fields that are not set keep the defaults of the printed commands and of `Ballerina.toml`.
+#
+# + memorySize - Memory of the function in MB, from 128 to 10240
+# + timeout - Time an invocation may run for in seconds, from 1 to 900
+# + architecture - Instruction set architecture of the function
+# + ephemeralStorage - Size of `/tmp` in MB, from 512 to 10240
+# + reservedConcurrency - Concurrent executions reserved for the function
+# + provisionedConcurrency - Execution environments kept initialized for the published version of the function
+# + preset - JVM flags or native optimization level of the function
+public type FunctionConfiguration record {|
+    int memorySize?;
+    int timeout?;
+    Architecture architecture?;
+    int ephemeralStorage?;
+    int reservedConcurrency?;
+    int provisionedConcurrency?;
+    Preset preset?;
+|};
+
 # The annotation, which is used to mark the function as an AWS Lambda function.
-public const annotation Function on function;
+public const annotation FunctionConfiguration Function on function;
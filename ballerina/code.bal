@@ -14,8 +14,9 @@
 // specific language governing permissions and limitations
 // under the License.
 
-import ballerina/http;
+import ballerina/data.jsondata;
 import ballerina/io;
+import ballerina/jballerina.java;
 import ballerina/os;
 import ballerina/time;
 import ballerina/lang.'decimal;
@@ -77,110 +78,352 @@ public class Context {
 }
 
 # Lambda FunctionType
-type FunctionType function (Context, anydata) returns json|error;
-# Lambda FunctionEntry    
-type FunctionEntry [FunctionType, typedesc<anydata>];
-map<FunctionEntry> functions = { };
-const BASE_URL = "/2018-06-01/runtime/invocation/";
+type FunctionType function (Context, anydata) returns json|stream<json, error?>|error;
 
-# Generates an AWS Lambda function execution context.
-#
-# + resp - HTTP Response
-# + return - Return AWS Lambda function execution context
-isolated function generateContext(http:Response resp) returns @tainted Context {
-    string requestId = checkpanic resp.getHeader("Lambda-Runtime-Aws-Request-Id");
-    string deadlineMsStr = checkpanic resp.getHeader("Lambda-Runtime-Deadline-Ms");
-    int deadlineMs = 0;
-    var dms = deadlineMsStr.cloneWithType(int);
-    if (dms is int) {
-        deadlineMs = dms;
-    }
-    string invokedFunctionArn = checkpanic resp.getHeader("Lambda-Runtime-Invoked-Function-Arn");
-    string traceId = checkpanic resp.getHeader("Lambda-Runtime-Trace-Id");
-    Context ctx = new(requestId, deadlineMs, invokedFunctionArn, traceId);
-    return ctx;
+# How the event payload is bound to the event parameter of a function, decided when the function is compiled.
+public enum EventBinding {
+    # The event is `json` or `anydata`, the parsed payload is passed as is
+    JSON_EVENT,
+    # The payload is parsed straight into the declared event type
+    TYPED_EVENT
+}
+
+# Transport used by the function runtime to talk to the AWS Lambda Runtime API.
+public enum RuntimeTransport {
+    # Interop-backed client holding a single persistent HTTP/1.1 connection
+    NATIVE = "native",
+    # `ballerina/http` client on a single keep-alive HTTP/1.1 connection, requires `ballerinax/aws.lambda.httpclient`
+    HTTP_KEEP_ALIVE = "http-keep-alive",
+    # `ballerina/http` client with its default connection handling, requires `ballerinax/aws.lambda.httpclient`
+    HTTP = "http"
 }
 
-# Register a function handler with the function and event type.
+# The transport used to poll for events and post results.
+configurable RuntimeTransport runtimeTransport = NATIVE;
+
+# Represents an event received from the AWS Lambda Runtime API.
 #
-# + handler - Function Hanlder name
-# + func - Function type
-# + eventType - Event type
-public function __register(string handler, FunctionType func, typedesc<anydata> eventType) {
-    functions[handler] = [func, eventType];
+# + requestId - The unique id of the request
+# + deadlineMs - The request execution deadline in milliseconds from the epoch
+# + invokedFunctionArn - The ARN of the function being invoked
+# + traceId - The trace id of the request
+# + payload - The raw event payload, read off the connection as it is consumed
+public type Invocation record {|
+    *InvocationHeaders;
+    stream<byte[], error?> payload;
+|};
+
+# Represents the context of an event received from the AWS Lambda Runtime API.
+#
+# + requestId - The unique id of the request
+# + deadlineMs - The request execution deadline in milliseconds from the epoch
+# + invokedFunctionArn - The ARN of the function being invoked
+# + traceId - The trace id of the request
+public type InvocationHeaders record {|
+    string requestId;
+    int deadlineMs;
+    string invokedFunctionArn;
+    string traceId;
+|};
+
+# Client used by the function runtime to talk to the AWS Lambda Runtime API.
+public type RuntimeClient object {
+
+    # Blocks until the next event is available.
+    #
+    # + return - The next invocation or an error
+    public function next() returns Invocation|error;
+
+    # Posts the result of an invocation. A `byte[]` result is posted as is, any other result as JSON.
+    #
+    # + requestId - The request id of the invocation
+    # + payload - The result returned by the function
+    # + return - An error if the result could not be posted
+    public function respond(string requestId, json payload) returns error?;
+
+    # Streams the result of an invocation. The parts of a `stream<byte[], error?>` are posted as is, any other
+    # stream as newline delimited JSON.
+    #
+    # + requestId - The request id of the invocation
+    # + payload - The stream returned by the function
+    # + return - An error if the result could not be posted
+    public function respondStream(string requestId, stream<json, error?> payload) returns error?;
+
+    # Posts the failure of an invocation.
+    #
+    # + requestId - The request id of the invocation
+    # + payload - The error details
+    # + return - An error if the failure could not be posted
+    public function respondError(string requestId, json payload) returns error?;
+};
+
+# Creates a `RuntimeClient` for a Runtime API address and transport.
+public type RuntimeClientFactory function (string runtimeApi, RuntimeTransport transport)
+        returns RuntimeClient|error;
+
+RuntimeClientFactory? httpClientFactory = ();
+
+function init() {
+    setModule();
 }
 
-# Convert the JSON input to an event type.
+# Register the `ballerina/http` based runtime client, used by the `http` and `http-keep-alive` transports.
 #
-# + input - Input JSON
-# + eventType - Event type
-# + return - Returns Event type
-isolated function jsonToEventType(json input, typedesc<anydata> eventType) returns anydata|error {
-    return input.cloneWithType(eventType);
+# + factory - Factory creating the runtime client
+public function __registerHttpTransport(RuntimeClientFactory factory) {
+    httpClientFactory = factory;
 }
 
-# Process and excute the handler.  
-public function __process() {
-    http:Client clientEP = checkpanic new("http://" + os:getEnv("AWS_LAMBDA_RUNTIME_API"));
+# Returns the name of the function to be run, taken from the `{BALX_NAME}.{FUNC_NAME}` format of `_HANDLER`.
+# The generated `main` dispatches on this name to the matching function.
+#
+# + return - Function name, or an empty string if `_HANDLER` is not in the expected format
+public function __handler() returns string {
     string handlerStr = os:getEnv("_HANDLER");
+    int? separator = handlerStr.lastIndexOf(".");
+    return separator is int ? handlerStr.substring(separator + 1) : "";
+}
 
-    string[] hsc = re `\.`.split(os:getEnv("_HANDLER"));
-    if (hsc.length() < 2) {
+# Reports a `_HANDLER` which does not name any of the functions of the package.
+public function __invalidHandler() {
+    string handlerStr = os:getEnv("_HANDLER");
+    if (handlerStr.lastIndexOf(".") is ()) {
         io:println("Error - invalid handler string: ", handlerStr, ", should be of format {BALX_NAME}.{FUNC_NAME}");
+    } else {
+        io:println("Error - invalid handler: ", __handler());
+    }
+}
+
+# Convert the raw event payload to an event type.
+#
+# The payload stream is parsed once, straight into the event type, so neither the raw payload nor an intermediate
+# json value is held in memory. A `json` or `anydata` event is the parsed payload itself and is not converted.
+#
+# + payload - Event payload
+# + eventType - Event type
+# + binding - How the event payload is bound to the event type
+# + return - Returns Event type
+function payloadToEventType(stream<byte[], error?> payload, typedesc<anydata> eventType, EventBinding binding)
+        returns anydata|error {
+    if (binding == JSON_EVENT) {
+        return jsondata:parseStream(payload, {}, json);
+    }
+    return jsondata:parseStream(payload, {}, eventType);
+}
+
+# Process and excute the handler.
+#
+# + func - Function type
+# + eventType - Event type
+# + binding - How the event payload is bound to the event type
+public function __process(FunctionType func, typedesc<anydata> eventType, EventBinding binding = TYPED_EVENT) {
+    RuntimeClient|error runtimeClient = createRuntimeClient(os:getEnv("AWS_LAMBDA_RUNTIME_API"));
+    if (runtimeClient is error) {
+        io:println("Error - creating runtime client: ", runtimeClient);
         return;
     }
-    string handler = hsc[hsc.length()-1];
-    var func = functions[handler];
-    if (func is FunctionEntry) {
-        while (true) {
-            http:Response|error resp = clientEP->get(BASE_URL + "next");
-            if (resp is http:Response) {
-                processEvent(clientEP, resp, func);
-            } else {
-                io:println("Error - network failure polling for next event: ", resp);
-            }
+    while (true) {
+        Invocation|error invocation = runtimeClient.next();
+        if (invocation is Invocation) {
+            processEvent(runtimeClient, invocation, func, eventType, binding);
+        } else {
+            io:println("Error - network failure polling for next event: ", invocation);
         }
-    } else {
-        io:println("Error - invalid handler: ", handler);
     }
 }
 
+# Creates the client used to talk to the AWS Lambda Runtime API.
+#
+# + runtimeApi - Host and port of the Runtime API
+# + return - Returns the client for the configured `RuntimeTransport`
+function createRuntimeClient(string runtimeApi) returns RuntimeClient|error {
+    if (runtimeTransport == NATIVE) {
+        return new NativeRuntimeClient(runtimeApi);
+    }
+    RuntimeClientFactory? factory = httpClientFactory;
+    if (factory is ()) {
+        return error("runtime transport '" + runtimeTransport +
+                     "' requires 'import ballerinax/aws.lambda.httpclient as _;' in the function package");
+    }
+    return factory(runtimeApi, runtimeTransport);
+}
+
 # Process call back response.
 #
-# + clientEP - AWS Lambda URL endpoint
-# + resp - Response from AWS Lambda
-# + funcEntry - @FunctionEntry 
-function processEvent(http:Client clientEP, http:Response resp, FunctionEntry funcEntry) {
-    var content = resp.getJsonPayload();
-    if (content is json) {
-        Context ctx = generateContext(resp);
-        http:Request req = new;
-        // call the target function, handle any errors if raised by the function
-        FunctionType func = funcEntry[0];
-        var event = jsonToEventType(content, funcEntry[1]);
-        json|error funcResp;
-        if event is error {
-            funcResp = error("Invalid event type", cause = <@untainted> event);
-        } else {
-            funcResp = trap func(ctx, event);
+# + runtimeClient - AWS Lambda Runtime API client
+# + invocation - Event received from AWS Lambda
+# + func - Function type
+# + eventType - Event type
+# + binding - How the event payload is bound to the event type
+function processEvent(RuntimeClient runtimeClient, Invocation invocation, FunctionType func,
+                      typedesc<anydata> eventType, EventBinding binding) {
+    Context ctx = new(invocation.requestId, invocation.deadlineMs, invocation.invokedFunctionArn,
+                      invocation.traceId);
+    // call the target function, handle any errors if raised by the function
+    var event = payloadToEventType(invocation.payload, eventType, binding);
+    // release whatever the parser did not consume, so that the connection can be reused
+    error? closeResult = invocation.payload.close();
+    if (closeResult is error) {
+        io:println("Error - reading event payload: ", closeResult);
+    }
+    json|stream<json, error?>|error funcResp;
+    if event is error {
+        funcResp = error("Invalid event type", cause = <@untainted> event);
+    } else {
+        funcResp = trap func(ctx, event);
+    }
+    if (funcResp is stream<json, error?>) {
+        // stream the response as it is produced
+        error? result = runtimeClient.respondStream(ctx.requestId, funcResp);
+        if (result is error) {
+            io:println("Error - streaming response: ", result);
+        }
+    } else if (funcResp is json) {
+        // send the response
+        error? result = runtimeClient.respond(ctx.requestId, <@untainted> funcResp);
+        if (result is error) {
+            io:println("Error - sending response: ", result);
+        }
+    } else {
+        json payload = { errorReason: funcResp.message(), errorDetail: funcResp.detail().toString()};
+        // send the error
+        error? result = runtimeClient.respondError(ctx.requestId, payload);
+        if (result is error) {
+            io:println("Error - sending error: ", result);
+        }
+    }
+}
+
+# Runtime API client backed by a plain socket HTTP/1.1 connection, avoiding the `ballerina/http` stack.
+class NativeRuntimeClient {
+    *RuntimeClient;
+
+    private final handle nativeClient;
+
+    function init(string runtimeApi) {
+        self.nativeClient = createNativeClient(runtimeApi);
+    }
+
+    public function next() returns Invocation|error {
+        InvocationHeaders headers = check nativeNext(self.nativeClient);
+        return {...headers, payload: new (new PayloadStream(self.nativeClient))};
+    }
+
+    public function respond(string requestId, json payload) returns error? {
+        if (payload is byte[]) {
+            return nativePost(self.nativeClient, requestId + "/response", payload);
         }
-        if (funcResp is json) {
-            req.setJsonPayload(<@untainted> funcResp);
-            // send the response
-            http:Response|error result = clientEP->post(BASE_URL + <@untainted> ctx.requestId + "/response", req);
-            if (result is error) {
-                io:println("Error - sending response: ", result);
+        return nativePostJson(self.nativeClient, requestId + "/response", payload);
+    }
+
+    public function respondError(string requestId, json payload) returns error? {
+        return nativePostJson(self.nativeClient, requestId + "/error", payload);
+    }
+
+    public function respondStream(string requestId, stream<json, error?> payload) returns error? {
+        boolean binary = payload is stream<byte[], error?>;
+        error? opened = nativeOpenStream(self.nativeClient, requestId + "/response",
+                                         binary ? "application/octet-stream" : "application/x-ndjson");
+        if (opened is error) {
+            error? _ = payload.close();
+            return opened;
+        }
+        while true {
+            record {| json value; |}|error? item = payload.next();
+            if (item is ()) {
+                break;
             }
-        } else {
-            json payload = { errorReason: funcResp.message(), errorDetail: funcResp.detail().toString()};
-            req.setJsonPayload(payload);
-            // send the error
-            http:Response|error result = clientEP->post(BASE_URL + <@untainted> ctx.requestId + "/error", req);
-            if (result is error) {
-                io:println("Error - sending error: ", result);
+            if (item is error) {
+                // the status is already sent, so a failure midway is reported through the error trailers
+                error? _ = payload.close();
+                json detail = {errorReason: item.message(), errorDetail: item.detail().toString()};
+                return nativeCloseStream(self.nativeClient, "Runtime.StreamError", detail.toJsonString());
+            }
+            json value = item.value;
+            error? written = binary ? nativeWriteStream(self.nativeClient, <byte[]> value) :
+                                      nativeWriteStreamJson(self.nativeClient, value);
+            if (written is error) {
+                error? _ = payload.close();
+                return written;
             }
         }
-    } else {
-        io:println("Error - invalid payload: ", resp);
+        error? _ = payload.close();
+        return nativeCloseStream(self.nativeClient, (), ());
+    }
+}
+
+# Streams the payload of the current event off the native Runtime API connection.
+class PayloadStream {
+
+    private final handle nativeClient;
+
+    function init(handle nativeClient) {
+        self.nativeClient = nativeClient;
+    }
+
+    public function next() returns record {| byte[] value; |}|error? {
+        byte[]? part = check nativeReadPayload(self.nativeClient);
+        if (part is byte[]) {
+            return {value: part};
+        }
+        return ();
+    }
+
+    public function close() returns error? {
+        return nativeSkipPayload(self.nativeClient);
     }
 }
+
+function setModule() = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.ModuleUtils"
+} external;
+
+function createNativeClient(string runtimeApi) returns handle = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "create"
+} external;
+
+function nativeNext(handle nativeClient) returns InvocationHeaders|error = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "next"
+} external;
+
+function nativeReadPayload(handle nativeClient) returns byte[]|error? = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "readPayload"
+} external;
+
+function nativeSkipPayload(handle nativeClient) returns error? = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "skipPayload"
+} external;
+
+function nativePost(handle nativeClient, string path, byte[] payload) returns error? = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "post"
+} external;
+
+function nativePostJson(handle nativeClient, string path, json payload) returns error? = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "postJson"
+} external;
+
+function nativeOpenStream(handle nativeClient, string path, string contentType) returns error? = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "openStream"
+} external;
+
+function nativeWriteStream(handle nativeClient, byte[] payload) returns error? = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "writeStream"
+} external;
+
+function nativeWriteStreamJson(handle nativeClient, json payload) returns error? = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "writeStreamJson"
+} external;
+
+function nativeCloseStream(handle nativeClient, string? errorType, string? errorBody) returns error? = @java:Method {
+    'class: "org.ballerinax.aws.lambda.runtime.RuntimeApiClient",
+    name: "closeStream"
+} external;
@@ -0,0 +1,107 @@
+// Copyright (c) 2026 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/http;
+import ballerinax/aws.lambda;
+
+const BASE_URL = "/2018-06-01/runtime/invocation/";
+# The `next` call is a long poll which blocks until an event arrives, so it must never time out.
+const decimal LONG_POLL_TIMEOUT = 31536000;
+const byte NEW_LINE = 10;
+
+function init() {
+    lambda:__registerHttpTransport(createClient);
+}
+
+function createClient(string runtimeApi, lambda:RuntimeTransport transport) returns lambda:RuntimeClient|error {
+    return new HttpRuntimeClient(runtimeApi, transport);
+}
+
+# Runtime API client backed by the `ballerina/http` client.
+class HttpRuntimeClient {
+    *lambda:RuntimeClient;
+
+    private final http:Client clientEP;
+
+    function init(string runtimeApi, lambda:RuntimeTransport transport) returns error? {
+        if (transport == lambda:HTTP) {
+            self.clientEP = check new ("http://" + runtimeApi);
+        } else {
+            self.clientEP = check new ("http://" + runtimeApi, {
+                httpVersion: http:HTTP_1_1,
+                http1Settings: {
+                    keepAlive: http:KEEPALIVE_ALWAYS,
+                    chunking: http:CHUNKING_NEVER
+                },
+                poolConfig: {
+                    maxActiveConnections: 1,
+                    maxIdleConnections: 1,
+                    minEvictableIdleTime: LONG_POLL_TIMEOUT
+                },
+                timeout: LONG_POLL_TIMEOUT
+            });
+        }
+    }
+
+    public function next() returns lambda:Invocation|error {
+        http:Response resp = check self.clientEP->get(BASE_URL + "next");
+        int|error deadlineMs = int:fromString(getHeader(resp, "Lambda-Runtime-Deadline-Ms"));
+        return {
+            requestId: check resp.getHeader("Lambda-Runtime-Aws-Request-Id"),
+            deadlineMs: deadlineMs is int ? deadlineMs : 0,
+            invokedFunctionArn: getHeader(resp, "Lambda-Runtime-Invoked-Function-Arn"),
+            traceId: getHeader(resp, "Lambda-Runtime-Trace-Id"),
+            payload: check resp.getByteStream()
+        };
+    }
+
+    public function respond(string requestId, json payload) returns error? {
+        http:Response _ = check self.clientEP->post(BASE_URL + requestId + "/response", payload);
+    }
+
+    public function respondError(string requestId, json payload) returns error? {
+        http:Response _ = check self.clientEP->post(BASE_URL + requestId + "/error", payload);
+    }
+
+    # The `ballerina/http` transports do not support the streaming response mode, so the stream is collected and
+    # posted as a buffered response.
+    public function respondStream(string requestId, stream<json, error?> payload) returns error? {
+        boolean binary = payload is stream<byte[], error?>;
+        byte[] content = [];
+        error? result = from json item in payload
+            do {
+                if (binary) {
+                    content.push(...<byte[]> item);
+                } else {
+                    content.push(...item.toJsonString().toBytes(), NEW_LINE);
+                }
+            };
+        if (result is error) {
+            return self.respondError(requestId, {
+                errorReason: result.message(),
+                errorDetail: result.detail().toString()
+            });
+        }
+        http:Request req = new;
+        req.setBinaryPayload(content, binary ? "application/octet-stream" : "application/x-ndjson");
+        http:Response _ = check self.clientEP->post(BASE_URL + requestId + "/response", req);
+    }
+}
+
+isolated function getHeader(http:Response resp, string name) returns string {
+    string|error value = resp.getHeader(name);
+    return value is string ? value : "";
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator.test;
+
+import org.ballerinax.aws.lambda.generator.LocalRuntimeApi;
+import org.ballerinax.aws.lambda.generator.test.utils.BaseTest;
+import org.ballerinax.aws.lambda.generator.test.utils.ProcessOutput;
+import org.ballerinax.aws.lambda.generator.test.utils.TestUtils;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test packaging JVM functions with a class data sharing archive, which is trained in the image of the layer JRE.
+ */
+public class ClassDataSharingTest extends BaseTest {
+
+    private static final Path PROJECT_DIR = SOURCE_DIR.resolve("cds");
+    private static final Path ZIP_FILE_PATH = PROJECT_DIR.resolve("target").resolve("aws_lambda")
+            .resolve("aws-ballerina-lambda-functions.zip");
+
+    @Test
+    public void testClassDataSharingDeployment() throws IOException, InterruptedException {
+
+        if (!System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("linux")) {
+            throw new SkipException("Class data sharing archives are only created on Linux hosts");
+        }
+        Files.deleteIfExists(PROJECT_DIR.resolve("Dependencies.toml"));
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(PROJECT_DIR, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        String output = processOutput.getStdOutput();
+        Assert.assertTrue(output.contains("@aws.lambda:Trained transform with 2 event(s), 0 of which returned an " +
+                "error"));
+        Assert.assertTrue(output.contains("@aws.lambda:Class data sharing archive cds.jsa of "));
+        Assert.assertTrue(output.contains("@aws.lambda:Started cds.transform with cds.jsa: "));
+
+        Assert.assertTrue(Files.exists(ZIP_FILE_PATH));
+        URI uri = URI.create("jar:file:" + ZIP_FILE_PATH.toUri().getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+            Assert.assertTrue(Files.size(zipfs.getPath("/cds.jsa")) > 0);
+            String bootstrap = Files.readString(zipfs.getPath("/bootstrap"));
+            Assert.assertTrue(bootstrap.contains(" -XX:SharedArchiveFile=\"$LAMBDA_TASK_ROOT/cds.jsa\" -Xshare:auto "));
+        }
+        Assert.assertFalse(Files.exists(ZIP_FILE_PATH.resolveSibling("aws-ballerina-lambda-functions-cds")));
+    }
+
+    /**
+     * The archive only matches the JVM of the layer, so any other JVM has to start the function without it.
+     */
+    @Test(dependsOnMethods = "testClassDataSharingDeployment")
+    public void testArchiveMismatchIgnored() throws Exception {
+
+        Path taskRoot = PROJECT_DIR.resolve("target").resolve("cds-task-root");
+        TestUtils.extractZip(ZIP_FILE_PATH, taskRoot);
+        try (LocalRuntimeApi stub = new LocalRuntimeApi()) {
+            Process function = TestUtils.startBootstrap(taskRoot, "cds.transform", stub.getAddress(), Map.of());
+            try {
+                LocalRuntimeApi.Invocation invocation = stub.submit("{\"id\": \"order-1\", \"prices\": [10.5, 3.25]}")
+                        .get(60, TimeUnit.SECONDS);
+                Assert.assertTrue(invocation.isSuccess());
+                Assert.assertTrue(invocation.getResponse().contains("order-1"));
+            } finally {
+                function.destroyForcibly();
+            }
+        }
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        TestUtils.deleteDirectory(PROJECT_DIR.resolve("target"));
+    }
+}
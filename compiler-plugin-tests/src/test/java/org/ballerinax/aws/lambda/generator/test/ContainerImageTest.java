@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator.test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.ballerinax.aws.lambda.generator.TarWriter;
+import org.ballerinax.aws.lambda.generator.test.utils.BaseTest;
+import org.ballerinax.aws.lambda.generator.test.utils.ProcessOutput;
+import org.ballerinax.aws.lambda.generator.test.utils.TestUtils;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Test packaging functions as a container image on top of a base image read from an OCI image layout, offline.
+ */
+public class ContainerImageTest extends BaseTest {
+
+    private static final Gson GSON = new Gson();
+
+    private Path projectDir;
+
+    @BeforeClass
+    public void setup() throws IOException {
+
+        // Built from a copy, as the code of the package is changed below
+        this.projectDir = Files.createTempDirectory("ballerina-aws-lambda-test-").resolve("image");
+        Files.createDirectories(this.projectDir);
+        for (String file : new String[]{"Ballerina.toml", "functions.bal"}) {
+            Files.copy(SOURCE_DIR.resolve("image").resolve(file), this.projectDir.resolve(file));
+        }
+        writeBaseImage(this.projectDir.resolve("base-image"));
+    }
+
+    @Test
+    public void testImageDeployment() throws Exception {
+
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        String arch = System.getProperty("os.arch", "").toLowerCase(Locale.ROOT);
+        if (!os.startsWith("linux") || !(arch.equals("amd64") || arch.equals("x86_64"))) {
+            throw new SkipException("The Java runtime of the build is only deployed in images from Linux x86_64 hosts");
+        }
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(this.projectDir, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        String output = processOutput.getStdOutput();
+        Assert.assertTrue(output.contains("@aws.lambda:Image image:0.1.0 sha256:"));
+        Assert.assertTrue(output.contains("skopeo copy oci-archive:"));
+        Assert.assertTrue(output.contains("--package-type Image --code ImageUri=$REPOSITORY_URI@$IMAGE_DIGEST " +
+                "--image-config Command=image.$FUNCTION_NAME"));
+
+        Path archivePath = this.projectDir.resolve("target").resolve("aws_lambda")
+                .resolve("aws-ballerina-lambda-image.tar");
+        List<Map<String, TestUtils.TarEntry>> layers = readLayers(archivePath);
+        Assert.assertEquals(layers.size(), 4);
+        Assert.assertTrue(layers.get(0).containsKey("lambda-entrypoint.sh"));
+
+        TestUtils.TarEntry java = layers.get(1).get("opt/jdk/bin/java");
+        Assert.assertNotNull(java);
+        Assert.assertEquals(java.mode(), 0755);
+        Assert.assertTrue(layers.get(2).keySet().stream().anyMatch(name ->
+                name.startsWith("opt/ballerina-lib/ballerina/uuid/")));
+        Assert.assertFalse(layers.get(2).keySet().stream().anyMatch(name ->
+                name.startsWith("opt/ballerina-lib/anjana/image/")));
+        TestUtils.TarEntry bootstrap = layers.get(3).get("var/runtime/bootstrap");
+        Assert.assertNotNull(bootstrap);
+        Assert.assertEquals(bootstrap.mode(), 0755);
+        Assert.assertTrue(new String(bootstrap.content(), StandardCharsets.UTF_8).contains(
+                " -cp \"$LAMBDA_TASK_ROOT/classes:/opt/ballerina-lib\" 'anjana.image.0.$_init'\n"));
+        Assert.assertTrue(layers.get(3).get("var/task/classes/anjana/image/").directory());
+
+        // A change to the code of the package changes the layer of the package alone
+        List<String> digests = getLayerDigests(archivePath);
+        Path source = this.projectDir.resolve("functions.bal");
+        Files.writeString(source, Files.readString(source).replace("return input;", "return {\"echo\": input};"));
+        processOutput = TestUtils.compileBallerinaProject(this.projectDir, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        List<String> rebuiltDigests = getLayerDigests(archivePath);
+        Assert.assertEquals(rebuiltDigests.subList(0, 3), digests.subList(0, 3));
+        Assert.assertNotEquals(rebuiltDigests.get(3), digests.get(3));
+    }
+
+    /**
+     * Reads the layers of the image in an OCI image archive, checking the digests of its blobs and layers.
+     */
+    private static List<Map<String, TestUtils.TarEntry>> readLayers(Path archivePath) throws IOException {
+
+        Map<String, TestUtils.TarEntry> archive = readArchive(archivePath);
+        JsonObject index = GSON.fromJson(new String(archive.get("index.json").content(), StandardCharsets.UTF_8),
+                JsonObject.class);
+        JsonObject descriptor = index.getAsJsonArray("manifests").get(0).getAsJsonObject();
+        Assert.assertEquals(descriptor.getAsJsonObject("annotations").get("io.containerd.image.name").getAsString(),
+                "image:0.1.0");
+        JsonObject manifest = readBlob(archive, descriptor.get("digest").getAsString());
+        JsonObject config = readBlob(archive, manifest.getAsJsonObject("config").get("digest").getAsString());
+        Assert.assertEquals(config.getAsJsonObject("config").getAsJsonArray("Cmd").get(0).getAsString(),
+                "image.echo");
+        JsonArray diffIds = config.getAsJsonObject("rootfs").getAsJsonArray("diff_ids");
+        JsonArray layerDescriptors = manifest.getAsJsonArray("layers");
+        Assert.assertEquals(diffIds.size(), layerDescriptors.size());
+        List<Map<String, TestUtils.TarEntry>> layers = new ArrayList<>();
+        for (int i = 0; i < layerDescriptors.size(); i++) {
+            byte[] blob = getBlob(archive, layerDescriptors.get(i).getAsJsonObject().get("digest").getAsString());
+            byte[] tar;
+            try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(blob))) {
+                tar = inputStream.readAllBytes();
+            }
+            Assert.assertEquals(toDigest(tar), diffIds.get(i).getAsString());
+            layers.add(TestUtils.readTar(new ByteArrayInputStream(tar)));
+        }
+        return layers;
+    }
+
+    private static List<String> getLayerDigests(Path archivePath) throws IOException {
+
+        Map<String, TestUtils.TarEntry> archive = readArchive(archivePath);
+        JsonObject index = GSON.fromJson(new String(archive.get("index.json").content(), StandardCharsets.UTF_8),
+                JsonObject.class);
+        JsonObject manifest = readBlob(archive, index.getAsJsonArray("manifests").get(0).getAsJsonObject()
+                .get("digest").getAsString());
+        List<String> digests = new ArrayList<>();
+        for (JsonElement layer : manifest.getAsJsonArray("layers")) {
+            digests.add(layer.getAsJsonObject().get("digest").getAsString());
+        }
+        return digests;
+    }
+
+    private static Map<String, TestUtils.TarEntry> readArchive(Path archivePath) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(archivePath)) {
+            return TestUtils.readTar(inputStream);
+        }
+    }
+
+    private static JsonObject readBlob(Map<String, TestUtils.TarEntry> archive, String digest) {
+        return GSON.fromJson(new String(getBlob(archive, digest), StandardCharsets.UTF_8), JsonObject.class);
+    }
+
+    private static byte[] getBlob(Map<String, TestUtils.TarEntry> archive, String digest) {
+        TestUtils.TarEntry blob = archive.get("blobs/sha256/" + digest.substring("sha256:".length()));
+        Assert.assertNotNull(blob, digest);
+        Assert.assertEquals(toDigest(blob.content()), digest);
+        return blob.content();
+    }
+
+    /**
+     * Writes the OCI image layout of a base image with a single layer, standing in for the provided base images.
+     */
+    private static void writeBaseImage(Path layoutDir) throws IOException {
+
+        Files.createDirectories(layoutDir.resolve("blobs").resolve("sha256"));
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (TarWriter tarWriter = new TarWriter(tar)) {
+            tarWriter.addBytes("lambda-entrypoint.sh", "#!/bin/sh\nexec /var/runtime/bootstrap\n"
+                    .getBytes(StandardCharsets.UTF_8), 0755);
+        }
+        ByteArrayOutputStream layer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(layer)) {
+            gzip.write(tar.toByteArray());
+        }
+
+        JsonObject config = new JsonObject();
+        config.addProperty("architecture", "amd64");
+        config.addProperty("os", "linux");
+        JsonObject containerConfig = new JsonObject();
+        JsonArray entrypoint = new JsonArray();
+        entrypoint.add("/lambda-entrypoint.sh");
+        containerConfig.add("Entrypoint", entrypoint);
+        config.add("config", containerConfig);
+        JsonObject rootfs = new JsonObject();
+        rootfs.addProperty("type", "layers");
+        JsonArray diffIds = new JsonArray();
+        diffIds.add(toDigest(tar.toByteArray()));
+        rootfs.add("diff_ids", diffIds);
+        config.add("rootfs", rootfs);
+
+        JsonObject manifest = new JsonObject();
+        manifest.addProperty("schemaVersion", 2);
+        manifest.addProperty("mediaType", "application/vnd.oci.image.manifest.v1+json");
+        manifest.add("config", writeBlob(layoutDir, "application/vnd.oci.image.config.v1+json",
+                GSON.toJson(config).getBytes(StandardCharsets.UTF_8)));
+        JsonArray layers = new JsonArray();
+        layers.add(writeBlob(layoutDir, "application/vnd.oci.image.layer.v1.tar+gzip", layer.toByteArray()));
+        manifest.add("layers", layers);
+        JsonObject descriptor = writeBlob(layoutDir, "application/vnd.oci.image.manifest.v1+json",
+                GSON.toJson(manifest).getBytes(StandardCharsets.UTF_8));
+        JsonObject platform = new JsonObject();
+        platform.addProperty("architecture", "amd64");
+        platform.addProperty("os", "linux");
+        descriptor.add("platform", platform);
+
+        JsonObject index = new JsonObject();
+        index.addProperty("schemaVersion", 2);
+        JsonArray manifests = new JsonArray();
+        manifests.add(descriptor);
+        index.add("manifests", manifests);
+        Files.writeString(layoutDir.resolve("index.json"), GSON.toJson(index));
+        Files.writeString(layoutDir.resolve("oci-layout"), "{\"imageLayoutVersion\":\"1.0.0\"}");
+    }
+
+    private static JsonObject writeBlob(Path layoutDir, String mediaType, byte[] content) throws IOException {
+
+        String digest = toDigest(content);
+        Files.write(layoutDir.resolve("blobs").resolve("sha256").resolve(digest.substring("sha256:".length())),
+                content);
+        JsonObject descriptor = new JsonObject();
+        descriptor.addProperty("mediaType", mediaType);
+        descriptor.addProperty("digest", digest);
+        descriptor.addProperty("size", content.length);
+        return descriptor;
+    }
+
+    private static String toDigest(byte[] content) {
+        try {
+            return "sha256:" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        TestUtils.deleteDirectory(this.projectDir.getParent());
+    }
+}
@@ -25,13 +25,19 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Test creating awslambda deployment artifacts.
@@ -64,6 +70,217 @@ public class DeploymentTest extends BaseTest {
         try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
             Path jarFile = zipfs.getPath("/deployment.jar");
             Assert.assertTrue(Files.exists(jarFile));
+            String bootstrap = Files.readString(zipfs.getPath("/bootstrap"));
+            Assert.assertTrue(bootstrap.startsWith("#!/bin/sh\n"));
+            Assert.assertTrue(bootstrap.contains("preset=fast-start\n"));
+            Assert.assertTrue(bootstrap.contains("exec \"${JAVA_HOME:-/opt/jdk}/bin/java\" \"$@\""));
+        }
+        try (FileSystem zipfs = FileSystems.newFileSystem(zipFilePath, Map.of("enablePosixFileAttributes", "true"))) {
+            Assert.assertEquals(PosixFilePermissions.toString(Files.getPosixFilePermissions(
+                    zipfs.getPath("/bootstrap"))), "rwxr-xr-x");
+        }
+        // The jar is compressed already, so it is stored as it is
+        try (ZipFile zipFile = new ZipFile(zipFilePath.toFile())) {
+            Assert.assertEquals(zipFile.getEntry("deployment.jar").getMethod(), ZipEntry.STORED);
+        }
+    }
+
+    @Test(dependsOnMethods = "testAWSLambdaDeployment")
+    public void testLauncher() throws Exception {
+
+        Path zipFilePath = SOURCE_DIR.resolve("deployment").resolve("target")
+                .resolve("aws_lambda").resolve("aws-ballerina-lambda-functions.zip");
+        Path taskRoot = this.eventJson.getParent().resolve("launcher");
+        TestUtils.extractZip(zipFilePath, taskRoot);
+        for (String preset : new String[]{"fast-start", "throughput"}) {
+            TestUtils.assertEchoes(runtimeApi -> TestUtils.startBootstrap(taskRoot, "deployment.echo", runtimeApi,
+                    Map.of("AWS_LAMBDA_FUNCTION_MEMORY_SIZE", "256", "BALLERINA_AWS_LAMBDA_JVM_PRESET", preset)));
+        }
+    }
+
+    @Test(dependsOnMethods = "testAWSLambdaDeployment")
+    public void testUnchangedDeploymentReused() throws IOException, InterruptedException {
+
+        Path projectDir = SOURCE_DIR.resolve("deployment");
+        Path zipFilePath = projectDir.resolve("target").resolve("aws_lambda")
+                .resolve("aws-ballerina-lambda-functions.zip");
+        byte[] previousZip = Files.readAllBytes(zipFilePath);
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(projectDir, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        Assert.assertTrue(processOutput.getStdOutput()
+                .contains("@aws.lambda:Artifact aws-ballerina-lambda-functions.zip (unchanged) CodeSha256: "));
+        Assert.assertEquals(Files.readAllBytes(zipFilePath), previousZip);
+        Assert.assertTrue(Files.exists(projectDir.resolve("target").resolve("aws-lambda-artifacts.json")));
+    }
+
+    @Test
+    public void testPerFunctionDeployment() throws Exception {
+
+        Path projectDir = SOURCE_DIR.resolve("per-function");
+        Files.deleteIfExists(projectDir.resolve("Dependencies.toml"));
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(projectDir, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        Assert.assertTrue(processOutput.getStdOutput().contains("--function-name echo"));
+
+        Path functionsDir = projectDir.resolve("target").resolve("aws_lambda");
+        Assert.assertFalse(Files.exists(functionsDir.resolve("aws-ballerina-lambda-functions.zip")));
+        int fullClassCount = countClasses(projectDir.resolve("target").resolve("bin").resolve("perfunction.jar"));
+        for (String function : new String[]{"echo", "uuid"}) {
+            Path zipFilePath = functionsDir.resolve(function + ".zip");
+            Assert.assertTrue(Files.exists(zipFilePath));
+            URI uri = URI.create("jar:file:" + zipFilePath.toUri().getPath());
+            try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+                Assert.assertTrue(Files.exists(zipfs.getPath("/perfunction.jar")));
+                // uuid is set to the throughput preset in Ballerina.toml
+                Assert.assertTrue(Files.readString(zipfs.getPath("/bootstrap")).contains("preset=" +
+                        (function.equals("uuid") ? "throughput" : "fast-start") + "\n"));
+            }
+            Assert.assertTrue(countClasses(functionsDir.resolve(function).resolve("perfunction.jar")) <
+                    fullClassCount, function + " jar holds classes of other functions");
+        }
+
+        // Each trimmed jar still serves its own function
+        TestUtils.assertEchoes(runtimeApi -> TestUtils.startLambdaFunction(
+                functionsDir.resolve("echo").resolve("perfunction.jar"), "perfunction.echo", runtimeApi, ""));
+        TestUtils.assertReturnsUuid(runtimeApi -> TestUtils.startLambdaFunction(
+                functionsDir.resolve("uuid").resolve("perfunction.jar"), "perfunction.uuid", runtimeApi, ""));
+    }
+
+    @Test
+    public void testExplodedDeployment() throws Exception {
+
+        Path projectDir = SOURCE_DIR.resolve("exploded");
+        Files.deleteIfExists(projectDir.resolve("Dependencies.toml"));
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(projectDir, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        Assert.assertTrue(processOutput.getStdOutput().contains("@aws.lambda:Exploded exploded.jar into "));
+
+        Path zipFilePath = projectDir.resolve("target").resolve("aws_lambda")
+                .resolve("aws-ballerina-lambda-functions.zip");
+        URI uri = URI.create("jar:file:" + zipFilePath.toUri().getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+            Assert.assertFalse(Files.exists(zipfs.getPath("/exploded.jar")));
+            Assert.assertTrue(Files.isDirectory(zipfs.getPath("/classes/anjana/exploded")));
+            // The stdlib modules the package imports are dependencies
+            Assert.assertTrue(Files.isDirectory(zipfs.getPath("/lib/ballerina/uuid")));
+            Assert.assertFalse(Files.exists(zipfs.getPath("/lib/anjana/exploded")));
+            String bootstrap = Files.readString(zipfs.getPath("/bootstrap"));
+            Assert.assertTrue(bootstrap.contains(" -cp \"$LAMBDA_TASK_ROOT/classes:$LAMBDA_TASK_ROOT/lib\" " +
+                    "'anjana.exploded.0.$_init'\n"));
+        }
+
+        Path taskRoot = this.eventJson.getParent().resolve("exploded");
+        TestUtils.extractZip(zipFilePath, taskRoot);
+        TestUtils.assertEchoes(runtimeApi -> TestUtils.startBootstrap(taskRoot, "exploded.echo", runtimeApi,
+                Map.of()));
+    }
+
+    @Test
+    public void testLayeredDeployment() throws Exception {
+
+        // Built from a copy, as the code of the package is changed below
+        Path projectDir = this.eventJson.getParent().resolve("layered");
+        Files.createDirectories(projectDir);
+        for (String file : new String[]{"Ballerina.toml", "functions.bal"}) {
+            Files.copy(SOURCE_DIR.resolve("layered").resolve(file), projectDir.resolve(file));
+        }
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(projectDir, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        String output = processOutput.getStdOutput();
+        Assert.assertTrue(output.contains("aws lambda publish-layer-version --layer-name $LIB_LAYER_NAME"));
+        Assert.assertTrue(output.contains(" $LIB_LAYER_ARN --memory-size "));
+
+        Path functionsDir = projectDir.resolve("target").resolve("aws_lambda");
+        Path zipFilePath = functionsDir.resolve("aws-ballerina-lambda-functions.zip");
+        Path layerZipPath = functionsDir.resolve("aws-ballerina-lambda-lib.zip");
+        URI uri = URI.create("jar:file:" + zipFilePath.toUri().getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+            Assert.assertTrue(Files.isDirectory(zipfs.getPath("/classes/anjana/layered")));
+            Assert.assertFalse(Files.exists(zipfs.getPath("/lib")));
+            String bootstrap = Files.readString(zipfs.getPath("/bootstrap"));
+            Assert.assertTrue(bootstrap.contains(" -cp \"$LAMBDA_TASK_ROOT/classes:/opt/ballerina-lib\" " +
+                    "'anjana.layered.0.$_init'\n"));
+        }
+        URI layerUri = URI.create("jar:file:" + layerZipPath.toUri().getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(layerUri, new HashMap<>())) {
+            Assert.assertTrue(Files.isDirectory(zipfs.getPath("/ballerina-lib/ballerina/uuid")));
+            Assert.assertFalse(Files.exists(zipfs.getPath("/ballerina-lib/anjana/layered")));
+        }
+
+        // The function runs on the classes of its zip and of the layer together
+        Path taskRoot = this.eventJson.getParent().resolve("layered-task-root");
+        Path layerRoot = this.eventJson.getParent().resolve("layered-layer-root");
+        TestUtils.extractZip(zipFilePath, taskRoot);
+        TestUtils.extractZip(layerZipPath, layerRoot);
+        TestUtils.assertEchoes(runtimeApi -> {
+            ProcessBuilder pb = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", taskRoot.resolve("classes") + File.pathSeparator + layerRoot.resolve("ballerina-lib"),
+                    "anjana.layered.0.$_init");
+            pb.environment().put("AWS_LAMBDA_RUNTIME_API", runtimeApi);
+            pb.environment().put("_HANDLER", "layered.echo");
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            return pb.start();
+        });
+
+        // A change to the code of the package leaves the dependency layer as it is
+        Path source = projectDir.resolve("functions.bal");
+        Files.writeString(source, Files.readString(source).replace("return input;", "return {\"echo\": input};"));
+        processOutput = TestUtils.compileBallerinaProject(projectDir, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        output = processOutput.getStdOutput();
+        Assert.assertTrue(output.contains("@aws.lambda:Artifact aws-ballerina-lambda-lib.zip (unchanged) " +
+                "CodeSha256: "));
+        Assert.assertTrue(output.contains("@aws.lambda:Artifact aws-ballerina-lambda-functions.zip CodeSha256: "));
+    }
+
+    @Test
+    public void testFunctionConfigDeployment() throws Exception {
+
+        Path projectDir = SOURCE_DIR.resolve("function-config");
+        Files.deleteIfExists(projectDir.resolve("Dependencies.toml"));
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(projectDir, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        String lambdaJson = Files.readString(projectDir.resolve("target").resolve("aws-lambda.json"));
+        Assert.assertTrue(lambdaJson.contains("{\"name\":\"echo\",\"memorySize\":1024,\"timeout\":30," +
+                "\"ephemeralStorage\":2048,\"reservedConcurrency\":10,\"provisionedConcurrency\":2," +
+                "\"preset\":\"throughput\"}"));
+        Assert.assertTrue(lambdaJson.contains("{\"name\":\"uuid\"}"));
+
+        // Each function is deployed with the settings of its annotation, or the defaults
+        String output = processOutput.getStdOutput();
+        Assert.assertTrue(output.contains("--handler functionconfig.echo --runtime provided "));
+        Assert.assertTrue(output.contains(" --memory-size 1024 --timeout 30 --ephemeral-storage Size=2048"));
+        Assert.assertTrue(output.contains("--handler functionconfig.uuid --runtime provided "));
+        Assert.assertTrue(output.contains(" --memory-size 512 --timeout 10\n"));
+        Assert.assertFalse(output.contains("--function-name $FUNCTION_NAME"));
+        Assert.assertTrue(output.contains("aws lambda put-function-concurrency --function-name echo " +
+                "--reserved-concurrent-executions 10"));
+        Assert.assertTrue(output.contains("aws lambda put-provisioned-concurrency-config --function-name echo " +
+                "--qualifier $VERSION --provisioned-concurrent-executions 2"));
+        Assert.assertFalse(output.contains("--function-name uuid --reserved-concurrent-executions"));
+
+        Path zipFilePath = projectDir.resolve("target").resolve("aws_lambda")
+                .resolve("aws-ballerina-lambda-functions.zip");
+        URI uri = URI.create("jar:file:" + zipFilePath.toUri().getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+            // The preset of the annotation of echo overrides the fast-start preset of the package
+            String bootstrap = Files.readString(zipfs.getPath("/bootstrap"));
+            Assert.assertTrue(bootstrap.contains("preset=fast-start\n"));
+            Assert.assertTrue(bootstrap.contains("\"echo\") preset=throughput ;;\n"));
+            Assert.assertFalse(bootstrap.contains("\"uuid\") preset="));
+        }
+    }
+
+    private static int countClasses(Path jarPath) throws IOException {
+
+        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+            return (int) jarFile.stream().filter(entry -> entry.getName().endsWith(".class")).count();
         }
     }
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator.test;
+
+import org.ballerinax.aws.lambda.generator.DeploymentZipWriter;
+import org.ballerinax.aws.lambda.generator.test.utils.TestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Test writing deployment zips with more entries than the end record of a zip can count.
+ */
+public class DeploymentZipWriterTest {
+
+    private static final int ENTRY_COUNT = 70000;
+
+    private Path tempDir;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        this.tempDir = Files.createTempDirectory("ballerina-aws-lambda-test-");
+    }
+
+    @Test
+    public void testZip64EntryCount() throws IOException {
+
+        Path zipPath = this.tempDir.resolve("classes.zip");
+        try (DeploymentZipWriter writer = new DeploymentZipWriter(zipPath)) {
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                writer.addBytes("classes/Class" + i + ".class", ("class " + i).getBytes(StandardCharsets.UTF_8),
+                        DeploymentZipWriter.FILE_MODE);
+            }
+        }
+
+        // Read through the central directory, which is found through the ZIP64 end records
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            Assert.assertEquals(zipFile.size(), ENTRY_COUNT);
+            ZipEntry last = zipFile.getEntry("classes/Class" + (ENTRY_COUNT - 1) + ".class");
+            Assert.assertNotNull(last);
+            Assert.assertEquals(new String(zipFile.getInputStream(last).readAllBytes(), StandardCharsets.UTF_8),
+                    "class " + (ENTRY_COUNT - 1));
+        }
+        // Read through the local headers, as AWS Lambda may
+        int count = 0;
+        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(zipPath))) {
+            while (zipInputStream.getNextEntry() != null) {
+                count++;
+            }
+        }
+        Assert.assertEquals(count, ENTRY_COUNT);
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        TestUtils.deleteDirectory(this.tempDir);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator.test;
+
+import org.ballerinax.aws.lambda.generator.LocalRuntimeApi;
+import org.ballerinax.aws.lambda.generator.test.utils.BaseTest;
+import org.ballerinax.aws.lambda.generator.test.utils.ProcessOutput;
+import org.ballerinax.aws.lambda.generator.test.utils.TestUtils;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Test deploying JVM functions with a Java runtime linked from the modules they use, as a layer of its own.
+ */
+public class JlinkRuntimeTest extends BaseTest {
+
+    private static final Path PROJECT_DIR = SOURCE_DIR.resolve("jlink");
+    private static final Path FUNCTIONS_DIR = PROJECT_DIR.resolve("target").resolve("aws_lambda");
+
+    @Test
+    public void testJlinkRuntimeDeployment() throws IOException, InterruptedException {
+
+        Files.deleteIfExists(PROJECT_DIR.resolve("Dependencies.toml"));
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(PROJECT_DIR, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        String output = processOutput.getStdOutput();
+        Assert.assertTrue(output.contains("@aws.lambda:Linked Java runtime of "));
+        Assert.assertTrue(output.contains("@aws.lambda:Artifact aws-ballerina-lambda-jre.zip CodeSha256: "));
+        Assert.assertTrue(output.contains("aws lambda publish-layer-version --layer-name $JRE_LAYER_NAME"));
+        Assert.assertTrue(output.contains("--layers $JRE_LAYER_ARN"));
+        Assert.assertFalse(output.contains("layer:ballerina-jre21"));
+
+        Path layerZip = FUNCTIONS_DIR.resolve("aws-ballerina-lambda-jre.zip");
+        URI layerUri = URI.create("jar:file:" + layerZip.toUri().getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(layerUri, new HashMap<>())) {
+            Assert.assertTrue(Files.exists(zipfs.getPath("/jre/bin/java")));
+            Assert.assertTrue(Files.exists(zipfs.getPath("/jre/lib/modules")));
+            // The default class data sharing archive of the full JRE is generated for the linked one
+            Assert.assertTrue(Files.exists(zipfs.getPath("/jre/lib/server/classes.jsa")));
+            Assert.assertFalse(Files.exists(zipfs.getPath("/jre/include")));
+        }
+        URI uri = URI.create("jar:file:" + FUNCTIONS_DIR.resolve("aws-ballerina-lambda-functions.zip").toUri()
+                .getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+            String bootstrap = Files.readString(zipfs.getPath("/bootstrap"));
+            Assert.assertTrue(bootstrap.contains("exec \"${JAVA_HOME:-/opt/jre}/bin/java\" \"$@\""));
+        }
+
+        processOutput = TestUtils.compileBallerinaProject(PROJECT_DIR, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        Assert.assertTrue(processOutput.getStdOutput()
+                .contains("@aws.lambda:Artifact aws-ballerina-lambda-jre.zip (unchanged) CodeSha256: "));
+    }
+
+    @Test(dependsOnMethods = "testJlinkRuntimeDeployment")
+    public void testFunctionOnJlinkRuntime() throws Exception {
+
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        String arch = System.getProperty("os.arch", "").toLowerCase(Locale.ROOT);
+        if (!os.startsWith("linux") || !(arch.equals("amd64") || arch.equals("x86_64"))) {
+            throw new SkipException("The linked Java runtime only runs on Linux x86_64 hosts");
+        }
+        Path taskRoot = PROJECT_DIR.resolve("target").resolve("jlink-task-root");
+        TestUtils.extractZip(FUNCTIONS_DIR.resolve("aws-ballerina-lambda-functions.zip"), taskRoot);
+        Path layerRoot = PROJECT_DIR.resolve("target").resolve("jlink-layer-root");
+        try (ZipFile zipFile = new ZipFile(FUNCTIONS_DIR.resolve("aws-ballerina-lambda-jre.zip").toFile())) {
+            for (ZipEntry entry : zipFile.stream().toList()) {
+                Path target = layerRoot.resolve(entry.getName());
+                Files.createDirectories(target.getParent());
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    Files.copy(inputStream, target);
+                }
+            }
+        }
+        Files.setPosixFilePermissions(layerRoot.resolve("jre").resolve("bin").resolve("java"),
+                PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        try (LocalRuntimeApi stub = new LocalRuntimeApi()) {
+            Process function = TestUtils.startBootstrap(taskRoot, "jlink.transform", stub.getAddress(),
+                    Map.of("JAVA_HOME", layerRoot.resolve("jre").toAbsolutePath().toString()));
+            try {
+                LocalRuntimeApi.Invocation invocation = stub.submit("{\"id\": \"order-1\", \"prices\": [10.5, 3.25]}")
+                        .get(60, TimeUnit.SECONDS);
+                Assert.assertTrue(invocation.isSuccess());
+                Assert.assertTrue(invocation.getResponse().contains("order-1"));
+            } finally {
+                function.destroyForcibly();
+            }
+        }
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        TestUtils.deleteDirectory(PROJECT_DIR.resolve("target"));
+    }
+}
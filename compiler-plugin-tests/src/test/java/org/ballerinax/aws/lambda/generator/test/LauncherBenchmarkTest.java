@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator.test;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ballerinax.aws.lambda.generator.LocalRuntimeApi;
+import org.ballerinax.aws.lambda.generator.test.utils.BaseTest;
+import org.ballerinax.aws.lambda.generator.test.utils.ProcessOutput;
+import org.ballerinax.aws.lambda.generator.test.utils.TestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start benchmark of the JVM launcher presets against a local Runtime API stub, compared with starting the jar
+ * with the default JVM ergonomics as the bootstrap of the Ballerina layer does, and with the classes of the jar
+ * exploded into the task root.
+ * <p>
+ * Each run starts a new function process and records the time to its first poll, the round trip of its first
+ * invocation and the mean round trip of the {@code benchmark.coldstart.invocations} invocations after it. Tunable
+ * through the {@code benchmark.coldstart.runs}, {@code benchmark.coldstart.invocations} and
+ * {@code benchmark.coldstart.memory} system properties, the latter being the memory size the launcher picks its flags
+ * for.
+ */
+public class LauncherBenchmarkTest extends BaseTest {
+
+    private static final Log log = LogFactory.getLog(LauncherBenchmarkTest.class);
+    private static final Path PROJECT_DIR = SOURCE_DIR.resolve("deployment");
+    private static final Path EXPLODED_PROJECT_DIR = SOURCE_DIR.resolve("exploded");
+    private static final String DEFAULT_ERGONOMICS = "default";
+    private static final String EXPLODED = "exploded";
+    private static final String EVENT = "{\"message\":\"Hello World!\"}";
+
+    private final int runs = Integer.getInteger("benchmark.coldstart.runs", 10);
+    private final int invocations = Integer.getInteger("benchmark.coldstart.invocations", 200);
+    private final String memory = System.getProperty("benchmark.coldstart.memory", "512");
+
+    private Path taskRoot;
+    private Path explodedTaskRoot;
+
+    @BeforeClass
+    public void setup() throws IOException, InterruptedException {
+
+        Files.deleteIfExists(PROJECT_DIR.resolve("Dependencies.toml"));
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(PROJECT_DIR, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        this.taskRoot = Files.createTempDirectory("ballerina-aws-lambda-launcher-");
+        TestUtils.extractZip(PROJECT_DIR.resolve("target").resolve("aws_lambda")
+                .resolve("aws-ballerina-lambda-functions.zip"), this.taskRoot);
+
+        Files.deleteIfExists(EXPLODED_PROJECT_DIR.resolve("Dependencies.toml"));
+        processOutput = TestUtils.compileBallerinaProject(EXPLODED_PROJECT_DIR, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        this.explodedTaskRoot = Files.createTempDirectory("ballerina-aws-lambda-exploded-");
+        TestUtils.extractZip(EXPLODED_PROJECT_DIR.resolve("target").resolve("aws_lambda")
+                .resolve("aws-ballerina-lambda-functions.zip"), this.explodedTaskRoot);
+    }
+
+    @Test
+    public void benchmarkLauncherPresets() throws Exception {
+
+        // The exploded launch starts with the fast-start preset, to compare with the jar started the same way
+        List<String> launches = List.of(DEFAULT_ERGONOMICS, "fast-start", "throughput", EXPLODED);
+        List<List<long[]>> results = new ArrayList<>();
+        for (int i = 0; i < launches.size(); i++) {
+            results.add(new ArrayList<>());
+        }
+        // Interleaved, so that every launch sees the same state of the page cache and the machine
+        for (int run = 0; run < this.runs; run++) {
+            for (int i = 0; i < launches.size(); i++) {
+                results.get(i).add(measure(launches.get(i)));
+            }
+        }
+        for (int i = 0; i < launches.size(); i++) {
+            List<long[]> samples = results.get(i);
+            log.info(String.format(Locale.ROOT, "Cold start [launch=%s, memory=%s MB, runs=%d]: first poll p50 " +
+                            "%.1f ms, first invocation p50 %.3f ms, next %d invocations mean p50 %.3f ms",
+                    launches.get(i), this.memory, this.runs, median(samples, 0) / 1e6, median(samples, 1) / 1e6,
+                    this.invocations, median(samples, 2) / 1e6));
+        }
+    }
+
+    /**
+     * Starts a new function process, returning the nanoseconds to its first poll, the round trip of its first
+     * invocation and the mean round trip of the invocations after it.
+     */
+    private long[] measure(String launch) throws Exception {
+
+        try (LocalRuntimeApi stub = new LocalRuntimeApi()) {
+            long start = System.nanoTime();
+            Process function;
+            if (DEFAULT_ERGONOMICS.equals(launch)) {
+                function = TestUtils.startLambdaFunction(this.taskRoot.resolve("deployment.jar"), "deployment.echo",
+                        stub.getAddress(), "");
+            } else if (EXPLODED.equals(launch)) {
+                function = TestUtils.startBootstrap(this.explodedTaskRoot, "exploded.echo", stub.getAddress(),
+                        Map.of("AWS_LAMBDA_FUNCTION_MEMORY_SIZE", this.memory));
+            } else {
+                function = TestUtils.startBootstrap(this.taskRoot, "deployment.echo", stub.getAddress(),
+                        Map.of("AWS_LAMBDA_FUNCTION_MEMORY_SIZE", this.memory,
+                                "BALLERINA_AWS_LAMBDA_JVM_PRESET", launch));
+            }
+            try {
+                long firstPoll = stub.getFirstPoll().get(60, TimeUnit.SECONDS) - start;
+                LocalRuntimeApi.Invocation first = stub.submit(EVENT).get(60, TimeUnit.SECONDS);
+                Assert.assertTrue(first.isSuccess(), launch + " failed its first invocation");
+                long total = 0;
+                for (int i = 0; i < this.invocations; i++) {
+                    LocalRuntimeApi.Invocation invocation = stub.submit(EVENT).get(60, TimeUnit.SECONDS);
+                    Assert.assertTrue(invocation.isSuccess(), launch + " failed an invocation");
+                    total += invocation.getRoundTripNanos();
+                }
+                return new long[]{firstPoll, first.getRoundTripNanos(), total / Math.max(1, this.invocations)};
+            } finally {
+                function.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long median(List<long[]> samples, int index) {
+
+        long[] values = samples.stream().mapToLong(sample -> sample[index]).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanUp() throws IOException {
+
+        if (this.taskRoot != null) {
+            TestUtils.deleteDirectory(this.taskRoot);
+        }
+        if (this.explodedTaskRoot != null) {
+            TestUtils.deleteDirectory(this.explodedTaskRoot);
+        }
+    }
+}
@@ -17,10 +17,19 @@
  */
 package org.ballerinax.aws.lambda.generator.test;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ballerinax.aws.lambda.generator.LocalNativeImage;
+import org.ballerinax.aws.lambda.generator.LocalRuntimeApi;
+import org.ballerinax.aws.lambda.generator.TracingAgent;
 import org.ballerinax.aws.lambda.generator.test.utils.BaseTest;
 import org.ballerinax.aws.lambda.generator.test.utils.ProcessOutput;
 import org.ballerinax.aws.lambda.generator.test.utils.TestUtils;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -31,13 +40,37 @@ import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Test creating awslambda deployment artifacts.
  */
 public class NativeTest extends BaseTest {
 
+    private static final Log log = LogFactory.getLog(NativeTest.class);
+    private static final byte[] ELF_MAGIC = {0x7f, 'E', 'L', 'F'};
+    private static final int COLD_START_RUNS = 5;
+    private static final String TRACING_METADATA_PATH = "META-INF/native-image/ballerinax/aws.lambda/tracing-agent/";
+    // The bootstrap native zips used to start their executable with; the /bin/sh of AWS Lambda is bash
+    private static final String SHELL_BOOTSTRAP = "#!/bin/bash\n" +
+            "\n" +
+            "set -euo pipefail\n" +
+            "echo \"START Ballerina\"\n" +
+            "echo \"HANDLER: ${_HANDLER}\"\n" +
+            "$LAMBDA_TASK_ROOT/\"$(echo $_HANDLER | sed 's/\\.[^.]*$//')\"\n" +
+            "echo \"END Ballerina\"\n";
+
     private Path eventJson;
 
     @BeforeClass
@@ -62,11 +95,198 @@ public class NativeTest extends BaseTest {
         Assert.assertTrue(Files.exists(zipFilePath));
         URI uri = URI.create("jar:file:" + zipFilePath.toUri().getPath());
         try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
-            Path nativeExecFile = zipfs.getPath("/deployment");
-            Assert.assertTrue(Files.exists(nativeExecFile));
+            // The executable is the bootstrap itself, with no shell script in front of it
             Path bootstrapFile = zipfs.getPath("/bootstrap");
-            Assert.assertTrue(Files.exists(bootstrapFile));
+            Assert.assertTrue(isExecutable(bootstrapFile));
+            Assert.assertFalse(Files.exists(zipfs.getPath("/deployment")));
+        }
+        Path reportPath = zipFilePath.resolveSibling("aws-ballerina-lambda-functions-native-report.json");
+        Assert.assertTrue(Files.exists(reportPath));
+        Assert.assertTrue(Files.readString(reportPath).contains("\"imageSizeBytes\""));
+        Assert.assertFalse(Files.exists(zipFilePath.resolveSibling("deployment-build-output.json")));
+    }
+
+    @Test
+    public void testProfileGuidedDeployment() throws IOException, InterruptedException {
+
+        if (!LocalNativeImage.detect().map(LocalNativeImage::supportsPgo).orElse(false)) {
+            throw new SkipException("Profile-guided optimization requires Oracle GraalVM for JDK 21 on a Linux " +
+                    "x86_64 host");
+        }
+        Path projectDir = SOURCE_DIR.resolve("pgo");
+        Files.deleteIfExists(projectDir.resolve("Dependencies.toml"));
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(projectDir, true);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        Assert.assertTrue(processOutput.getStdOutput().contains("@aws.lambda:Profiled transform with 4 event(s), 0 " +
+                "of which returned an error"));
+
+        Path zipFilePath = projectDir.resolve("target").resolve("aws_lambda")
+                .resolve("aws-ballerina-lambda-functions.zip");
+        Assert.assertTrue(Files.exists(zipFilePath));
+        URI uri = URI.create("jar:file:" + zipFilePath.toUri().getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+            Assert.assertTrue(isExecutable(zipfs.getPath("/bootstrap")));
+            Assert.assertFalse(Files.exists(zipfs.getPath("/pgo")));
+        }
+        Assert.assertFalse(Files.exists(projectDir.resolve("target").resolve("aws_lambda").resolve("pgo-pgo")));
+        // native-image reports the executable as optimized with the profiles collected above
+        Path reportPath = zipFilePath.resolveSibling("aws-ballerina-lambda-functions-native-report.json");
+        JsonArray pgo = JsonParser.parseString(Files.readString(reportPath)).getAsJsonObject().getAsJsonArray("pgo");
+        Assert.assertNotNull(pgo);
+        Assert.assertTrue(pgo.contains(new JsonPrimitive("user-provided")), pgo.toString());
+    }
+
+    @Test
+    public void testTracingAgentDeployment() throws IOException, InterruptedException {
+
+        Optional<LocalNativeImage> nativeImage = LocalNativeImage.detect();
+        if (TracingAgent.detect(nativeImage).isEmpty() || (nativeImage.isEmpty() && !isDockerAvailable())) {
+            throw new SkipException("The tracing agent requires GraalVM for JDK 21 in GRAALVM_HOME or JAVA_HOME, or " +
+                    "Docker to run the builder image on a Linux host");
+        }
+        Path projectDir = SOURCE_DIR.resolve("tracing-agent");
+        Files.deleteIfExists(projectDir.resolve("Dependencies.toml"));
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(projectDir, true);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        Assert.assertTrue(processOutput.getStdOutput().contains("@aws.lambda:Traced lookup with 2 event(s), 0 of " +
+                "which returned an error"));
+
+        Path functionsDir = projectDir.resolve("target").resolve("aws_lambda");
+        Assert.assertTrue(Files.exists(functionsDir.resolve("aws-ballerina-lambda-functions.zip")));
+        Assert.assertFalse(Files.exists(functionsDir.resolve("tracing-reachability-metadata")));
+        // The jar the executable was built from holds the collected metadata
+        try (ZipFile jarFile = new ZipFile(functionsDir.resolve("tracing.jar").toFile())) {
+            List<String> configs = jarFile.stream().map(ZipEntry::getName)
+                    .filter(name -> name.startsWith(TRACING_METADATA_PATH) && name.endsWith("-config.json"))
+                    .toList();
+            Assert.assertFalse(configs.isEmpty());
+        }
+    }
+
+    /**
+     * Builds the native executable of each function from its trimmed jar, whose main still refers to the classes of
+     * the other functions, and runs it where the executable can run.
+     */
+    @Test
+    public void testPerFunctionDeployment() throws Exception {
+
+        if (LocalNativeImage.detect().isEmpty() && !isDockerAvailable()) {
+            throw new SkipException("Native executables are built with GraalVM for JDK 21 on a Linux x86_64 host or " +
+                    "with Docker");
+        }
+        // Built from a copy, as the JVM deployment test builds the same package
+        Path projectDir = this.eventJson.getParent().resolve("per-function");
+        Files.createDirectories(projectDir);
+        for (String file : new String[]{"Ballerina.toml", "echo.bal", "uuid.bal"}) {
+            Files.copy(SOURCE_DIR.resolve("per-function").resolve(file), projectDir.resolve(file));
         }
+
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(projectDir, true);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+        Path functionsDir = projectDir.resolve("target").resolve("aws_lambda");
+        Assert.assertFalse(Files.exists(functionsDir.resolve("aws-ballerina-lambda-functions.zip")));
+        for (String function : new String[]{"echo", "uuid"}) {
+            Path zipFilePath = functionsDir.resolve(function + ".zip");
+            Assert.assertTrue(Files.exists(zipFilePath));
+            URI uri = URI.create("jar:file:" + zipFilePath.toUri().getPath());
+            try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+                Assert.assertTrue(isExecutable(zipfs.getPath("/bootstrap")));
+            }
+            Assert.assertTrue(Files.exists(functionsDir.resolve(function + "-native-report.json")));
+        }
+
+        String arch = System.getProperty("os.arch", "");
+        if (!System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("linux") ||
+                !(arch.equals("amd64") || arch.equals("x86_64"))) {
+            throw new SkipException("The native executables only run on Linux x86_64 hosts");
+        }
+        Path echoRoot = this.eventJson.getParent().resolve("per-function-echo");
+        TestUtils.extractZip(functionsDir.resolve("echo.zip"), echoRoot);
+        TestUtils.assertEchoes(runtimeApi -> TestUtils.startBootstrap(echoRoot, "perfunction.echo", runtimeApi,
+                Map.of()));
+        Path uuidRoot = this.eventJson.getParent().resolve("per-function-uuid");
+        TestUtils.extractZip(functionsDir.resolve("uuid.zip"), uuidRoot);
+        TestUtils.assertReturnsUuid(runtimeApi -> TestUtils.startBootstrap(uuidRoot, "perfunction.uuid", runtimeApi,
+                Map.of()));
+    }
+
+    /**
+     * Compares the cold start of the native executable started as the bootstrap itself with the shell bootstrap it
+     * replaced, as the time from starting the process to its first poll of a Runtime API stub.
+     */
+    @Test(dependsOnMethods = "testAWSLambdaDeployment")
+    public void benchmarkBootstrapColdStart() throws Exception {
+
+        String arch = System.getProperty("os.arch", "");
+        if (!System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("linux") ||
+                !(arch.equals("amd64") || arch.equals("x86_64"))) {
+            throw new SkipException("The native executable only runs on Linux x86_64 hosts");
+        }
+        Path taskRoot = this.eventJson.getParent().resolve("task");
+        Files.createDirectories(taskRoot);
+        Path zipFilePath = SOURCE_DIR.resolve("deployment").resolve("target")
+                .resolve("aws_lambda").resolve("aws-ballerina-lambda-functions.zip");
+        URI uri = URI.create("jar:file:" + zipFilePath.toUri().getPath());
+        try (FileSystem zipfs = FileSystems.newFileSystem(uri, new HashMap<>())) {
+            Files.copy(zipfs.getPath("/bootstrap"), taskRoot.resolve("bootstrap"));
+        }
+        Files.copy(taskRoot.resolve("bootstrap"), taskRoot.resolve("deployment"));
+        Files.writeString(taskRoot.resolve("shell-bootstrap"), SHELL_BOOTSTRAP);
+        for (String file : new String[]{"bootstrap", "deployment", "shell-bootstrap"}) {
+            Files.setPosixFilePermissions(taskRoot.resolve(file), PosixFilePermissions.fromString("rwxr-xr-x"));
+        }
+
+        List<Long> direct = new ArrayList<>();
+        List<Long> shell = new ArrayList<>();
+        // Alternated, so that both see the same state of the page cache
+        for (int i = 0; i < COLD_START_RUNS; i++) {
+            direct.add(measureColdStart(taskRoot, taskRoot.resolve("bootstrap")));
+            shell.add(measureColdStart(taskRoot, taskRoot.resolve("shell-bootstrap")));
+        }
+        Collections.sort(direct);
+        Collections.sort(shell);
+        log.info(String.format(Locale.ROOT, "Native cold start to first poll over %d runs: executable as " +
+                        "bootstrap p50 %.1f ms, shell bootstrap p50 %.1f ms", COLD_START_RUNS,
+                direct.get(COLD_START_RUNS / 2) / 1e6, shell.get(COLD_START_RUNS / 2) / 1e6));
+    }
+
+    private static long measureColdStart(Path taskRoot, Path bootstrap) throws Exception {
+
+        try (LocalRuntimeApi stub = new LocalRuntimeApi()) {
+            ProcessBuilder pb = new ProcessBuilder(bootstrap.toString());
+            pb.directory(taskRoot.toFile());
+            pb.environment().put("AWS_LAMBDA_RUNTIME_API", stub.getAddress());
+            pb.environment().put("LAMBDA_TASK_ROOT", taskRoot.toString());
+            pb.environment().put("_HANDLER", "deployment.echo");
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            long start = System.nanoTime();
+            Process process = pb.start();
+            try {
+                return stub.getFirstPoll().get(60, TimeUnit.SECONDS) - start;
+            } finally {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static boolean isDockerAvailable() throws InterruptedException {
+
+        try {
+            Process process = new ProcessBuilder("docker", "info").redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            return process.waitFor(60, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isExecutable(Path file) throws IOException {
+
+        byte[] header = Arrays.copyOf(Files.readAllBytes(file), ELF_MAGIC.length);
+        return Arrays.equals(header, ELF_MAGIC);
     }
 
     @AfterClass
@@ -71,4 +71,15 @@ public class ProjectValidationTest {
         Diagnostic unusedModuleDiag = iterator.next();
         Assert.assertEquals(unusedModuleDiag.message(), "lambda functions are only allowed in ballerina projects");
     }
+
+    @Test
+    public void functionConfigTest() {
+        BuildProject project = BuildProject.load(RESOURCE_DIRECTORY.resolve("function-config"));
+        PackageCompilation compilation = project.currentPackage().getCompilation();
+        DiagnosticResult diagnosticResult = compilation.diagnosticResult();
+        Assert.assertEquals(diagnosticResult.errorCount(), 1);
+        Diagnostic diagnostic = diagnosticResult.errors().iterator().next();
+        Assert.assertEquals(diagnostic.message(), "memorySize of @lambda:Function must be a number between 128 and " +
+                "10240");
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator.test;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ballerinax.aws.lambda.generator.LocalRuntimeApi;
+import org.ballerinax.aws.lambda.generator.test.utils.BaseTest;
+import org.ballerinax.aws.lambda.generator.test.utils.ProcessOutput;
+import org.ballerinax.aws.lambda.generator.test.utils.TestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Throughput and latency benchmark of the function runtime loop against a local Runtime API stub.
+ * <p>
+ * Tunable through the {@code benchmark.handler}, {@code benchmark.event}, {@code benchmark.rate},
+ * {@code benchmark.warmup} and {@code benchmark.invocations} system properties. {@code benchmark.config} is passed to
+ * the function as {@code BAL_CONFIG_DATA}, e.g. to compare runtime transports.
+ */
+public class RuntimeBenchmarkTest extends BaseTest {
+
+    private static final Log log = LogFactory.getLog(RuntimeBenchmarkTest.class);
+    private static final Path PROJECT_DIR = SOURCE_DIR.resolve("deployment");
+
+    private final String handler = System.getProperty("benchmark.handler", "echo");
+    private final int rate = Integer.getInteger("benchmark.rate", 200);
+    private final int warmup = Integer.getInteger("benchmark.warmup", 1000);
+    private final int invocations = Integer.getInteger("benchmark.invocations", 5000);
+    private final String config = System.getProperty("benchmark.config", "");
+
+    private LocalRuntimeApi stub;
+    private Process function;
+    private JMXConnector jmxConnector;
+
+    @BeforeClass
+    public void setup() throws Exception {
+
+        Files.deleteIfExists(PROJECT_DIR.resolve("Dependencies.toml"));
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(PROJECT_DIR, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+
+        this.stub = new LocalRuntimeApi();
+        int jmxPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            jmxPort = socket.getLocalPort();
+        }
+        Path jarPath = PROJECT_DIR.resolve("target").resolve("bin").resolve("deployment.jar");
+        this.function = TestUtils.startLambdaFunction(jarPath, "deployment." + this.handler, this.stub.getAddress(),
+                this.config,
+                "-Dcom.sun.management.jmxremote.port=" + jmxPort,
+                "-Dcom.sun.management.jmxremote.rmi.port=" + jmxPort,
+                "-Dcom.sun.management.jmxremote.authenticate=false",
+                "-Dcom.sun.management.jmxremote.ssl=false",
+                "-Djava.rmi.server.hostname=127.0.0.1");
+        this.stub.getFirstPoll().get(60, TimeUnit.SECONDS);
+        this.jmxConnector = JMXConnectorFactory.connect(new JMXServiceURL(
+                "service:jmx:rmi:///jndi/rmi://127.0.0.1:" + jmxPort + "/jmxrmi"));
+    }
+
+    @Test
+    public void benchmarkRuntimeLoop() throws Exception {
+
+        String event = getEvent();
+        log.info("Warming up with " + this.warmup + " invocations of '" + this.handler + "'");
+        runAtFixedRate(event, this.warmup);
+
+        com.sun.management.ThreadMXBean threads = ManagementFactory.newPlatformMXBeanProxy(getConnection(),
+                ManagementFactory.THREAD_MXBEAN_NAME, com.sun.management.ThreadMXBean.class);
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        List<LocalRuntimeApi.Invocation> results = runAtFixedRate(event, this.invocations);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        long failures = results.stream().filter(invocation -> !invocation.isSuccess()).count();
+        Assert.assertEquals(failures, 0, "function reported errors for " + failures + " invocations");
+        long[] latencies = results.stream().mapToLong(LocalRuntimeApi.Invocation::getRoundTripNanos).sorted()
+                .toArray();
+        log.info(String.format(Locale.ROOT, "Runtime benchmark [handler=%s, rate=%d/s, invocations=%d]: " +
+                        "%.1f invocations/sec, p50 %.3f ms, p99 %.3f ms, %d bytes allocated/invocation",
+                this.handler, this.rate, this.invocations,
+                this.invocations / (elapsed / (double) TimeUnit.SECONDS.toNanos(1)),
+                percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+                allocated / this.invocations));
+    }
+
+    /**
+     * Submits events at a fixed rate regardless of how quickly the function completes them, so that a slow runtime
+     * shows up as growing latency rather than as a lower offered load.
+     */
+    private List<LocalRuntimeApi.Invocation> runAtFixedRate(String event, int count) throws Exception {
+
+        List<LocalRuntimeApi.Invocation> submitted = new ArrayList<>(count);
+        long interval = TimeUnit.SECONDS.toNanos(1) / this.rate;
+        long next = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            submitted.add(this.stub.submit(event));
+            next += interval;
+        }
+        for (LocalRuntimeApi.Invocation invocation : submitted) {
+            invocation.get(60, TimeUnit.SECONDS);
+        }
+        return submitted;
+    }
+
+    private String getEvent() throws IOException {
+
+        String eventFile = System.getProperty("benchmark.event");
+        if (eventFile == null || eventFile.isEmpty()) {
+            return "{\"message\":\"Hello World!\"}";
+        }
+        return Files.readString(Path.of(eventFile), StandardCharsets.UTF_8);
+    }
+
+    private MBeanServerConnection getConnection() throws IOException {
+
+        return this.jmxConnector.getMBeanServerConnection();
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanUp() throws IOException {
+
+        if (this.jmxConnector != null) {
+            this.jmxConnector.close();
+        }
+        if (this.function != null) {
+            this.function.destroyForcibly();
+        }
+        if (this.stub != null) {
+            this.stub.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.ballerinax.aws.lambda.generator.LocalRuntimeApi;
+import org.ballerinax.aws.lambda.generator.test.utils.BaseTest;
+import org.ballerinax.aws.lambda.generator.test.utils.ProcessOutput;
+import org.ballerinax.aws.lambda.generator.test.utils.TestUtils;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs built functions against a local Runtime API stub and checks what they post back.
+ */
+public class RuntimeTest extends BaseTest {
+
+    private static final Path PROJECT_DIR = SOURCE_DIR.resolve("runtime");
+    private static final Path JAR_PATH = PROJECT_DIR.resolve("target").resolve("bin").resolve("runtime.jar");
+
+    @BeforeClass
+    public void setup() throws Exception {
+
+        Files.deleteIfExists(PROJECT_DIR.resolve("Dependencies.toml"));
+        ProcessOutput processOutput = TestUtils.compileBallerinaProject(PROJECT_DIR, false);
+        Assert.assertEquals(processOutput.getExitCode(), 0);
+    }
+
+    @Test
+    public void testJsonResponse() throws Exception {
+
+        LocalRuntimeApi.Invocation invocation = invoke("echo", "{\"message\":\"Hello World!\"}");
+        Assert.assertTrue(invocation.isSuccess());
+        Assert.assertFalse(invocation.isChunked());
+        Assert.assertEquals(invocation.getContentType(), "application/json");
+        Assert.assertEquals(invocation.getResponse(), "{\"message\":\"Hello World!\"}");
+    }
+
+    @Test
+    public void testLargeJsonResponse() throws Exception {
+
+        LocalRuntimeApi.Invocation invocation = invoke("items", "{\"count\":20000}");
+        Assert.assertTrue(invocation.isSuccess());
+        Assert.assertTrue(invocation.isChunked());
+        JsonObject response = JsonParser.parseString(invocation.getResponse()).getAsJsonObject();
+        Assert.assertEquals(response.get("count").getAsInt(), 20000);
+        Assert.assertEquals(response.getAsJsonArray("items").size(), 20000);
+        JsonObject last = response.getAsJsonArray("items").get(19999).getAsJsonObject();
+        Assert.assertEquals(last.get("name").getAsString(), "item-19999");
+        Assert.assertEquals(last.getAsJsonArray("tags").get(2).getAsString(), "e\nf");
+    }
+
+    @Test
+    public void testBinaryResponse() throws Exception {
+
+        LocalRuntimeApi.Invocation invocation = invoke("bytes", "[1, \"two\"]");
+        Assert.assertTrue(invocation.isSuccess());
+        Assert.assertEquals(invocation.getContentType(), "application/octet-stream");
+        Assert.assertEquals(invocation.getResponse(), "[1, \"two\"]");
+    }
+
+    @Test
+    public void testErrorResponse() throws Exception {
+
+        LocalRuntimeApi.Invocation invocation = invoke("fail", "{}");
+        Assert.assertFalse(invocation.isSuccess());
+        JsonObject response = JsonParser.parseString(invocation.getResponse()).getAsJsonObject();
+        Assert.assertEquals(response.get("errorReason").getAsString(), "invocation failed");
+    }
+
+    @Test
+    public void testBinaryStreamResponse() throws Exception {
+
+        LocalRuntimeApi.Invocation invocation = invoke("chunks", "{\"count\":5}");
+        Assert.assertTrue(invocation.isSuccess());
+        Assert.assertTrue(invocation.isChunked());
+        Assert.assertEquals(invocation.getResponseMode(), "streaming");
+        Assert.assertEquals(invocation.getResponse(), "part-0part-1part-2part-3part-4");
+        assertStreamed(invocation.getChunkArrivalNanos(), 5);
+    }
+
+    @Test
+    public void testJsonStreamResponse() throws Exception {
+
+        LocalRuntimeApi.Invocation invocation = invoke("lines", "{\"count\":3}");
+        Assert.assertTrue(invocation.isSuccess());
+        Assert.assertEquals(invocation.getResponseMode(), "streaming");
+        Assert.assertEquals(invocation.getResponse(), "{\"id\":0, \"text\":\"part-0\"}\n" +
+                "{\"id\":1, \"text\":\"part-1\"}\n{\"id\":2, \"text\":\"part-2\"}\n");
+        assertStreamed(invocation.getChunkArrivalNanos(), 3);
+    }
+
+    /**
+     * Each part is produced 200 ms after the previous one, so parts sent as they are produced arrive spread out
+     * rather than all at once at the end.
+     */
+    private static void assertStreamed(List<Long> arrivals, int parts) {
+
+        Assert.assertFalse(arrivals.isEmpty());
+        long spread = arrivals.get(arrivals.size() - 1) - arrivals.get(0);
+        Assert.assertTrue(spread >= TimeUnit.MILLISECONDS.toNanos(100L * (parts - 1)),
+                "parts were not sent as they were produced: " + arrivals);
+    }
+
+    private static LocalRuntimeApi.Invocation invoke(String handler, String event) throws Exception {
+
+        try (LocalRuntimeApi stub = new LocalRuntimeApi()) {
+            Process function = TestUtils.startLambdaFunction(JAR_PATH, "runtime." + handler, stub.getAddress(), "");
+            try {
+                return stub.submit(event).get(60, TimeUnit.SECONDS);
+            } finally {
+                function.destroyForcibly();
+            }
+        }
+    }
+}
@@ -22,6 +22,8 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.ballerinax.aws.lambda.generator.LocalRuntimeApi;
+import org.testng.Assert;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -29,12 +31,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Test utility class.
@@ -54,6 +66,8 @@ public class TestUtils {
     private static final String RUNNING = "Running: ";
     private static final String EXIT_CODE = "Exit code: ";
     private static final String JAVA_OPTS = "JAVA_OPTS";
+    private static final String ECHO_EVENT = "{\"message\":\"Hello World!\"}";
+    private static final String UUID_RESPONSE = "\"[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\"";
     
     private static String logOutput(InputStream inputStream) throws IOException {
         StringBuilder output = new StringBuilder();
@@ -129,6 +143,201 @@ public class TestUtils {
         return po;
     }
 
+    /**
+     * Starts a built function against a Runtime API endpoint, as the {@code bootstrap} of the function layer would.
+     *
+     * @param jarPath    executable jar of the function package
+     * @param handler    handler in the {@code <module>.<function>} format
+     * @param runtimeApi host and port of the Runtime API
+     * @param config     configuration passed as {@code BAL_CONFIG_DATA}, or an empty string for none
+     * @param jvmArgs    additional JVM arguments
+     * @return the function process
+     * @throws IOException if the process cannot be started
+     */
+    public static Process startLambdaFunction(Path jarPath, String handler, String runtimeApi, String config,
+                                              String... jvmArgs) throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        pb.command().addAll(Arrays.asList(jvmArgs));
+        pb.command().add("-jar");
+        pb.command().add(jarPath.toAbsolutePath().toString());
+        pb.environment().put("AWS_LAMBDA_RUNTIME_API", runtimeApi);
+        pb.environment().put("_HANDLER", handler);
+        if (!config.isEmpty()) {
+            pb.environment().put("BAL_CONFIG_DATA", config);
+        }
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        log.info(RUNNING + handler);
+        log.debug(EXECUTING_COMMAND + pb.command());
+        return pb.start();
+    }
+
+    /**
+     * Starts the functions of a deployment zip through the {@code bootstrap} in it, as AWS Lambda would, with the zip
+     * extracted to the given task root and the JVM of this test run in place of the one of the Ballerina layer.
+     *
+     * @param taskRoot   directory the zip is extracted to
+     * @param handler    handler in the {@code <module>.<function>} format
+     * @param runtimeApi host and port of the Runtime API
+     * @param env        additional environment variables, such as {@code AWS_LAMBDA_FUNCTION_MEMORY_SIZE}
+     * @return the function process
+     * @throws IOException if the process cannot be started
+     */
+    public static Process startBootstrap(Path taskRoot, String handler, String runtimeApi, Map<String, String> env)
+            throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(taskRoot.resolve("bootstrap").toAbsolutePath().toString());
+        pb.directory(taskRoot.toFile());
+        pb.environment().put("JAVA_HOME", System.getProperty("java.home"));
+        pb.environment().put("LAMBDA_TASK_ROOT", taskRoot.toAbsolutePath().toString());
+        pb.environment().put("AWS_LAMBDA_RUNTIME_API", runtimeApi);
+        pb.environment().put("_HANDLER", handler);
+        pb.environment().putAll(env);
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        log.info(RUNNING + handler);
+        log.debug(EXECUTING_COMMAND + pb.command());
+        return pb.start();
+    }
+
+    /**
+     * Starts a function against a new Runtime API stand-in and asserts that it echoes the event it is invoked with,
+     * stopping the function afterwards.
+     *
+     * @param starter starts the function for the address of the stand-in
+     * @throws IOException if the function cannot be started
+     */
+    public static void assertEchoes(FunctionStarter starter)
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        LocalRuntimeApi.Invocation invocation = invoke(starter, ECHO_EVENT);
+        Assert.assertTrue(invocation.isSuccess());
+        Assert.assertEquals(invocation.getResponse(), ECHO_EVENT);
+    }
+
+    /**
+     * Starts a function against a new Runtime API stand-in and asserts that it returns a UUID, stopping the function
+     * afterwards.
+     *
+     * @param starter starts the function for the address of the stand-in
+     * @throws IOException if the function cannot be started
+     */
+    public static void assertReturnsUuid(FunctionStarter starter)
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        LocalRuntimeApi.Invocation invocation = invoke(starter, "{}");
+        Assert.assertTrue(invocation.isSuccess());
+        Assert.assertTrue(invocation.getResponse().matches(UUID_RESPONSE), invocation.getResponse());
+    }
+
+    /**
+     * Starts a function against a new Runtime API stand-in and invokes it once, stopping the function afterwards.
+     *
+     * @param starter starts the function for the address of the stand-in
+     * @param event   JSON event to invoke the function with
+     * @return the completed invocation
+     * @throws IOException if the function cannot be started
+     */
+    public static LocalRuntimeApi.Invocation invoke(FunctionStarter starter, String event)
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        try (LocalRuntimeApi runtimeApi = new LocalRuntimeApi()) {
+            Process function = starter.start(runtimeApi.getAddress());
+            try {
+                return runtimeApi.submit(event).get(60, TimeUnit.SECONDS);
+            } finally {
+                function.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Extracts a deployment or layer zip, keeping the executable bit of the {@code bootstrap} of a deployment zip.
+     *
+     * @param zipPath  the zip
+     * @param taskRoot directory to extract the zip to
+     * @throws IOException if the zip cannot be extracted
+     */
+    public static void extractZip(Path zipPath, Path taskRoot) throws IOException {
+        Files.createDirectories(taskRoot);
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            for (ZipEntry entry : zipFile.stream().toList()) {
+                Path target = taskRoot.resolve(entry.getName());
+                Files.createDirectories(target.getParent());
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        Path bootstrap = taskRoot.resolve("bootstrap");
+        if (Files.exists(bootstrap)) {
+            Files.setPosixFilePermissions(bootstrap, PosixFilePermissions.fromString("rwxr-xr-x"));
+        }
+    }
+
+    /**
+     * Starts the process of a function.
+     */
+    @FunctionalInterface
+    public interface FunctionStarter {
+
+        /**
+         * Starts the function against the Runtime API at the given address.
+         *
+         * @param runtimeApi host and port of the Runtime API
+         * @return the function process
+         * @throws IOException if the process cannot be started
+         */
+        Process start(String runtimeApi) throws IOException;
+    }
+
+    /**
+     * Reads the entries of a tar, with the paths of pax extended headers in place of the names they stand for.
+     *
+     * @param inputStream the tar
+     * @return the entries by their path
+     * @throws IOException if the tar cannot be read
+     */
+    public static Map<String, TarEntry> readTar(InputStream inputStream) throws IOException {
+        Map<String, TarEntry> entries = new LinkedHashMap<>();
+        String paxPath = null;
+        byte[] header;
+        while ((header = inputStream.readNBytes(512)).length == 512 && header[0] != 0) {
+            String name = readTarField(header, 0, 100);
+            int mode = Integer.parseInt(readTarField(header, 100, 8).trim(), 8);
+            int size = Integer.parseInt(readTarField(header, 124, 12).trim(), 8);
+            byte type = header[156];
+            byte[] content = inputStream.readNBytes(size);
+            inputStream.skipNBytes((512 - size % 512) % 512);
+            if (type == 'x') {
+                for (String paxRecord : new String(content, StandardCharsets.UTF_8).split("\n")) {
+                    String keyValue = paxRecord.substring(paxRecord.indexOf(' ') + 1);
+                    if (keyValue.startsWith("path=")) {
+                        paxPath = keyValue.substring("path=".length());
+                    }
+                }
+                continue;
+            }
+            entries.put(paxPath != null ? paxPath : name, new TarEntry(type == '5', mode, content));
+            paxPath = null;
+        }
+        return entries;
+    }
+
+    private static String readTarField(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * An entry of a tar.
+     *
+     * @param directory whether the entry is a directory
+     * @param mode      permissions of the entry
+     * @param content   content of the entry
+     */
+    public record TarEntry(boolean directory, int mode, byte[] content) {
+    }
+
     private static synchronized void addJavaAgents(Map<String, String> envProperties) {
         String javaOpts = "";
         if (envProperties.containsKey(JAVA_OPTS)) {
@@ -0,0 +1,19 @@
+import ballerina/uuid;
+import ballerinax/aws.lambda;
+
+@lambda:Function {
+    memorySize: 1024,
+    timeout: 30,
+    ephemeralStorage: 2048,
+    reservedConcurrency: 10,
+    provisionedConcurrency: 2,
+    preset: lambda:THROUGHPUT
+}
+public function echo(lambda:Context ctx, json input) returns json {
+   return input;
+}
+
+@lambda:Function
+public function uuid(lambda:Context ctx, json input) returns json|error {
+   return uuid:createType1AsString();
+}
@@ -1,6 +1,24 @@
 import ballerinax/aws.lambda;
 public function main ()returns error? {
-lambda:__register("echo",__func_proxy__echo,json );lambda:__register("uuid",__func_proxy__uuid,json );lambda:__register("ctxinfo",__func_proxy__ctxinfo,json );lambda:__register("notifySQS",__func_proxy__notifySQS,lambda:SQSEvent );lambda:__register("notifyS3",__func_proxy__notifyS3,lambda:S3Event );lambda:__register("notifyDynamoDB",__func_proxy__notifyDynamoDB,lambda:DynamoDBEvent );lambda:__register("notifySES",__func_proxy__notifySES,lambda:SESEvent );lambda:__register("apigwRequest",__func_proxy__apigwRequest,lambda:APIGatewayProxyRequest );lambda:__process();};public function __func_proxy__echo (lambda:Context ctx,anydata input)returns json {
+match lambda:__handler(){
+"echo"=>{
+return lambda:__process(__func_proxy__echo,json ,lambda:JSON_EVENT);}
+"uuid"=>{
+return lambda:__process(__func_proxy__uuid,json ,lambda:JSON_EVENT);}
+"ctxinfo"=>{
+return lambda:__process(__func_proxy__ctxinfo,json ,lambda:JSON_EVENT);}
+"notifySQS"=>{
+return lambda:__process(__func_proxy__notifySQS,lambda:SQSEvent ,lambda:TYPED_EVENT);}
+"notifyS3"=>{
+return lambda:__process(__func_proxy__notifyS3,lambda:S3Event ,lambda:TYPED_EVENT);}
+"notifyDynamoDB"=>{
+return lambda:__process(__func_proxy__notifyDynamoDB,lambda:DynamoDBEvent ,lambda:TYPED_EVENT);}
+"notifySES"=>{
+return lambda:__process(__func_proxy__notifySES,lambda:SESEvent ,lambda:TYPED_EVENT);}
+"apigwRequest"=>{
+return lambda:__process(__func_proxy__apigwRequest,lambda:APIGatewayProxyRequest ,lambda:TYPED_EVENT);}
+}
+lambda:__invalidHandler();};public function __func_proxy__echo (lambda:Context ctx,anydata input)returns json {
 return echo(ctx,<json >input);};public function __func_proxy__uuid (lambda:Context ctx,anydata input)returns json {
 return uuid(ctx,<json >input);};public function __func_proxy__ctxinfo (lambda:Context ctx,anydata input)returns json|error {
 return ctxinfo(ctx,<json >input);};public function __func_proxy__notifySQS (lambda:Context ctx,anydata input)returns json {
@@ -0,0 +1,12 @@
+import ballerina/uuid;
+import ballerinax/aws.lambda;
+
+@lambda:Function
+public function echo(lambda:Context ctx, json input) returns json {
+   return input;
+}
+
+@lambda:Function
+public function uuid(lambda:Context ctx, json input) returns json|error {
+   return uuid:createType1AsString();
+}
@@ -0,0 +1,15 @@
+import ballerinax/aws.lambda;
+
+type Order record {
+    string id;
+    decimal[] prices;
+};
+
+@lambda:Function
+public function transform(lambda:Context ctx, Order input) returns json {
+    decimal total = 0;
+    foreach decimal price in input.prices {
+        total += price;
+    }
+    return {id: input.id, total};
+}
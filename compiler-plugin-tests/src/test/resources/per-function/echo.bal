@@ -0,0 +1,6 @@
+import ballerinax/aws.lambda;
+
+@lambda:Function
+public function echo(lambda:Context ctx, json input) returns json {
+   return input;
+}
@@ -0,0 +1,7 @@
+import ballerina/uuid;
+import ballerinax/aws.lambda;
+
+@lambda:Function
+public function uuid(lambda:Context ctx, json input) returns json|error {
+   return uuid:createType1AsString();
+}
@@ -0,0 +1,47 @@
+import ballerina/lang.runtime;
+import ballerinax/aws.lambda;
+
+type Items record {|
+    int count;
+|};
+
+@lambda:Function
+public function echo(lambda:Context ctx, json input) returns json {
+   return input;
+}
+
+// Returns a result larger than the runtime's response buffer, which is then posted with chunked encoding
+@lambda:Function
+public function items(lambda:Context ctx, Items input) returns json {
+   json[] items = [];
+   foreach int i in 0 ..< input.count {
+       items.push({id: i, name: "item-" + i.toString(), tags: ["a\"b", "c\\d", "e\nf"], price: 1.5});
+   }
+   return {count: input.count, items: items};
+}
+
+@lambda:Function
+public function bytes(lambda:Context ctx, json input) returns byte[]|error {
+   return input.toJsonString().toBytes();
+}
+
+@lambda:Function
+public function fail(lambda:Context ctx, json input) returns json|error {
+   return error("invocation failed");
+}
+
+// Produces a part every 200 ms, which should reach the Runtime API as it is produced
+@lambda:Function
+public function chunks(lambda:Context ctx, Items input) returns stream<byte[], error?> {
+   return stream from int i in 0 ..< input.count select produce(i).toBytes();
+}
+
+@lambda:Function
+public function lines(lambda:Context ctx, Items input) returns stream<json, error?> {
+   return stream from int i in 0 ..< input.count select {id: i, text: produce(i)};
+}
+
+function produce(int i) returns string {
+   runtime:sleep(0.2);
+   return "part-" + i.toString();
+}
@@ -0,0 +1,12 @@
+import ballerinax/aws.lambda;
+
+type Lookup record {
+    string key;
+};
+
+final map<string> & readonly values = {"a": "first", "b": "second"};
+
+@lambda:Function
+public function lookup(lambda:Context ctx, Lookup input) returns json {
+    return {key: input.key, value: values[input.key]};
+}
@@ -0,0 +1,13 @@
+import ballerinax/aws.lambda;
+
+@lambda:Function {memorySize: 64}
+public function echo(lambda:Context ctx, json input) returns json {
+   return input;
+}
+
+const MEMORY = 1024;
+
+@lambda:Function {memorySize: MEMORY, timeout: 3 * 10, architecture: lambda:ARM64}
+public function transform(lambda:Context ctx, json input) returns json {
+   return input;
+}
@@ -2,5 +2,7 @@ module org.ballerinax.awslambda.generator {
     requires io.ballerina.lang;
     requires io.ballerina.tools.api;
     requires io.ballerina.parser;
+    requires io.ballerina.toml;
     requires gson;
+    requires jdk.httpserver;
 }
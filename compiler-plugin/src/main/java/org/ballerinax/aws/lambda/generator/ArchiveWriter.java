@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.IOException;
+
+/**
+ * An archive entries are added to, such as a deployment zip or a layer of a container image.
+ *
+ * @since 3.3.1
+ */
+public interface ArchiveWriter {
+
+    /**
+     * Adds an entry with the given content to the archive.
+     *
+     * @param name    name of the entry
+     * @param content content of the entry
+     * @param mode    unix file mode of the entry
+     * @throws IOException if the archive cannot be written
+     */
+    void addBytes(String name, byte[] content, int mode) throws IOException;
+}
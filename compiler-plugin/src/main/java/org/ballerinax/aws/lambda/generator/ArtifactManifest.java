@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Records the content hashes of the deployment zips of a package in {@code target/aws-lambda-artifacts.json}, next to
+ * {@code aws-lambda.json}.
+ * <p>
+ * Each zip is recorded with the hash of the inputs it was built from and its own SHA-256, in the base64 form that
+ * AWS Lambda reports as {@code CodeSha256}. A zip whose inputs are unchanged is reused instead of being built again.
+ *
+ * @since 3.3.1
+ */
+public class ArtifactManifest {
+
+    public static final String FILE_NAME = "aws-lambda-artifacts.json";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private final Path path;
+    private final Map<String, Artifact> artifacts;
+
+    private ArtifactManifest(Path path, Map<String, Artifact> artifacts) {
+        this.path = path;
+        this.artifacts = artifacts;
+    }
+
+    /**
+     * Reads the manifest of a package. A missing or unreadable manifest is treated as empty.
+     *
+     * @param targetDir target directory of the package
+     * @return the manifest
+     */
+    public static ArtifactManifest load(Path targetDir) {
+
+        Path path = targetDir.resolve(FILE_NAME);
+        Map<String, Artifact> artifacts = null;
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                artifacts = GSON.fromJson(reader, new TypeToken<TreeMap<String, Artifact>>() { }.getType());
+            } catch (IOException | JsonParseException e) {
+                artifacts = null;
+            }
+        }
+        return new ArtifactManifest(path, artifacts == null ? new TreeMap<>() : artifacts);
+    }
+
+    /**
+     * Returns whether a zip was built from the given inputs and is still the zip that was recorded.
+     *
+     * @param zipPath   the zip
+     * @param inputHash hash of the inputs the zip would be built from
+     * @return true if the zip can be reused as is
+     * @throws IOException if the zip cannot be read
+     */
+    public boolean isUpToDate(Path zipPath, String inputHash) throws IOException {
+
+        Artifact artifact = this.artifacts.get(zipPath.getFileName().toString());
+        return artifact != null && inputHash.equals(artifact.inputHash) && Files.exists(zipPath) &&
+                getCodeSha256(zipPath).equals(artifact.codeSha256);
+    }
+
+    /**
+     * Records a zip built from the given inputs.
+     *
+     * @param zipPath   the zip
+     * @param inputHash hash of the inputs the zip was built from
+     * @throws IOException if the zip cannot be read
+     */
+    public void record(Path zipPath, String inputHash) throws IOException {
+        this.artifacts.put(zipPath.getFileName().toString(), new Artifact(inputHash, getCodeSha256(zipPath)));
+    }
+
+    /**
+     * Returns the recorded {@code CodeSha256} of a zip.
+     *
+     * @param zipFileName file name of the zip
+     * @return base64 SHA-256 of the zip
+     */
+    public String getCodeSha256(String zipFileName) {
+        Artifact artifact = this.artifacts.get(zipFileName);
+        return artifact == null ? null : artifact.codeSha256;
+    }
+
+    /**
+     * Forgets every zip except the given ones.
+     *
+     * @param zipFileNames file names of the zips to keep
+     */
+    public void retain(Iterable<String> zipFileNames) {
+        Map<String, Artifact> retained = new TreeMap<>();
+        for (String zipFileName : zipFileNames) {
+            Artifact artifact = this.artifacts.get(zipFileName);
+            if (artifact != null) {
+                retained.put(zipFileName, artifact);
+            }
+        }
+        this.artifacts.clear();
+        this.artifacts.putAll(retained);
+    }
+
+    public void save() throws IOException {
+        try (Writer writer = Files.newBufferedWriter(this.path, StandardCharsets.UTF_8)) {
+            GSON.toJson(this.artifacts, writer);
+        }
+    }
+
+    /**
+     * Hashes the inputs of a build: the given values followed by the content of the given files. Jar files are hashed
+     * by the names and content of their entries, so that a jar written again with new timestamps hashes the same.
+     *
+     * @param values values that affect the build, such as its mode
+     * @param files  files the build reads
+     * @return hex SHA-256 of the inputs
+     * @throws IOException if a file cannot be read
+     */
+    public static String hashInputs(Iterable<String> values, Path... files) throws IOException {
+
+        MessageDigest digest = newDigest();
+        for (String value : values) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(".jar")) {
+                updateDigestWithJar(digest, file);
+            } else {
+                updateDigest(digest, file);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String getCodeSha256(Path zipPath) throws IOException {
+        MessageDigest digest = newDigest();
+        updateDigest(digest, zipPath);
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    private static void updateDigest(MessageDigest digest, Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static void updateDigestWithJar(MessageDigest digest, Path jarPath) throws IOException {
+        try (ZipFile zipFile = new ZipFile(jarPath.toFile())) {
+            List<? extends ZipEntry> entries = zipFile.stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .sorted(Comparator.comparing(ZipEntry::getName))
+                    .toList();
+            byte[] buffer = new byte[65536];
+            for (ZipEntry entry : entries) {
+                digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    int read;
+                    long size = 0;
+                    while ((read = inputStream.read(buffer)) >= 0) {
+                        digest.update(buffer, 0, read);
+                        size += read;
+                    }
+                    digest.update(Long.toString(size).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A recorded zip.
+     */
+    private static class Artifact {
+
+        private final String inputHash;
+        private final String codeSha256;
+
+        Artifact(String inputHash, String codeSha256) {
+            this.inputHash = inputHash;
+            this.codeSha256 = codeSha256;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Creates the AppCDS archive of a jar, which lets the JVM of the Ballerina layer map the classes a function loads
+ * during its init phase instead of loading, verifying and linking them on every cold start.
+ * <p>
+ * The jar is run as each function with its sample events against a {@link LocalRuntimeApi} to record the classes it
+ * loads, and a static archive of all of them is dumped. An archive only loads on the JVM build that dumped it, for
+ * the class path it was dumped for, so both steps run in the image of the JRE the layer ships, with the jar at the
+ * path AWS Lambda extracts it to and with the modification time it gets from the deployment zip. Like the tracing
+ * agent in the builder image, this needs a Linux host for the container to reach the stand-in on the loopback
+ * interface. Jars deployed with a {@link JlinkRuntime} are trained on that runtime instead. A function the archive
+ * does not match starts as it would without it.
+ *
+ * @since 3.3.1
+ */
+public class CdsArchive {
+
+    public static final String ARCHIVE_EXTENSION = ".jsa";
+    // The JRE of the Ballerina layer, see .github/workflows/update-layer.yml
+    public static final String LAYER_JRE_IMAGE = "eclipse-temurin:21.0.5_11-jre";
+
+    private static final PrintStream OUT = System.out;
+    private static final String TASK_ROOT = "/var/task";
+    private static final String CLASS_LIST_EXTENSION = ".classlist";
+    private static final String CLASS_LIST_FILE = "classes" + CLASS_LIST_EXTENSION;
+    private static final long DUMP_TIMEOUT_MINUTES = 10;
+    // Classes of the built-in loaders, whose ids differ between runs and are only needed by classes of other loaders
+    private static final Pattern CLASS_LINE_PATTERN = Pattern.compile("^([^\\s@#]+)(?: id: \\d+)?$");
+    private static final String SHARED_SOURCE = "source: shared objects file";
+    private static final String CLASS_LOAD_SOURCE = " source: ";
+
+    private CdsArchive() {
+    }
+
+    /**
+     * Returns whether archives can be created on this host.
+     *
+     * @return true on Linux hosts
+     */
+    public static boolean isSupportedHost() {
+        return System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("linux");
+    }
+
+    /**
+     * Trains a jar with the events of its functions and dumps its archive.
+     *
+     * @param jarPath    the jar
+     * @param workDir    directory to train the jar in, which holds the archive afterwards
+     * @param events     events of the functions packaged with the jar
+     * @param runtimeDir linked runtime the jar is deployed with, or null if it runs on the JRE of the layer
+     * @return the archive
+     * @throws IOException if the jar cannot be trained or the archive cannot be dumped
+     */
+    public static Path create(Path jarPath, Path workDir, SampleEvents events, Path runtimeDir) throws IOException {
+
+        String jarFileName = jarPath.getFileName().toString();
+        String executableName = jarFileName.replaceFirst(".jar", "");
+        LambdaUtils.deleteDirectory(workDir);
+        Files.createDirectories(workDir);
+        Path trainedJar = workDir.resolve(jarFileName);
+        Files.copy(jarPath, trainedJar);
+        Files.setLastModifiedTime(trainedJar, DeploymentZipWriter.ENTRY_TIME);
+        OUT.println("\t@aws.lambda:Training " + jarFileName + " for class data sharing on " +
+                (runtimeDir == null ? LAYER_JRE_IMAGE : "the linked Java runtime") + "\n");
+
+        Set<String> classes = new LinkedHashSet<>();
+        for (String function : events.getFunctions()) {
+            String classList = function + CLASS_LIST_EXTENSION;
+            int errors = LocalRuntimeApi.replay(function, events.getEvents(function), events.getIterations(),
+                    workDir.resolve(function + ".log"), runtimeApi -> createContainer(workDir, runtimeDir, runtimeApi,
+                            executableName + "." + function, "-XX:DumpLoadedClassList=" + inTaskRoot(classList),
+                            "-jar", inTaskRoot(jarFileName)));
+            OUT.println("\t@aws.lambda:Trained " + function + " with " +
+                    events.getEvents(function).size() * events.getIterations() + " event(s), " + errors +
+                    " of which returned an error");
+            Path classListPath = workDir.resolve(classList);
+            if (!Files.exists(classListPath)) {
+                throw new IOException("training " + function + " did not produce a class list. Refer to " +
+                        workDir.resolve(function + ".log") + " for information");
+            }
+            readClassList(classListPath, classes);
+        }
+        Files.write(workDir.resolve(CLASS_LIST_FILE), classes, StandardCharsets.UTF_8);
+
+        String archiveFileName = executableName + ARCHIVE_EXTENSION;
+        Path dumpLog = workDir.resolve("dump.log");
+        ProcessBuilder pb = createContainer(workDir, runtimeDir, null, null, "-Xshare:dump",
+                "-XX:SharedClassListFile=" + inTaskRoot(CLASS_LIST_FILE),
+                "-XX:SharedArchiveFile=" + inTaskRoot(archiveFileName), "-cp", inTaskRoot(jarFileName));
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(dumpLog.toFile());
+        try {
+            Process process = pb.start();
+            if (!process.waitFor(DUMP_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+                throw new IOException("dumping the class data sharing archive timed out");
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("dumping the class data sharing archive failed with exit code " +
+                        process.exitValue() + ". Refer to " + dumpLog + " for information");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("dumping the class data sharing archive was interrupted");
+        }
+        Path archive = workDir.resolve(archiveFileName);
+        if (!Files.exists(archive)) {
+            throw new IOException("dumping the class data sharing archive did not produce " + archiveFileName +
+                    ". Refer to " + dumpLog + " for information");
+        }
+        OUT.println("\t@aws.lambda:Class data sharing archive " + archiveFileName + " of " + classes.size() +
+                " classes, " + Files.size(archive) / 1024 + " KB");
+        report(workDir, runtimeDir, executableName + "." + events.getFunctions().iterator().next(), jarFileName,
+                archiveFileName);
+        return archive;
+    }
+
+    /**
+     * Adds the classes of a class list to the given set, leaving out the comments, the classes of other loaders and
+     * the ids of the classes.
+     */
+    private static void readClassList(Path classListPath, Set<String> classes) throws IOException {
+
+        for (String line : Files.readAllLines(classListPath, StandardCharsets.UTF_8)) {
+            if (line.startsWith("@lambda-")) {
+                classes.add(line);
+                continue;
+            }
+            Matcher matcher = CLASS_LINE_PATTERN.matcher(line.trim());
+            if (matcher.matches()) {
+                classes.add(matcher.group(1));
+            }
+        }
+    }
+
+    /**
+     * Starts the jar as a function with and without the archive, and prints how many classes it loaded from an
+     * archive and how long it took to request its first event in either case.
+     */
+    private static void report(Path workDir, Path runtimeDir, String handler, String jarFileName,
+                               String archiveFileName) throws IOException {
+
+        String[] withArchive = measure(workDir, runtimeDir, handler, jarFileName, archiveFileName);
+        String[] withoutArchive = measure(workDir, runtimeDir, handler, jarFileName, null);
+        OUT.println("\t@aws.lambda:Started " + handler + " with " + archiveFileName + ": " + withArchive[0] +
+                " classes loaded from an archive, first event requested after " + withArchive[1] +
+                "; without it: " + withoutArchive[0] + ", " + withoutArchive[1] + " (container start included)");
+    }
+
+    /**
+     * Returns the shared and total number of classes loaded before the first event was requested, and the time to
+     * that request.
+     */
+    private static String[] measure(Path workDir, Path runtimeDir, String handler, String jarFileName,
+                                    String archiveFileName) throws IOException {
+
+        String label = archiveFileName == null ? "without-archive" : "with-archive";
+        String classLoadLog = label + "-class-load.log";
+        List<String> javaArguments = new ArrayList<>();
+        javaArguments.add("-Xlog:class+load=info:file=" + inTaskRoot(classLoadLog));
+        if (archiveFileName != null) {
+            javaArguments.add("-XX:SharedArchiveFile=" + inTaskRoot(archiveFileName));
+        }
+        javaArguments.addAll(List.of("-Xshare:auto", "-jar", inTaskRoot(jarFileName)));
+        Optional<Duration> init = LocalRuntimeApi.measureInit(workDir.resolve(label + ".log"),
+                runtimeApi -> createContainer(workDir, runtimeDir, runtimeApi, handler,
+                        javaArguments.toArray(new String[0])));
+        long shared = 0;
+        long total = 0;
+        Path classLoadLogPath = workDir.resolve(classLoadLog);
+        if (Files.exists(classLoadLogPath)) {
+            try (Stream<String> lines = Files.lines(classLoadLogPath, StandardCharsets.UTF_8)) {
+                for (String line : (Iterable<String>) lines::iterator) {
+                    if (line.contains(CLASS_LOAD_SOURCE)) {
+                        total++;
+                        if (line.contains(SHARED_SOURCE)) {
+                            shared++;
+                        }
+                    }
+                }
+            }
+        }
+        return new String[]{shared + " of " + total, init.map(duration -> duration.toMillis() + " ms")
+                .orElse("no event requested")};
+    }
+
+    /**
+     * Runs {@code java} in the image of the layer JRE, or of the linked runtime mounted where its layer is extracted,
+     * with the work directory mounted as the task root. The container shares the network of the host to reach the
+     * stand-in, and receives the {@code SIGTERM} sent to {@code docker run} on stop, on which the JVM writes the class
+     * list.
+     */
+    private static ProcessBuilder createContainer(Path workDir, Path runtimeDir, String runtimeApi, String handler,
+                                                  String... javaArguments) {
+
+        ProcessBuilder pb = new ProcessBuilder("docker", "run", "--rm", Constants.DOCKER_PLATFORM_FLAG,
+                Constants.LAMBDA_REMOTE_COMPATIBLE_ARCHITECTURE, "-v", workDir.toAbsolutePath() + ":" + TASK_ROOT,
+                "-w", TASK_ROOT, "-e", "LAMBDA_TASK_ROOT=" + TASK_ROOT);
+        if (runtimeApi != null) {
+            pb.command().addAll(List.of("--network", "host", "-e", "AWS_LAMBDA_RUNTIME_API=" + runtimeApi,
+                    "-e", "_HANDLER=" + handler));
+        }
+        String java = "java";
+        if (runtimeDir != null) {
+            pb.command().addAll(List.of("-v", runtimeDir.toAbsolutePath() + ":" + JlinkRuntime.JAVA_HOME +
+                    ":ro"));
+            java = JlinkRuntime.JAVA_HOME + "/bin/java";
+        }
+        pb.command().addAll(List.of("--entrypoint", java, LAYER_JRE_IMAGE));
+        pb.command().addAll(List.of(javaArguments));
+        return pb;
+    }
+
+    private static String inTaskRoot(String fileName) {
+        return TASK_ROOT + "/" + fileName;
+    }
+}
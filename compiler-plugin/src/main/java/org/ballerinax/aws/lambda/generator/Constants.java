@@ -22,7 +22,11 @@ package org.ballerinax.aws.lambda.generator;
  */
 public class Constants {
 
-    public static final String LAMBDA_REG_FUNCTION_NAME = "__register";
+    public static final String LAMBDA_HANDLER_FUNCTION_NAME = "__handler";
+    public static final String LAMBDA_PROCESS_FUNCTION_NAME = "__process";
+    public static final String LAMBDA_INVALID_HANDLER_FUNCTION_NAME = "__invalidHandler";
+    public static final String JSON_EVENT_BINDING = "JSON_EVENT";
+    public static final String TYPED_EVENT_BINDING = "TYPED_EVENT";
     public static final String MAIN_FUNC_NAME = "main";
     public static final String LAMBDA_ORG_NAME = "ballerinax";
     public static final String AWS_ORG = "aws";
@@ -33,6 +37,9 @@ public class Constants {
     public static final String INPUT_PARAMS_NAME = "input";
     public static final String PROXY_FUNCTION_PREFIX = "__func_proxy__";
     public static final String LAMBDA_OUTPUT_ZIP_FILENAME = "aws-ballerina-lambda-functions.zip";
+    public static final String JRE_LAYER_ZIP_FILENAME = "aws-ballerina-lambda-jre.zip";
+    public static final String LIB_LAYER_ZIP_FILENAME = "aws-ballerina-lambda-lib.zip";
+    public static final String IMAGE_ARCHIVE_FILENAME = "aws-ballerina-lambda-image.tar";
     public static final String AWS_LAMBDA_PREFIX = "aws-lamb";
 
     public static final String CONTAINER_OUTPUT_PATH = ":/app/build/output";
@@ -42,17 +49,22 @@ public class Constants {
 
     public static final String BALLERINA_ORG = "ballerina";
     public static final String NATIVE_BUILDER_IMAGE_NAME = "lambda_native_builder";
-    public static final String BUILDER_TAG = "java21";
+    // Bumped whenever the arguments build-native.sh takes change, as a tag that is already pulled is not pulled again
+    public static final String BUILDER_TAG = "java21-2";
     public static final String NATIVE_BUILDER_IMAGE = BALLERINA_ORG + "/" + NATIVE_BUILDER_IMAGE_NAME +
             ":" + BUILDER_TAG;
 
-    public static final String BOOTSTRAP_CONTENT = "#!/bin/sh\n" +
-            "\n" +
-            "set -euo pipefail\n" +
-            "echo \"START Ballerina\"\n" +
-            "echo \"HANDLER: ${_HANDLER}\"\n" +
-            "$LAMBDA_TASK_ROOT/\"$(echo $_HANDLER | sed 's/\\.[^.]*$//')\"\n" +
-            "echo \"END Ballerina\"\n";
+    // Entry point of a deployment zip: the native executable itself, or the launcher of the jar
+    public static final String BOOTSTRAP = "bootstrap";
 
     public static final String FUNCTION_DIRECTORY = "aws_lambda";
+
+    public static final String PACKAGING_KEY = "packaging";
+    public static final String PER_FUNCTION_PACKAGING = "per-function";
+    public static final String FUNCTION_ZIP_EXTENSION = ".zip";
+    public static final String PGO_KEY = "pgo";
+    public static final String TRACING_AGENT_KEY = "tracing-agent";
+    public static final String CDS_KEY = "cds";
+    // Changes whenever the way zips are put together changes, so that zips of earlier builds are not reused
+    public static final String ARTIFACT_LAYOUT_VERSION = "aws-lambda-artifact-4";
 }
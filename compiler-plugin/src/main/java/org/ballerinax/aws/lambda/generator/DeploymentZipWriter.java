@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes deployment zip files that are byte for byte the same for the same content.
+ * <p>
+ * Entries are written in the order they are added, all with the same fixed modification time and without any extra
+ * fields, so neither the time of the build nor the time zone it runs in ends up in the zip. Unix file modes are
+ * recorded, which is what keeps {@code bootstrap} executable once AWS Lambda extracts the zip. Entries that are
+ * compressed already, such as jars, are stored as they are rather than deflated a second time for nothing.
+ * <p>
+ * Entries are streamed to the zip rather than staged. Their content is deflated on all cores, in blocks of
+ * {@value #BLOCK_SIZE} bytes that each start from the last {@value #DICTIONARY_SIZE} bytes of the block before them
+ * and end on a byte boundary, so that the blocks add up to one deflate stream. Blocks are cut at fixed offsets, which
+ * keeps the zip the same whatever the number of cores, while the data of each entry is written in order by the thread
+ * adding entries.
+ * <p>
+ * A zip with {@value #MAX_COUNT} entries or more, such as an exploded layout of a large package, or whose central
+ * directory ends past 4 GB, gets ZIP64 end records, which the end record then defers to.
+ *
+ * @since 3.3.1
+ */
+public class DeploymentZipWriter implements ArchiveWriter, Closeable {
+
+    public static final int FILE_MODE = 0644;
+    public static final int EXECUTABLE_MODE = 0755;
+    // Modification time of the files of a zip once extracted in UTC, as AWS Lambda does
+    public static final FileTime ENTRY_TIME = FileTime.from(Instant.parse("1980-02-01T00:00:00Z"));
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_VERSION = 45;
+    // Size of the ZIP64 end record after its signature and its size field
+    private static final int ZIP64_END_SIZE = 44;
+    private static final int VERSION = 20;
+    private static final int UNIX_HOST = 3;
+    private static final int REGULAR_FILE = 0100000;
+    // Sizes of deflated entries are written in a data descriptor after the data; names are UTF-8
+    private static final int DEFLATED_FLAGS = 0x0808;
+    // Sizes of stored entries are known up front, as most readers cannot find their end otherwise
+    private static final int STORED_FLAGS = 0x0800;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    // 1980-02-01 00:00:00 in MS-DOS date and time format
+    private static final int DOS_TIME = 0;
+    private static final int DOS_DATE = (2 << 5) | 1;
+    private static final long MAX_SIZE = 0xFFFFFFFFL;
+    private static final int MAX_COUNT = 0xFFFF;
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of("jar", "zip", "gz", "tgz", "bz2", "xz", "zst",
+            "png", "jpg", "jpeg", "gif", "webp", "woff", "woff2");
+    private static final int BLOCK_SIZE = 128 * 1024;
+    // The window of deflate, as far back as a block can refer to
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    // Blocks read but not written yet, beyond which adding an entry waits for the zip to catch up
+    private static final long MAX_PENDING_SIZE = 64L * 1024 * 1024;
+    // Shared by all zips of a build, as functions are packaged one after the other
+    private static final ExecutorService DEFLATE_EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "aws-lambda-zip-deflater");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final CountingOutputStream out;
+    private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+    private final Deque<QueuedWrite> pendingWrites = new ArrayDeque<>();
+    private long pendingSize;
+    private int entryCount;
+
+    public DeploymentZipWriter(Path zipPath) throws IOException {
+        this.out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(zipPath)));
+    }
+
+    /**
+     * Returns whether an entry of the given name holds data that is compressed already.
+     *
+     * @param name name of the entry
+     * @return true if the entry is stored rather than deflated
+     */
+    public static boolean isCompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > name.lastIndexOf('/') && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1)
+                .toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Adds a file to the zip.
+     *
+     * @param name   name of the entry
+     * @param source file to add
+     * @param mode   unix file mode of the entry
+     * @throws IOException if the file cannot be read or the zip cannot be written
+     */
+    public void addFile(String name, Path source, int mode) throws IOException {
+        if (isCompressed(name)) {
+            // Read twice, so that large files are not held in memory to checksum them before writing
+            CRC32 crc = new CRC32();
+            long size = 0;
+            try (InputStream inputStream = Files.newInputStream(source)) {
+                byte[] buffer = new byte[65536];
+                int read;
+                while ((read = inputStream.read(buffer)) >= 0) {
+                    crc.update(buffer, 0, read);
+                    size += read;
+                }
+            }
+            try (InputStream inputStream = Files.newInputStream(source)) {
+                addStoredEntry(name, inputStream, crc.getValue(), size, mode);
+            }
+            return;
+        }
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            addDeflatedEntry(name, inputStream, mode);
+        }
+    }
+
+    @Override
+    public void addBytes(String name, byte[] content, int mode) throws IOException {
+        if (isCompressed(name)) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            addStoredEntry(name, new ByteArrayInputStream(content), crc.getValue(), content.length, mode);
+            return;
+        }
+        addDeflatedEntry(name, new ByteArrayInputStream(content), mode);
+    }
+
+    private void addStoredEntry(String name, InputStream inputStream, long crc, long size, int mode)
+            throws IOException {
+
+        if (size > MAX_SIZE) {
+            throw new IOException("entry " + name + " is too large for a deployment zip");
+        }
+        Entry entry = new Entry(name, mode, STORED_FLAGS, STORED);
+        entry.crc = crc;
+        entry.size = size;
+        addPendingWrite(() -> writeLocalHeader(entry), 0);
+        long read = 0;
+        byte[] block;
+        while ((block = inputStream.readNBytes(BLOCK_SIZE)).length > 0) {
+            read += block.length;
+            byte[] data = block;
+            addPendingWrite(() -> writeData(entry, data), data.length);
+        }
+        if (read != size) {
+            throw new IOException("entry " + name + " changed while it was added to the zip");
+        }
+        addPendingWrite(() -> writeCentralHeader(entry), 0);
+    }
+
+    private void addDeflatedEntry(String name, InputStream inputStream, int mode) throws IOException {
+
+        Entry entry = new Entry(name, mode, DEFLATED_FLAGS, DEFLATED);
+        addPendingWrite(() -> writeLocalHeader(entry), 0);
+        CRC32 crc = new CRC32();
+        byte[] block = inputStream.readNBytes(BLOCK_SIZE);
+        byte[] dictionary = null;
+        while (true) {
+            // Read ahead, as the last block has to finish the deflate stream
+            byte[] next = block.length < BLOCK_SIZE ? new byte[0] : inputStream.readNBytes(BLOCK_SIZE);
+            boolean last = next.length == 0;
+            crc.update(block);
+            entry.size += block.length;
+            byte[] input = block;
+            byte[] preset = dictionary;
+            Future<byte[]> deflated = DEFLATE_EXECUTOR.submit(() -> deflate(input, preset, last));
+            addPendingWrite(() -> writeData(entry, getDeflated(name, deflated)), input.length);
+            if (last) {
+                break;
+            }
+            dictionary = Arrays.copyOfRange(block, Math.max(0, block.length - DICTIONARY_SIZE), block.length);
+            block = next;
+        }
+        entry.crc = crc.getValue();
+        if (entry.size > MAX_SIZE) {
+            throw new IOException("entry " + name + " is too large for a deployment zip");
+        }
+        addPendingWrite(() -> {
+            writeInt(this.out, DATA_DESCRIPTOR_SIGNATURE);
+            writeInt(this.out, entry.crc);
+            writeInt(this.out, entry.compressedSize);
+            writeInt(this.out, entry.size);
+            writeCentralHeader(entry);
+        }, 0);
+    }
+
+    /**
+     * Deflates a block of an entry on its own, starting from the data before it and ending on a byte boundary, or
+     * with the final block of the deflate stream if it is the last block of the entry.
+     */
+    private static byte[] deflate(byte[] input, byte[] dictionary, boolean last) {
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(input);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 2 + 64);
+            byte[] buffer = new byte[65536];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    output.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int length;
+                do {
+                    length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    output.write(buffer, 0, length);
+                } while (length == buffer.length);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] getDeflated(String name, Future<byte[]> deflated) throws IOException {
+        try {
+            return deflated.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("compressing " + name + " was interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("compressing " + name + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * Queues a write to the zip, and writes queued ones in order for as long as too much data is waiting.
+     */
+    private void addPendingWrite(PendingWrite write, long size) throws IOException {
+        this.pendingWrites.add(new QueuedWrite(write, size));
+        this.pendingSize += size;
+        while (this.pendingSize > MAX_PENDING_SIZE) {
+            writePending();
+        }
+    }
+
+    private void writePending() throws IOException {
+        QueuedWrite queuedWrite = this.pendingWrites.poll();
+        if (queuedWrite != null) {
+            queuedWrite.write().write();
+            this.pendingSize -= queuedWrite.size();
+        }
+    }
+
+    private void writeData(Entry entry, byte[] data) throws IOException {
+        this.out.write(data);
+        entry.compressedSize += data.length;
+        if (entry.compressedSize > MAX_SIZE) {
+            throw new IOException("entry " + entry.name + " is too large for a deployment zip");
+        }
+    }
+
+    private void writeLocalHeader(Entry entry) throws IOException {
+        entry.offset = this.out.count;
+        if (entry.offset > MAX_SIZE) {
+            throw new IOException("entry " + entry.name + " is too large for a deployment zip");
+        }
+        // Deflated entries leave their sizes to the data descriptor
+        boolean stored = entry.method == STORED;
+        writeInt(this.out, LOCAL_HEADER_SIGNATURE);
+        writeShort(this.out, VERSION);
+        writeShort(this.out, entry.flags);
+        writeShort(this.out, entry.method);
+        writeShort(this.out, DOS_TIME);
+        writeShort(this.out, DOS_DATE);
+        writeInt(this.out, stored ? entry.crc : 0);
+        writeInt(this.out, stored ? entry.size : 0);
+        writeInt(this.out, stored ? entry.size : 0);
+        writeShort(this.out, entry.nameBytes.length);
+        writeShort(this.out, 0);
+        this.out.write(entry.nameBytes);
+    }
+
+    private void writeCentralHeader(Entry entry) throws IOException {
+        ByteArrayOutputStream cen = this.centralDirectory;
+        writeInt(cen, CENTRAL_HEADER_SIGNATURE);
+        writeShort(cen, (UNIX_HOST << 8) | VERSION);
+        writeShort(cen, VERSION);
+        writeShort(cen, entry.flags);
+        writeShort(cen, entry.method);
+        writeShort(cen, DOS_TIME);
+        writeShort(cen, DOS_DATE);
+        writeInt(cen, entry.crc);
+        writeInt(cen, entry.compressedSize);
+        writeInt(cen, entry.size);
+        writeShort(cen, entry.nameBytes.length);
+        writeShort(cen, 0);
+        writeShort(cen, 0);
+        writeShort(cen, 0);
+        writeShort(cen, 0);
+        writeInt(cen, (long) (REGULAR_FILE | entry.mode) << 16);
+        writeInt(cen, entry.offset);
+        cen.write(entry.nameBytes);
+        this.entryCount++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (OutputStream outputStream = this.out) {
+            while (!this.pendingWrites.isEmpty()) {
+                writePending();
+            }
+            long offset = this.out.count;
+            long size = this.centralDirectory.size();
+            this.centralDirectory.writeTo(this.out);
+            // The end record holds counts of 16 bits and offsets of 32 bits, whose largest values point to ZIP64
+            boolean zip64 = this.entryCount >= MAX_COUNT || size >= MAX_SIZE || offset >= MAX_SIZE;
+            if (zip64) {
+                writeZip64End(offset, size);
+            }
+            writeInt(this.out, END_SIGNATURE);
+            writeShort(this.out, 0);
+            writeShort(this.out, 0);
+            writeShort(this.out, zip64 ? MAX_COUNT : this.entryCount);
+            writeShort(this.out, zip64 ? MAX_COUNT : this.entryCount);
+            writeInt(this.out, zip64 ? MAX_SIZE : size);
+            writeInt(this.out, zip64 ? MAX_SIZE : offset);
+            writeShort(this.out, 0);
+            outputStream.flush();
+        }
+    }
+
+    private void writeZip64End(long offset, long size) throws IOException {
+
+        long endOffset = this.out.count;
+        writeInt(this.out, ZIP64_END_SIGNATURE);
+        writeLong(this.out, ZIP64_END_SIZE);
+        writeShort(this.out, (UNIX_HOST << 8) | ZIP64_VERSION);
+        writeShort(this.out, ZIP64_VERSION);
+        writeInt(this.out, 0);
+        writeInt(this.out, 0);
+        writeLong(this.out, this.entryCount);
+        writeLong(this.out, this.entryCount);
+        writeLong(this.out, size);
+        writeLong(this.out, offset);
+        writeInt(this.out, ZIP64_LOCATOR_SIGNATURE);
+        writeInt(this.out, 0);
+        writeLong(this.out, endOffset);
+        writeInt(this.out, 1);
+    }
+
+    private static void writeShort(OutputStream out, int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+    }
+
+    private static void writeInt(OutputStream out, long value) throws IOException {
+        writeShort(out, (int) (value & 0xffff));
+        writeShort(out, (int) ((value >>> 16) & 0xffff));
+    }
+
+    private static void writeLong(OutputStream out, long value) throws IOException {
+        writeInt(out, value & 0xffffffffL);
+        writeInt(out, value >>> 32);
+    }
+
+    /**
+     * A write to the zip that waits for the writes of the entries added before it.
+     */
+    private interface PendingWrite {
+
+        void write() throws IOException;
+    }
+
+    private record QueuedWrite(PendingWrite write, long size) {
+    }
+
+    /**
+     * An entry being written, whose sizes and checksum are complete once its data is written.
+     */
+    private static class Entry {
+
+        private final String name;
+        private final byte[] nameBytes;
+        private final int mode;
+        private final int flags;
+        private final int method;
+        private long crc;
+        private long size;
+        private long compressedSize;
+        private long offset;
+
+        Entry(String name, int mode, int flags, int method) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            this.mode = mode;
+            this.flags = flags;
+            this.method = method;
+        }
+    }
+
+    /**
+     * Keeps track of the number of bytes written, which gives the offsets of the entries.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+            this.count += len;
+        }
+    }
+}
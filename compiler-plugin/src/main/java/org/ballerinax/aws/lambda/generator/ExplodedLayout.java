@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import io.ballerina.projects.Package;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipFile;
+
+/**
+ * Writes the entries of an executable jar extracted into the deployment zip, so that the JVM reads each class from
+ * the file AWS Lambda extracts it to instead of inflating it from the jar once more on every cold start.
+ * <p>
+ * Ballerina builds a single jar of the package, the runtime and all dependencies. The classes of the package itself
+ * go to {@value #CLASSES_DIRECTORY} and everything else to {@value #LIB_DIRECTORY}, both of which are put on the
+ * class path of the launcher. A class path of directories does not know multi-release jars, so the entries of the
+ * release the layer runs on replace the base entries.
+ * <p>
+ * The layered layout puts the dependencies in a layer zip of their own instead, extracted to
+ * {@value #DEPENDENCY_LAYER_PATH}, so that the zip of the functions holds nothing but the classes of the package.
+ * The layer is hashed by its content alone, which leaves it unchanged for as long as the dependencies are.
+ *
+ * @since 3.3.1
+ */
+public class ExplodedLayout {
+
+    public static final String CLASSES_DIRECTORY = "classes";
+    public static final String LIB_DIRECTORY = "lib";
+    public static final String DEPENDENCY_LAYER_DIRECTORY = "ballerina-lib";
+    // Where AWS Lambda extracts the dependency directory of the layer zip
+    public static final String DEPENDENCY_LAYER_PATH = "/opt/" + DEPENDENCY_LAYER_DIRECTORY;
+
+    private static final PrintStream OUT = System.out;
+    // The Java release of the JRE of the Ballerina layer
+    private static final Runtime.Version LAYER_RELEASE = Runtime.Version.parse("21");
+    // Ballerina encodes the dots of module names in the names of their classes
+    private static final String ENCODED_DOT = "$0046";
+
+    private final Path jarPath;
+    private final String packagePath;
+    private final String mainClass;
+
+    private ExplodedLayout(Path jarPath, String packagePath, String mainClass) {
+        this.jarPath = jarPath;
+        this.packagePath = packagePath;
+        this.mainClass = mainClass;
+    }
+
+    /**
+     * Returns the path under which the classes of the modules of a package are generated.
+     *
+     * @param currentPackage the package
+     * @return the org and the encoded name of the package
+     */
+    public static String getPackagePath(Package currentPackage) {
+        return currentPackage.packageOrg().value() + "/" +
+                currentPackage.packageName().value().replace(".", ENCODED_DOT);
+    }
+
+    /**
+     * Reads the main class of an executable jar.
+     *
+     * @param jarPath     the jar
+     * @param packagePath path of the classes of the package, see {@link #getPackagePath}
+     * @return the layout of the jar
+     * @throws IOException if the jar cannot be read or has no main class
+     */
+    public static ExplodedLayout load(Path jarPath, String packagePath) throws IOException {
+        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+            Manifest manifest = jarFile.getManifest();
+            String mainClass = manifest == null ? null : manifest.getMainAttributes()
+                    .getValue(Attributes.Name.MAIN_CLASS);
+            if (mainClass == null) {
+                throw new IOException(jarPath.getFileName() + " has no main class");
+            }
+            return new ExplodedLayout(jarPath, packagePath, mainClass);
+        }
+    }
+
+    public String getMainClass() {
+        return this.mainClass;
+    }
+
+    /**
+     * Returns the class path of the launcher.
+     *
+     * @param layout the layout of the function, either exploded or layered
+     * @return directories of the class path, as shell words
+     */
+    public static List<String> getClassPath(JvmLauncher.Layout layout) {
+        return List.of("$LAMBDA_TASK_ROOT/" + CLASSES_DIRECTORY, layout == JvmLauncher.Layout.LAYERED ?
+                DEPENDENCY_LAYER_PATH : "$LAMBDA_TASK_ROOT/" + LIB_DIRECTORY);
+    }
+
+    /**
+     * Writes the entries of the jar to a deployment zip. Entries that are compressed already are stored as they are.
+     *
+     * @param archiveWriter the deployment zip
+     * @throws IOException if the jar cannot be read or the zip cannot be written
+     */
+    public void write(ArchiveWriter archiveWriter) throws IOException {
+        int packageEntries = writeEntries(archiveWriter, true, CLASSES_DIRECTORY);
+        int libEntries = writeEntries(archiveWriter, false, LIB_DIRECTORY);
+        OUT.println("\t@aws.lambda:Exploded " + this.jarPath.getFileName() + " into " + packageEntries +
+                " entries of the package in " + CLASSES_DIRECTORY + "/ and " + libEntries + " of its dependencies in " +
+                LIB_DIRECTORY + "/");
+    }
+
+    /**
+     * Writes the entries of the package to a deployment zip or image layer, leaving its dependencies to the
+     * dependency layer.
+     *
+     * @param archiveWriter the deployment zip or image layer
+     * @throws IOException if the jar cannot be read or the archive cannot be written
+     */
+    public void writePackage(ArchiveWriter archiveWriter) throws IOException {
+        int packageEntries = writeEntries(archiveWriter, true, CLASSES_DIRECTORY);
+        OUT.println("\t@aws.lambda:Packaged " + packageEntries + " entries of the package in " + CLASSES_DIRECTORY +
+                "/");
+    }
+
+    /**
+     * Writes the entries of the dependencies of the package to the dependency layer, which holds them in
+     * {@value #DEPENDENCY_LAYER_PATH}.
+     *
+     * @param archiveWriter the layer zip or image layer
+     * @throws IOException if the jar cannot be read or the archive cannot be written
+     */
+    public void writeDependencies(ArchiveWriter archiveWriter) throws IOException {
+        int libEntries = writeEntries(archiveWriter, false, DEPENDENCY_LAYER_DIRECTORY);
+        OUT.println("\t@aws.lambda:Packaged " + libEntries + " entries of the dependencies in " +
+                DEPENDENCY_LAYER_DIRECTORY + "/");
+    }
+
+    /**
+     * Hashes the names and content of the entries of the dependencies, which change with the versions of the
+     * dependencies and of Ballerina but not with the code of the package.
+     *
+     * @return hex SHA-256 of the dependencies
+     * @throws IOException if the jar cannot be read
+     */
+    public String getDependencyHash() throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        forEachEntry(false, (name, content) -> {
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(content);
+            digest.update(Integer.toString(content.length).getBytes(StandardCharsets.UTF_8));
+        });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private int writeEntries(ArchiveWriter archiveWriter, boolean packageEntries, String directory)
+            throws IOException {
+        return forEachEntry(packageEntries, (name, content) ->
+                archiveWriter.addBytes(directory + "/" + name, content, DeploymentZipWriter.FILE_MODE));
+    }
+
+    /**
+     * Passes the entries of either the package or its dependencies to the given consumer in the order of the jar,
+     * returning how many there were.
+     */
+    private int forEachEntry(boolean packageEntries, EntryConsumer consumer) throws IOException {
+
+        int count = 0;
+        try (JarFile jarFile = new JarFile(this.jarPath.toFile(), false, ZipFile.OPEN_READ, LAYER_RELEASE)) {
+            for (JarEntry entry : jarFile.versionedStream().toList()) {
+                // The main class is passed to the launcher, which leaves the manifest nothing to do on a class path
+                if (entry.isDirectory() || entry.getName().equals(JarFile.MANIFEST_NAME)) {
+                    continue;
+                }
+                String name = entry.getName();
+                boolean isPackageEntry = name.startsWith(this.packagePath + "/") ||
+                        name.startsWith(this.packagePath + ENCODED_DOT);
+                if (isPackageEntry != packageEntries) {
+                    continue;
+                }
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    consumer.accept(name, inputStream.readAllBytes());
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private interface EntryConsumer {
+
+        void accept(String name, byte[] content) throws IOException;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.compiler.api.symbols.AnnotationAttachmentSymbol;
+import io.ballerina.compiler.api.symbols.FunctionSymbol;
+import io.ballerina.compiler.api.symbols.Symbol;
+import io.ballerina.compiler.api.symbols.SymbolKind;
+import io.ballerina.compiler.api.values.ConstantValue;
+import io.ballerina.compiler.syntax.tree.AnnotationNode;
+import io.ballerina.compiler.syntax.tree.BasicLiteralNode;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.MappingFieldNode;
+import io.ballerina.compiler.syntax.tree.MetadataNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.QualifiedNameReferenceNode;
+import io.ballerina.compiler.syntax.tree.SpecificFieldNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.diagnostics.DiagnosticSeverity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Deployment configuration of a function, set in the fields of its {@code @lambda:Function} annotation:
+ * <pre>
+ * &#64;lambda:Function {memorySize: 1024, timeout: 30, architecture: lambda:ARM64, ephemeralStorage: 2048,
+ *         reservedConcurrency: 10, provisionedConcurrency: 2, preset: lambda:THROUGHPUT}
+ * </pre>
+ * The code generator records the configuration of each function in {@code target/aws-lambda.json}, from which the
+ * packaging prints the commands to deploy the functions and picks the presets of their launchers and the heap of
+ * their native executables. As the annotation is a constant one, values are taken from what the compiler resolved for
+ * it, so that constants and constant expressions can be used along with literals and members of the enums of the
+ * module.
+ *
+ * @since 3.3.1
+ */
+public class FunctionConfig {
+
+    public static final String ARM64 = "arm64";
+    public static final long DEFAULT_MEMORY_SIZE = 512;
+    public static final long DEFAULT_TIMEOUT = 10;
+
+    private static final String DIAGNOSTIC_CODE = "AZ012";
+    private static final String ANNOTATION = "@lambda:Function";
+    private static final String MEMORY_SIZE_FIELD = "memorySize";
+    private static final String TIMEOUT_FIELD = "timeout";
+    private static final String ARCHITECTURE_FIELD = "architecture";
+    private static final String EPHEMERAL_STORAGE_FIELD = "ephemeralStorage";
+    private static final String RESERVED_CONCURRENCY_FIELD = "reservedConcurrency";
+    private static final String PROVISIONED_CONCURRENCY_FIELD = "provisionedConcurrency";
+    private static final String PRESET_FIELD = "preset";
+    // Members of the Architecture and Preset enums of the module, by name
+    private static final Map<String, String> ARCHITECTURES = Map.of("X86_64", "x86_64", "ARM64", ARM64);
+    private static final Map<String, String> PRESETS = Map.of("FAST_START", "fast-start", "THROUGHPUT", "throughput");
+    private static final long MIN_MEMORY_SIZE = 128;
+    private static final long MAX_MEMORY_SIZE = 10240;
+    private static final long MAX_TIMEOUT = 900;
+    private static final long MIN_EPHEMERAL_STORAGE = 512;
+    private static final long MAX_EPHEMERAL_STORAGE = 10240;
+
+    private final String name;
+    private Long memorySize;
+    private Long timeout;
+    private String architecture;
+    private Long ephemeralStorage;
+    private Long reservedConcurrency;
+    private Long provisionedConcurrency;
+    private String preset;
+
+    public FunctionConfig(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Reads the configuration of a function from its {@code @lambda:Function} annotation.
+     *
+     * @param function      the function
+     * @param semanticModel semantic model of the module of the function
+     * @param diagnostics   list to add the errors of invalid values to, which are left unset
+     * @return the configuration, with nothing set if the function is not annotated or the annotation has no fields
+     */
+    public static FunctionConfig read(FunctionDefinitionNode function, SemanticModel semanticModel,
+                                      List<Diagnostic> diagnostics) {
+
+        FunctionConfig config = new FunctionConfig(function.functionName().text());
+        Map<String, Object> constants = getConstantValues(function, semanticModel);
+        List<AnnotationNode> annotations = function.metadata().map(MetadataNode::annotations)
+                .map(nodes -> nodes.stream().toList()).orElse(List.of());
+        for (AnnotationNode annotation : annotations) {
+            if (annotation.annotValue().isEmpty() || !isFunctionAnnotation(annotation, semanticModel)) {
+                continue;
+            }
+            for (MappingFieldNode field : annotation.annotValue().get().fields()) {
+                if (!(field instanceof SpecificFieldNode specificField) || specificField.valueExpr().isEmpty() ||
+                        !(specificField.fieldName() instanceof Token fieldName)) {
+                    diagnostics.add(getDiagnostic(field, "the fields of " + ANNOTATION + " must be set by name"));
+                    continue;
+                }
+                ExpressionNode value = specificField.valueExpr().get();
+                Object constant = constants.get(fieldName.text());
+                switch (fieldName.text()) {
+                    case MEMORY_SIZE_FIELD -> config.memorySize = readNumber(value, constant, MEMORY_SIZE_FIELD,
+                            MIN_MEMORY_SIZE, MAX_MEMORY_SIZE, diagnostics);
+                    case TIMEOUT_FIELD -> config.timeout = readNumber(value, constant, TIMEOUT_FIELD, 1, MAX_TIMEOUT,
+                            diagnostics);
+                    case ARCHITECTURE_FIELD -> config.architecture = readMember(value, constant, ARCHITECTURE_FIELD,
+                            ARCHITECTURES, diagnostics);
+                    case EPHEMERAL_STORAGE_FIELD -> config.ephemeralStorage = readNumber(value, constant,
+                            EPHEMERAL_STORAGE_FIELD, MIN_EPHEMERAL_STORAGE, MAX_EPHEMERAL_STORAGE, diagnostics);
+                    case RESERVED_CONCURRENCY_FIELD -> config.reservedConcurrency = readNumber(value, constant,
+                            RESERVED_CONCURRENCY_FIELD, 0, Integer.MAX_VALUE, diagnostics);
+                    case PROVISIONED_CONCURRENCY_FIELD -> config.provisionedConcurrency = readNumber(value,
+                            constant, PROVISIONED_CONCURRENCY_FIELD, 1, Integer.MAX_VALUE, diagnostics);
+                    case PRESET_FIELD -> config.preset = readMember(value, constant, PRESET_FIELD, PRESETS,
+                            diagnostics);
+                    default -> {
+                        // Unknown fields are rejected by the type of the annotation
+                    }
+                }
+            }
+            if (config.reservedConcurrency != null && config.provisionedConcurrency != null &&
+                    config.provisionedConcurrency > config.reservedConcurrency) {
+                diagnostics.add(getDiagnostic(annotation, PROVISIONED_CONCURRENCY_FIELD + " of " + ANNOTATION +
+                        " cannot exceed its " + RESERVED_CONCURRENCY_FIELD));
+            }
+        }
+        return config;
+    }
+
+    private static boolean isFunctionAnnotation(AnnotationNode annotation, SemanticModel semanticModel) {
+        return semanticModel.symbol(annotation.annotReference()).filter(FunctionConfig::isFunctionAnnotationSymbol)
+                .isPresent();
+    }
+
+    private static boolean isFunctionAnnotationSymbol(Symbol symbol) {
+        return symbol.kind() == SymbolKind.ANNOTATION && symbol.getName().filter("Function"::equals).isPresent() &&
+                symbol.getModule().filter(module -> LambdaUtils.isAwsLambdaModule(module.id())).isPresent();
+    }
+
+    /**
+     * Returns the values the compiler resolved for the fields of the {@code @lambda:Function} annotation of a
+     * function, by field name, or nothing if it could not resolve them, such as when the values do not type-check.
+     */
+    private static Map<String, Object> getConstantValues(FunctionDefinitionNode function,
+                                                         SemanticModel semanticModel) {
+
+        Optional<Symbol> symbol = semanticModel.symbol(function);
+        if (symbol.isEmpty() || !(symbol.get() instanceof FunctionSymbol functionSymbol)) {
+            return Map.of();
+        }
+        for (AnnotationAttachmentSymbol attachment : functionSymbol.annotAttachments()) {
+            if (!isFunctionAnnotationSymbol(attachment.typeDescriptor())) {
+                continue;
+            }
+            Optional<ConstantValue> attachmentValue = attachment.attachmentValue();
+            if (attachmentValue.isPresent() && attachmentValue.get().value() instanceof Map<?, ?> fields) {
+                Map<String, Object> values = new HashMap<>();
+                fields.forEach((name, field) -> values.put(name.toString(),
+                        field instanceof ConstantValue constant ? constant.value() : field));
+                return values;
+            }
+        }
+        return Map.of();
+    }
+
+    private static Long readNumber(ExpressionNode value, Object constant, String field, long min, long max,
+                                   List<Diagnostic> diagnostics) {
+
+        Long number = constant instanceof Long resolved ? resolved : null;
+        if (number == null && value instanceof BasicLiteralNode literal &&
+                literal.kind() == SyntaxKind.NUMERIC_LITERAL) {
+            try {
+                number = Long.decode(literal.literalToken().text());
+            } catch (NumberFormatException e) {
+                // Reported below along with numbers out of range
+            }
+        }
+        if (number != null && number >= min && number <= max) {
+            return number;
+        }
+        if (number == null && !(value instanceof BasicLiteralNode)) {
+            diagnostics.add(getUnresolvedDiagnostic(value, field));
+            return null;
+        }
+        diagnostics.add(getDiagnostic(value, field + " of " + ANNOTATION + " must be a number between " + min +
+                " and " + max));
+        return null;
+    }
+
+    private static String readMember(ExpressionNode value, Object constant, String field, Map<String, String> members,
+                                     List<Diagnostic> diagnostics) {
+
+        if (constant instanceof String member && members.containsValue(member)) {
+            return member;
+        }
+        if (value instanceof BasicLiteralNode literal && literal.kind() == SyntaxKind.STRING_LITERAL) {
+            String text = literal.literalToken().text();
+            String member = text.substring(1, text.length() - 1);
+            if (members.containsValue(member)) {
+                return member;
+            }
+        }
+        if (value instanceof QualifiedNameReferenceNode reference &&
+                members.containsKey(reference.identifier().text())) {
+            return members.get(reference.identifier().text());
+        }
+        if (constant == null && !(value instanceof BasicLiteralNode) &&
+                !(value instanceof QualifiedNameReferenceNode)) {
+            diagnostics.add(getUnresolvedDiagnostic(value, field));
+            return null;
+        }
+        diagnostics.add(getDiagnostic(value, field + " of " + ANNOTATION + " must be one of " +
+                new TreeSet<>(members.values())));
+        return null;
+    }
+
+    private static Diagnostic getUnresolvedDiagnostic(ExpressionNode value, String field) {
+        return getDiagnostic(value, "the value of " + field + " of " + ANNOTATION + " could not be resolved, set it " +
+                "with a literal instead");
+    }
+
+    private static Diagnostic getDiagnostic(Node node, String message) {
+        return LambdaUtils.getDiagnostic(node.location(), DIAGNOSTIC_CODE, message, DiagnosticSeverity.ERROR);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Optional<Long> getMemorySize() {
+        return Optional.ofNullable(this.memorySize);
+    }
+
+    public Optional<Long> getTimeout() {
+        return Optional.ofNullable(this.timeout);
+    }
+
+    public Optional<String> getArchitecture() {
+        return Optional.ofNullable(this.architecture);
+    }
+
+    public boolean isArm64() {
+        return ARM64.equals(this.architecture);
+    }
+
+    public Optional<Long> getEphemeralStorage() {
+        return Optional.ofNullable(this.ephemeralStorage);
+    }
+
+    public Optional<Long> getReservedConcurrency() {
+        return Optional.ofNullable(this.reservedConcurrency);
+    }
+
+    public Optional<Long> getProvisionedConcurrency() {
+        return Optional.ofNullable(this.provisionedConcurrency);
+    }
+
+    public Optional<String> getPreset() {
+        return Optional.ofNullable(this.preset);
+    }
+
+    /**
+     * Returns whether any field of the annotation is set.
+     *
+     * @return false if the function is deployed with the defaults
+     */
+    public boolean isSet() {
+        return this.memorySize != null || this.timeout != null || this.architecture != null ||
+                this.ephemeralStorage != null || this.reservedConcurrency != null ||
+                this.provisionedConcurrency != null || this.preset != null;
+    }
+}
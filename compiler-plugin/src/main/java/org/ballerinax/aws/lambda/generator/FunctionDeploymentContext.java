@@ -21,6 +21,8 @@ package org.ballerinax.aws.lambda.generator;
 import io.ballerina.compiler.api.SemanticModel;
 import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
 
+import java.util.ArrayList;
+
 /**
  * Responsible for generating intermediate function from original aws lambda function.
  * 
@@ -29,9 +31,12 @@ import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
 public class FunctionDeploymentContext {
     private final FunctionDefinitionNode originalFunction;
     private final FunctionDefinitionNode generatedFunction;
+    private final FunctionConfig config;
     public FunctionDeploymentContext(FunctionDefinitionNode originalFunction, SemanticModel semanticModel) {
         this.originalFunction = originalFunction;
         this.generatedFunction = LambdaUtils.createHandlerFunction(originalFunction, semanticModel);
+        // Invalid values are reported by the code analyzer
+        this.config = FunctionConfig.read(originalFunction, semanticModel, new ArrayList<>());
     }
 
     public FunctionDefinitionNode getOriginalFunction() {
@@ -41,4 +46,8 @@ public class FunctionDeploymentContext {
     public FunctionDefinitionNode getGeneratedFunction() {
         return generatedFunction;
     }
+
+    public FunctionConfig getConfig() {
+        return config;
+    }
 }
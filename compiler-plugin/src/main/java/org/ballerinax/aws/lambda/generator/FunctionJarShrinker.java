@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a copy of a Ballerina executable jar that only holds the classes a single lambda function can reach.
+ * <p>
+ * References are read from the constant pool of each class, so every class, descriptor or class name literal a class
+ * mentions counts as reached. Only the classes of Ballerina modules are dropped; the runtime and the Java libraries
+ * the modules call into are always kept, as they may load classes by name. Proxies of all other functions are treated
+ * as unreachable, so their classes, and anything only they reach, are left out. The generated main still has a branch
+ * for each of them, but it never runs since the function is deployed with its own handler. {@code native-image} builds
+ * such a jar as well, as it only reports the classes it cannot find when the code referring to them runs.
+ *
+ * @since 3.3.1
+ */
+public class FunctionJarShrinker {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String MODULE_INIT_CLASS = "$_init";
+    private static final String GENERATED_CLASS_PREFIX = "$";
+    private static final int MAX_CLASS_NAME_LENGTH = 1024;
+
+    private final Path jarPath;
+    private final Map<String, ClassInfo> classes;
+    private final Set<String> modulePackages;
+    private final String mainClass;
+
+    private FunctionJarShrinker(Path jarPath, Map<String, ClassInfo> classes, Set<String> modulePackages,
+                                String mainClass) {
+        this.jarPath = jarPath;
+        this.classes = classes;
+        this.modulePackages = modulePackages;
+        this.mainClass = mainClass;
+    }
+
+    /**
+     * Reads the classes of an executable jar.
+     *
+     * @param jarPath the executable jar
+     * @return shrinker for the jar
+     * @throws IOException if the jar cannot be read
+     */
+    public static FunctionJarShrinker load(Path jarPath) throws IOException {
+
+        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+            Set<String> classNames = new HashSet<>();
+            Set<String> modulePackages = new HashSet<>();
+            jarFile.stream().map(ZipEntry::getName).filter(FunctionJarShrinker::isClassEntry).forEach(name -> {
+                String className = name.substring(0, name.length() - CLASS_SUFFIX.length());
+                classNames.add(className);
+                if (getSimpleName(className).equals(MODULE_INIT_CLASS)) {
+                    modulePackages.add(getPackageName(className));
+                }
+            });
+            Map<String, ClassInfo> classes = new HashMap<>();
+            for (String className : classNames) {
+                try (InputStream inputStream = jarFile.getInputStream(jarFile.getEntry(className + CLASS_SUFFIX))) {
+                    classes.put(className, ClassInfo.read(inputStream.readAllBytes(), classNames));
+                }
+            }
+            Manifest manifest = jarFile.getManifest();
+            String mainClass = manifest == null ? null :
+                    manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+            return new FunctionJarShrinker(jarPath, classes, modulePackages,
+                    mainClass == null ? null : mainClass.replace('.', '/'));
+        }
+    }
+
+    /**
+     * Returns the number of classes in the jar.
+     *
+     * @return class count
+     */
+    public int getClassCount() {
+        return this.classes.size();
+    }
+
+    /**
+     * Writes the jar for a function, leaving out the classes the function cannot reach. If the proxy of the function
+     * cannot be found in the jar, the jar is copied as is.
+     *
+     * @param functionName name of the {@code @lambda:Function}
+     * @param targetPath   where to write the jar
+     * @return the number of classes written
+     * @throws IOException if the jar cannot be written
+     */
+    public int shrink(String functionName, Path targetPath) throws IOException {
+
+        Optional<Set<String>> reachableClasses = getReachableClasses(Constants.PROXY_FUNCTION_PREFIX + functionName);
+        if (reachableClasses.isEmpty()) {
+            Files.copy(this.jarPath, targetPath);
+            return this.classes.size();
+        }
+        Set<String> reachable = reachableClasses.get();
+        try (JarFile jarFile = new JarFile(this.jarPath.toFile());
+             OutputStream outputStream = Files.newOutputStream(targetPath);
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            for (ZipEntry entry : jarFile.stream().toList()) {
+                String name = entry.getName();
+                if (isClassEntry(name) &&
+                        !reachable.contains(name.substring(0, name.length() - CLASS_SUFFIX.length()))) {
+                    continue;
+                }
+                ZipEntry copy = new ZipEntry(name);
+                copy.setTime(entry.getTime());
+                zipOutputStream.putNextEntry(copy);
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    inputStream.transferTo(zipOutputStream);
+                }
+                zipOutputStream.closeEntry();
+            }
+        }
+        return reachable.size();
+    }
+
+    private Optional<Set<String>> getReachableClasses(String proxyName) {
+
+        String proxyClass = null;
+        Set<String> excluded = new HashSet<>();
+        Map<String, List<String>> generatedClasses = new HashMap<>();
+        for (Map.Entry<String, ClassInfo> entry : this.classes.entrySet()) {
+            String className = entry.getKey();
+            for (String method : entry.getValue().methods) {
+                if (method.equals(proxyName)) {
+                    proxyClass = className;
+                } else if (method.startsWith(Constants.PROXY_FUNCTION_PREFIX)) {
+                    excluded.add(className);
+                }
+            }
+            if (getSimpleName(className).startsWith(GENERATED_CLASS_PREFIX)) {
+                generatedClasses.computeIfAbsent(getPackageName(className), key -> new ArrayList<>()).add(className);
+            }
+        }
+        // Proxies generated into a single class cannot be told apart, and neither can a jar without a main class.
+        if (proxyClass == null || excluded.contains(proxyClass) || this.mainClass == null ||
+                !this.classes.containsKey(this.mainClass)) {
+            return Optional.empty();
+        }
+
+        Set<String> reachable = new HashSet<>();
+        Set<String> reachedPackages = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(this.mainClass);
+        for (String className : this.classes.keySet()) {
+            if (!this.modulePackages.contains(getPackageName(className))) {
+                pending.add(className);
+            }
+        }
+        while (!pending.isEmpty()) {
+            String className = pending.poll();
+            if (excluded.contains(className) || !reachable.add(className)) {
+                continue;
+            }
+            String packageName = getPackageName(className);
+            if (this.modulePackages.contains(packageName) && reachedPackages.add(packageName)) {
+                // Classes generated for the module itself, such as its init, type and value creator classes, are
+                // looked up by the runtime, so they are kept once anything of the module is.
+                pending.addAll(generatedClasses.getOrDefault(packageName, List.of()));
+            }
+            pending.addAll(this.classes.get(className).references);
+        }
+        return Optional.of(reachable);
+    }
+
+    private static boolean isClassEntry(String name) {
+        return name.endsWith(CLASS_SUFFIX) && !name.startsWith("META-INF/") && !name.endsWith("module-info.class");
+    }
+
+    private static String getPackageName(String className) {
+        int separator = className.lastIndexOf('/');
+        return separator < 0 ? "" : className.substring(0, separator);
+    }
+
+    private static String getSimpleName(String className) {
+        return className.substring(className.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Classes a class refers to and the methods it declares, read from its class file.
+     */
+    private static class ClassInfo {
+
+        private final Set<String> references = new HashSet<>();
+        private final Set<String> methods = new HashSet<>();
+
+        static ClassInfo read(byte[] bytes, Set<String> classNames) throws IOException {
+
+            ClassInfo classInfo = new ClassInfo();
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+            input.skipBytes(8);
+            int constantPoolCount = input.readUnsignedShort();
+            String[] utf8 = new String[constantPoolCount];
+            for (int i = 1; i < constantPoolCount; i++) {
+                int tag = input.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        utf8[i] = input.readUTF();
+                        classInfo.addReferences(utf8[i], classNames);
+                        break;
+                    case 7, 8, 16, 19, 20:
+                        input.skipBytes(2);
+                        break;
+                    case 15:
+                        input.skipBytes(3);
+                        break;
+                    case 3, 4, 9, 10, 11, 12, 17, 18:
+                        input.skipBytes(4);
+                        break;
+                    case 5, 6:
+                        input.skipBytes(8);
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("unsupported constant pool tag " + tag);
+                }
+            }
+            input.skipBytes(6);
+            input.skipBytes(2 * input.readUnsignedShort());
+            skipMembers(input, null, null);
+            skipMembers(input, utf8, classInfo.methods);
+            return classInfo;
+        }
+
+        /**
+         * Reads past the fields or methods of a class, collecting their names when asked to.
+         */
+        private static void skipMembers(DataInputStream input, String[] utf8, Set<String> names)
+                throws IOException {
+
+            int count = input.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                input.skipBytes(2);
+                int nameIndex = input.readUnsignedShort();
+                if (names != null) {
+                    names.add(utf8[nameIndex]);
+                }
+                input.skipBytes(2);
+                int attributeCount = input.readUnsignedShort();
+                for (int j = 0; j < attributeCount; j++) {
+                    input.skipBytes(2);
+                    input.skipBytes(input.readInt());
+                }
+            }
+        }
+
+        /**
+         * Adds the classes named by a constant, either as an internal or binary class name, or within a type
+         * descriptor or signature.
+         */
+        private void addReferences(String constant, Set<String> classNames) {
+
+            String internalName = constant.replace('.', '/');
+            if (classNames.contains(internalName)) {
+                this.references.add(internalName);
+            }
+            int start = constant.indexOf('L');
+            while (start >= 0) {
+                int end = constant.indexOf(';', start);
+                if (end < 0) {
+                    break;
+                }
+                if (end - start <= MAX_CLASS_NAME_LENGTH) {
+                    String candidate = constant.substring(start + 1, end);
+                    if (classNames.contains(candidate)) {
+                        this.references.add(candidate);
+                    }
+                }
+                start = constant.indexOf('L', start + 1);
+            }
+        }
+    }
+}
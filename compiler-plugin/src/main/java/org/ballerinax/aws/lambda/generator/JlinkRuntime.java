@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import io.ballerina.projects.Package;
+import io.ballerina.toml.api.Toml;
+import io.ballerina.toml.semantic.ast.TomlBooleanValueNode;
+import io.ballerina.toml.semantic.ast.TomlStringValueNode;
+import io.ballerina.toml.semantic.ast.TomlValueNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Links a Java runtime holding only the modules a jar uses, to deploy as a layer of its own in place of the full JRE
+ * of the Ballerina layer:
+ * <pre>
+ * [aws.lambda.jre]
+ * jlink = true
+ * add-modules = "jdk.localedata"   # modules loaded in ways jdeps cannot see
+ * </pre>
+ * The modules are found with {@code jdeps} and linked with compressed modules, without debug information, and with
+ * the default class data sharing archive the full JRE ships. Both run in the JDK image of the same build as the JRE
+ * of the Ballerina layer, so that the runtime is for Linux x86_64 whatever the host is.
+ *
+ * @since 3.3.1
+ */
+public class JlinkRuntime {
+
+    // Where AWS Lambda extracts the runtime directory of the layer zip
+    public static final String JAVA_HOME = "/opt/jre";
+    public static final String JDK_IMAGE = "eclipse-temurin:21.0.5_11-jdk";
+
+    private static final PrintStream OUT = System.out;
+    private static final String JRE_KEY = "jre";
+    private static final String JLINK_KEY = "jlink";
+    private static final String ADD_MODULES_KEY = "add-modules";
+    private static final String RUNTIME_DIRECTORY = "jre";
+    private static final String MODULES_FILE = "modules.txt";
+    private static final String CONTAINER_WORK_DIR = "/work";
+    // Security providers are looked up through the service loader, which jdeps does not follow; elliptic curves are
+    // needed by most TLS connections to AWS services
+    private static final List<String> SERVICE_MODULES = List.of("jdk.crypto.ec");
+    private static final long LINK_TIMEOUT_MINUTES = 10;
+
+    private final List<String> addModules;
+
+    private JlinkRuntime(List<String> addModules) {
+        this.addModules = addModules;
+    }
+
+    /**
+     * Reads whether a package is deployed with a linked runtime.
+     *
+     * @param currentPackage the package being built
+     * @return the runtime, or empty if the package is deployed with the Ballerina layer
+     * @throws IOException if the options are invalid
+     */
+    public static Optional<JlinkRuntime> load(Package currentPackage) throws IOException {
+
+        Optional<Toml> jreTable = LambdaUtils.getLambdaTable(currentPackage, JRE_KEY);
+        if (jreTable.isEmpty()) {
+            return Optional.empty();
+        }
+        String section = Constants.LAMBDA_MODULE_NAME + "." + JRE_KEY;
+        Optional<TomlValueNode> jlink = jreTable.get().get(JLINK_KEY);
+        if (jlink.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!(jlink.get() instanceof TomlBooleanValueNode booleanValue)) {
+            throw new IOException(section + " " + JLINK_KEY + " must be true or false");
+        }
+        if (!booleanValue.getValue()) {
+            return Optional.empty();
+        }
+        List<String> addModules = new ArrayList<>();
+        Optional<TomlValueNode> modules = jreTable.get().get(ADD_MODULES_KEY);
+        if (modules.isPresent()) {
+            if (!(modules.get() instanceof TomlStringValueNode stringValue)) {
+                throw new IOException(section + " " + ADD_MODULES_KEY + " must be a comma separated list of modules");
+            }
+            for (String module : stringValue.getValue().split(",")) {
+                if (!module.isBlank()) {
+                    addModules.add(module.trim());
+                }
+            }
+        }
+        return Optional.of(new JlinkRuntime(addModules));
+    }
+
+    /**
+     * Returns the options that, besides the jar, decide the content of the runtime.
+     *
+     * @return values to hash
+     */
+    public List<String> getInputValues() {
+        List<String> values = new ArrayList<>();
+        values.add(JDK_IMAGE);
+        values.addAll(SERVICE_MODULES);
+        values.addAll(this.addModules);
+        return values;
+    }
+
+    /**
+     * Links the runtime of a jar.
+     *
+     * @param jarPath the jar
+     * @param workDir directory to link the runtime in, which holds it afterwards
+     * @return the runtime
+     * @throws IOException if the runtime cannot be linked
+     */
+    public Path link(Path jarPath, Path workDir) throws IOException {
+
+        LambdaUtils.deleteDirectory(workDir);
+        Files.createDirectories(workDir);
+        String jarFileName = jarPath.getFileName().toString();
+        Files.copy(jarPath, workDir.resolve(jarFileName));
+        Set<String> extraModules = new LinkedHashSet<>(SERVICE_MODULES);
+        extraModules.addAll(this.addModules);
+        String script = "set -e\n" +
+                "modules=$(jdeps --ignore-missing-deps --multi-release 21 --print-module-deps " + jarFileName + ")\n" +
+                "echo \"$modules," + String.join(",", extraModules) + "\" > " + MODULES_FILE + "\n" +
+                "jlink --add-modules \"$(cat " + MODULES_FILE + ")\" --compress=zip-6 --strip-debug " +
+                "--no-header-files --no-man-pages --generate-cds-archive --output " + RUNTIME_DIRECTORY + "\n";
+        OUT.println("\t@aws.lambda:Linking the Java runtime of " + jarFileName + " in " + JDK_IMAGE + "\n");
+        Path log = workDir.resolve("jlink.log");
+        ProcessBuilder pb = new ProcessBuilder("docker", "run", "--rm", Constants.DOCKER_PLATFORM_FLAG,
+                Constants.LAMBDA_REMOTE_COMPATIBLE_ARCHITECTURE);
+        // Runs as the user of the build where there is one, so that the runtime can be deleted with the target
+        try {
+            pb.command().addAll(List.of("--user", Files.getAttribute(workDir, "unix:uid") + ":" +
+                    Files.getAttribute(workDir, "unix:gid")));
+        } catch (UnsupportedOperationException e) {
+            // Docker Desktop on Windows maps the owner of mounted files itself
+        }
+        pb.command().addAll(List.of("-v", workDir.toAbsolutePath() + ":" + CONTAINER_WORK_DIR,
+                "-w", CONTAINER_WORK_DIR, "--entrypoint", "sh", JDK_IMAGE, "-c", script));
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(log.toFile());
+        try {
+            Process process = pb.start();
+            if (!process.waitFor(LINK_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+                throw new IOException("linking the Java runtime timed out");
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("linking the Java runtime failed with exit code " + process.exitValue() +
+                        ". Refer to " + log + " for information");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("linking the Java runtime was interrupted");
+        }
+        Files.delete(workDir.resolve(jarFileName));
+        Path runtimeDir = getRuntimeDir(workDir);
+        List<String> modules = Arrays.stream(Files.readString(workDir.resolve(MODULES_FILE), StandardCharsets.UTF_8)
+                .trim().split(",")).filter(module -> !module.isBlank()).distinct().toList();
+        OUT.println("\t@aws.lambda:Linked Java runtime of " + modules.size() + " modules, " +
+                getSize(runtimeDir) / (1024 * 1024) + " MB: " + String.join(", ", modules));
+        return runtimeDir;
+    }
+
+    /**
+     * Returns where {@link #link} leaves the runtime.
+     *
+     * @param workDir directory the runtime is linked in
+     * @return the runtime
+     */
+    public static Path getRuntimeDir(Path workDir) {
+        return workDir.resolve(RUNTIME_DIRECTORY);
+    }
+
+    /**
+     * Writes the layer zip of a runtime, which AWS Lambda extracts to {@value #JAVA_HOME}.
+     *
+     * @param runtimeDir the runtime
+     * @param zipPath    where to write the layer zip
+     * @throws IOException if the runtime cannot be read or the zip cannot be written
+     */
+    public static void writeLayerZip(Path runtimeDir, Path zipPath) throws IOException {
+
+        Files.deleteIfExists(zipPath);
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(runtimeDir)) {
+            files = paths.filter(Files::isRegularFile).sorted().toList();
+        }
+        String prefix = JAVA_HOME.substring(JAVA_HOME.lastIndexOf('/') + 1) + "/";
+        try (DeploymentZipWriter zipWriter = new DeploymentZipWriter(zipPath)) {
+            for (Path file : files) {
+                String name = prefix + runtimeDir.relativize(file).toString().replace('\\', '/');
+                zipWriter.addFile(name, file, Files.isExecutable(file) ? DeploymentZipWriter.EXECUTABLE_MODE :
+                        DeploymentZipWriter.FILE_MODE);
+            }
+        }
+    }
+
+    private static long getSize(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            long size = 0;
+            for (Path file : paths.filter(Files::isRegularFile).toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+}
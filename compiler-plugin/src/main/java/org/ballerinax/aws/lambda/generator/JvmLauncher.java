@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import io.ballerina.projects.Package;
+import io.ballerina.toml.api.Toml;
+import io.ballerina.toml.semantic.ast.TomlStringValueNode;
+import io.ballerina.toml.semantic.ast.TomlValueNode;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Generates the {@code bootstrap} of a JVM deployment zip, which takes precedence over the generic bootstrap of the
+ * Ballerina layer. The launcher execs the JVM of the layer straight away, without forking anything, with flags chosen
+ * from {@code AWS_LAMBDA_FUNCTION_MEMORY_SIZE} by the preset of the function:
+ * <pre>
+ * [aws.lambda.jvm]
+ * preset = "fast-start"       # or "throughput"
+ * layout = "jar"              # or "exploded", "layered"
+ *
+ * [aws.lambda.jvm.functions.transform]
+ * preset = "throughput"
+ * </pre>
+ * A function can also set its preset in its {@link FunctionConfig annotation}, over which its table takes
+ * precedence. The preset of a deployed function can be switched without a rebuild by setting {@value #PRESET_ENV}. The
+ * layout decides whether the JVM starts the jar or the classes of an {@link ExplodedLayout}.
+ *
+ * @since 3.3.1
+ */
+public class JvmLauncher {
+
+    public static final String PRESET_ENV = "BALLERINA_AWS_LAMBDA_JVM_PRESET";
+    public static final JvmLauncher DEFAULT = new JvmLauncher(Preset.FAST_START, Map.of(), null, Layout.JAR);
+
+    private static final String JVM_KEY = "jvm";
+    private static final String FUNCTIONS_KEY = "functions";
+    private static final String PRESET_KEY = "preset";
+    private static final String LAYOUT_KEY = "layout";
+    private static final String LAYER_JAVA_HOME = "/opt/jdk";
+    // Below this memory size a function gets less than one vCPU, and Lambda adds a vCPU for every 1769 MB
+    private static final int TWO_VCPU_MEMORY_SIZE = 3538;
+    // Small heaps leave more of the memory to metaspace, code cache and thread stacks
+    private static final int SMALL_MEMORY_SIZE = 256;
+    private static final int SMALL_HEAP_PERCENTAGE = 60;
+    private static final int HEAP_PERCENTAGE = 75;
+
+    private final Preset preset;
+    private final Map<String, Preset> functionPresets;
+    private final String javaHome;
+    private final Layout layout;
+
+    private JvmLauncher(Preset preset, Map<String, Preset> functionPresets, String javaHome, Layout layout) {
+        this.preset = preset;
+        this.functionPresets = functionPresets;
+        this.javaHome = javaHome != null ? javaHome : LAYER_JAVA_HOME;
+        this.layout = layout;
+    }
+
+    /**
+     * Reads the launcher presets of a package.
+     *
+     * @param currentPackage the package being built
+     * @param functions      the functions of the package, whose annotations may set their presets
+     * @return the launcher
+     * @throws IOException if a preset or the layout is unknown
+     */
+    public static JvmLauncher load(Package currentPackage, Collection<FunctionConfig> functions)
+            throws IOException {
+
+        Optional<Toml> jvmTable = LambdaUtils.getLambdaTable(currentPackage, JVM_KEY);
+        String section = Constants.LAMBDA_MODULE_NAME + "." + JVM_KEY;
+        Preset preset = jvmTable.isPresent() ? readPreset(jvmTable.get(), section).orElse(Preset.FAST_START) :
+                Preset.FAST_START;
+        Map<String, Preset> functionPresets = new TreeMap<>();
+        Optional<Toml> functionsTable = jvmTable.flatMap(table -> table.getTable(FUNCTIONS_KEY));
+        for (FunctionConfig function : functions) {
+            Optional<Preset> functionPreset = function.getPreset().flatMap(Preset::fromName);
+            // The table of the function in Ballerina.toml takes precedence over its annotation
+            Optional<Toml> functionTable = functionsTable.flatMap(table -> table.getTable(function.getName()));
+            if (functionTable.isPresent()) {
+                Optional<Preset> tablePreset = readPreset(functionTable.get(),
+                        section + "." + FUNCTIONS_KEY + "." + function.getName());
+                if (tablePreset.isPresent()) {
+                    functionPreset = tablePreset;
+                }
+            }
+            if (functionPreset.isPresent() && functionPreset.get() != preset) {
+                functionPresets.put(function.getName(), functionPreset.get());
+            }
+        }
+        Layout layout = Layout.JAR;
+        Optional<TomlValueNode> layoutValue = jvmTable.flatMap(table -> table.get(LAYOUT_KEY));
+        if (layoutValue.isPresent()) {
+            Optional<Layout> namedLayout = layoutValue.get() instanceof TomlStringValueNode stringValue ?
+                    Layout.fromName(stringValue.getValue()) : Optional.empty();
+            if (namedLayout.isEmpty()) {
+                throw new IOException(section + " " + LAYOUT_KEY + " must be one of " +
+                        Arrays.stream(Layout.values()).map(Layout::getName).toList());
+            }
+            layout = namedLayout.get();
+        }
+        return new JvmLauncher(preset, functionPresets, null, layout);
+    }
+
+    private static Optional<Preset> readPreset(Toml table, String section) throws IOException {
+
+        Optional<TomlValueNode> value = table.get(PRESET_KEY);
+        if (value.isEmpty()) {
+            return Optional.empty();
+        }
+        if (value.get() instanceof TomlStringValueNode stringValue) {
+            Optional<Preset> preset = Preset.fromName(stringValue.getValue());
+            if (preset.isPresent()) {
+                return preset;
+            }
+        }
+        throw new IOException(section + " " + PRESET_KEY + " must be one of " +
+                Arrays.stream(Preset.values()).map(Preset::getName).toList());
+    }
+
+    /**
+     * Returns the launcher of a function packaged on its own.
+     *
+     * @param function name of the function
+     * @return the launcher of the function
+     */
+    public JvmLauncher forFunction(String function) {
+        return new JvmLauncher(this.functionPresets.getOrDefault(function, this.preset), Map.of(), this.javaHome,
+                this.layout);
+    }
+
+    /**
+     * Returns this launcher starting the JVM of a runtime deployed as a layer of the function.
+     *
+     * @param javaHome where the runtime is extracted to
+     * @return the launcher
+     */
+    public JvmLauncher withJavaHome(String javaHome) {
+        return new JvmLauncher(this.preset, this.functionPresets, javaHome, this.layout);
+    }
+
+    /**
+     * Returns the preset functions are launched with unless set for the function.
+     *
+     * @return the preset
+     */
+    public Preset getPreset() {
+        return this.preset;
+    }
+
+    /**
+     * Returns where the runtime that functions are launched with is extracted to.
+     *
+     * @return the home directory of the runtime
+     */
+    public String getJavaHome() {
+        return this.javaHome;
+    }
+
+    /**
+     * Returns how the classes of functions are packaged.
+     *
+     * @return the layout
+     */
+    public Layout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Generates the launcher of a jar.
+     *
+     * @param jarFileName file name of the jar in the deployment zip
+     * @return the {@code bootstrap} script
+     */
+    public String generate(String jarFileName) {
+        return generate(jarFileName, null);
+    }
+
+    /**
+     * Generates the launcher of a jar that is packaged with its class data sharing archive.
+     *
+     * @param jarFileName     file name of the jar in the deployment zip
+     * @param archiveFileName file name of the archive in the deployment zip, or null if there is none
+     * @return the {@code bootstrap} script
+     */
+    public String generate(String jarFileName, String archiveFileName) {
+        return generate(jarFileName, archiveFileName, "-jar \"$LAMBDA_TASK_ROOT/" + jarFileName + "\"");
+    }
+
+    /**
+     * Generates the launcher of classes packaged in directories, which starts the main class straight from its class
+     * path instead of from a jar.
+     *
+     * @param classPath directories of the class path, as shell words that may refer to {@code $LAMBDA_TASK_ROOT}
+     * @param mainClass the main class
+     * @return the {@code bootstrap} script
+     */
+    public String generate(List<String> classPath, String mainClass) {
+        // Ballerina names its main classes $_init, which the shell must not expand
+        return generate(mainClass, null, "-cp \"" + String.join(":", classPath) + "\" '" + mainClass + "'");
+    }
+
+    private String generate(String target, String archiveFileName, String launchArguments) {
+
+        StringBuilder script = new StringBuilder();
+        script.append("#!/bin/sh\n");
+        script.append("# Starts ").append(target)
+                .append(" on the JVM of its layer with the flags of the preset of the function.\n")
+                .append("# Generated by the ballerinax/aws.lambda compiler plugin.\n");
+        if (this.functionPresets.isEmpty()) {
+            script.append("preset=").append(this.preset.getName()).append("\n");
+        } else {
+            script.append("case \"${_HANDLER##*.}\" in\n");
+            this.functionPresets.forEach((function, functionPreset) -> script.append("    \"").append(function)
+                    .append("\") preset=").append(functionPreset.getName()).append(" ;;\n"));
+            script.append("    *) preset=").append(this.preset.getName()).append(" ;;\n");
+            script.append("esac\n");
+        }
+        script.append("memory=${AWS_LAMBDA_FUNCTION_MEMORY_SIZE:-512}\n");
+        script.append("heap=").append(HEAP_PERCENTAGE).append("\n");
+        script.append("if [ \"$memory\" -le ").append(SMALL_MEMORY_SIZE).append(" ]; then\n");
+        script.append("    heap=").append(SMALL_HEAP_PERCENTAGE).append("\n");
+        script.append("fi\n");
+        script.append("case \"${").append(PRESET_ENV).append(":-$preset}\" in\n");
+        for (Preset value : Preset.values()) {
+            if (value != Preset.FAST_START) {
+                appendFlagScript(script, value.getName(), value);
+            }
+        }
+        // Unknown presets set in the environment fall back to the default flags
+        appendFlagScript(script, "*", Preset.FAST_START);
+        script.append("esac\n");
+        script.append("exec \"${JAVA_HOME:-").append(this.javaHome).append("}/bin/java\" \"$@\" ")
+                .append("-XX:MaxRAMPercentage=$heap ");
+        // An archive that does not match the JVM or the jar is ignored rather than failing the start
+        if (archiveFileName != null) {
+            script.append("-XX:SharedArchiveFile=\"$LAMBDA_TASK_ROOT/").append(archiveFileName).append("\" ");
+        }
+        script.append("-Xshare:auto -XX:-UsePerfData ").append(launchArguments).append("\n");
+        return script.toString();
+    }
+
+    private static void appendFlagScript(StringBuilder script, String pattern, Preset preset) {
+        script.append("    ").append(pattern).append(")\n");
+        for (String line : preset.getFlagScript()) {
+            script.append("        ").append(line).append("\n");
+        }
+        script.append("        ;;\n");
+    }
+
+    /**
+     * JVM flags of a function, picked to suit either short-lived or long-running execution environments.
+     */
+    public enum Preset {
+
+        /**
+         * Compiles with C1 only and collects serially, which keeps the JIT and GC threads from competing with the
+         * function for the fraction of a vCPU it has during its first invocations.
+         */
+        FAST_START("fast-start", List.of("set -- -XX:+UseSerialGC -XX:TieredStopAtLevel=1")),
+
+        /**
+         * Compiles hot code with C2 for the best peak performance, and collects in parallel once the function has at
+         * least two vCPUs.
+         */
+        THROUGHPUT("throughput", List.of("set -- -XX:+UseSerialGC",
+                "if [ \"$memory\" -ge " + TWO_VCPU_MEMORY_SIZE + " ]; then",
+                "    set -- -XX:+UseParallelGC",
+                "fi"));
+
+        private final String name;
+        private final List<String> flagScript;
+
+        Preset(String name, List<String> flagScript) {
+            this.name = name;
+            this.flagScript = flagScript;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the shell lines that set the positional parameters to the flags of the preset.
+         */
+        List<String> getFlagScript() {
+            return this.flagScript;
+        }
+
+        /**
+         * Returns the preset of the given name.
+         *
+         * @param name name of the preset, as set in Ballerina.toml
+         * @return the preset, or empty if there is none of that name
+         */
+        public static Optional<Preset> fromName(String name) {
+            return Arrays.stream(values()).filter(preset -> preset.name.equals(name)).findFirst();
+        }
+    }
+
+    /**
+     * How the classes of a function are laid out in its deployment zip.
+     */
+    public enum Layout {
+
+        /**
+         * The executable jar, as built.
+         */
+        JAR("jar"),
+
+        /**
+         * The entries of the jar extracted into directories, so that the JVM reads classes straight from the files
+         * AWS Lambda extracted instead of inflating them from the jar again.
+         */
+        EXPLODED("exploded"),
+
+        /**
+         * The classes of the package extracted into the deployment zip, and those of its dependencies into a layer of
+         * their own.
+         */
+        LAYERED("layered");
+
+        private final String name;
+
+        Layout(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the layout of the given name.
+         *
+         * @param name name of the layout, as set in Ballerina.toml
+         * @return the layout, or empty if there is none of that name
+         */
+        public static Optional<Layout> fromName(String name) {
+            return Arrays.stream(values()).filter(layout -> layout.name.equals(name)).findFirst();
+        }
+    }
+}
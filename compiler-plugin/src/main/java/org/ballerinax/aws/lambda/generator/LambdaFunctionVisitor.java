@@ -20,11 +20,13 @@ package org.ballerinax.aws.lambda.generator;
 import io.ballerina.compiler.api.ModuleID;
 import io.ballerina.compiler.api.SemanticModel;
 import io.ballerina.compiler.api.symbols.AnnotationSymbol;
+import io.ballerina.compiler.api.symbols.ArrayTypeSymbol;
 import io.ballerina.compiler.api.symbols.FunctionSymbol;
 import io.ballerina.compiler.api.symbols.FunctionTypeSymbol;
 import io.ballerina.compiler.api.symbols.ModuleSymbol;
 import io.ballerina.compiler.api.symbols.ParameterKind;
 import io.ballerina.compiler.api.symbols.ParameterSymbol;
+import io.ballerina.compiler.api.symbols.StreamTypeSymbol;
 import io.ballerina.compiler.api.symbols.TypeDescKind;
 import io.ballerina.compiler.api.symbols.TypeSymbol;
 import io.ballerina.compiler.api.symbols.UnionTypeSymbol;
@@ -130,10 +132,17 @@ public class LambdaFunctionVisitor extends NodeVisitor {
             case ERROR:
             case NIL:
                 return true;
+            case ARRAY:
+                return isByteArray(typeSymbol);
+            case STREAM:
+                return isResultStream(typeSymbol);
             case UNION:
                 UnionTypeSymbol unionTypeSymbol = (UnionTypeSymbol) typeSymbol;
                 Set<TypeDescKind> typeTags = new HashSet<>();
                 for (TypeSymbol memberTypeDescriptor : unionTypeSymbol.memberTypeDescriptors()) {
+                    if (isByteArray(memberTypeDescriptor) || isResultStream(memberTypeDescriptor)) {
+                        continue;
+                    }
                     typeTags.add(memberTypeDescriptor.typeKind());
                 }
                 typeTags.remove(TypeDescKind.JSON);
@@ -145,6 +154,25 @@ public class LambdaFunctionVisitor extends NodeVisitor {
         }
     }
 
+    /**
+     * A {@code byte[]} result is posted to the Runtime API as is, instead of being serialized as JSON.
+     */
+    private boolean isByteArray(TypeSymbol typeSymbol) {
+        return typeSymbol.typeKind() == TypeDescKind.ARRAY &&
+                ((ArrayTypeSymbol) typeSymbol).memberTypeDescriptor().typeKind() == TypeDescKind.BYTE;
+    }
+
+    /**
+     * A {@code stream<byte[], error?>} or {@code stream<json, error?>} result is sent in the streaming response mode.
+     */
+    private boolean isResultStream(TypeSymbol typeSymbol) {
+        if (typeSymbol.typeKind() != TypeDescKind.STREAM) {
+            return false;
+        }
+        TypeSymbol itemType = ((StreamTypeSymbol) typeSymbol).typeParameter();
+        return itemType.typeKind() == TypeDescKind.JSON || isByteArray(itemType);
+    }
+
     private boolean isContext(TypeSymbol typeSymbol) {
         if (typeSymbol.getName().get().equals("Context")) {
             Optional<ModuleSymbol> module = typeSymbol.getModule();
@@ -19,8 +19,15 @@ package org.ballerinax.aws.lambda.generator;
 
 import io.ballerina.compiler.api.ModuleID;
 import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.compiler.api.symbols.FunctionSymbol;
+import io.ballerina.compiler.api.symbols.ParameterSymbol;
 import io.ballerina.compiler.api.symbols.Symbol;
+import io.ballerina.compiler.api.symbols.SymbolKind;
+import io.ballerina.compiler.api.symbols.TypeDescKind;
+import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeSymbol;
 import io.ballerina.compiler.syntax.tree.BasicLiteralNode;
+import io.ballerina.compiler.syntax.tree.BlockStatementNode;
 import io.ballerina.compiler.syntax.tree.BuiltinSimpleNameReferenceNode;
 import io.ballerina.compiler.syntax.tree.ExpressionNode;
 import io.ballerina.compiler.syntax.tree.ExpressionStatementNode;
@@ -30,6 +37,8 @@ import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
 import io.ballerina.compiler.syntax.tree.FunctionSignatureNode;
 import io.ballerina.compiler.syntax.tree.IdentifierToken;
 import io.ballerina.compiler.syntax.tree.ImportDeclarationNode;
+import io.ballerina.compiler.syntax.tree.MatchClauseNode;
+import io.ballerina.compiler.syntax.tree.MatchStatementNode;
 import io.ballerina.compiler.syntax.tree.MinutiaeList;
 import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModulePartNode;
@@ -49,8 +58,11 @@ import io.ballerina.compiler.syntax.tree.SyntaxKind;
 import io.ballerina.compiler.syntax.tree.Token;
 import io.ballerina.compiler.syntax.tree.TypeCastExpressionNode;
 import io.ballerina.compiler.syntax.tree.TypeDescriptorNode;
+import io.ballerina.projects.Package;
 import io.ballerina.projects.Project;
 import io.ballerina.projects.ProjectKind;
+import io.ballerina.toml.api.Toml;
+import io.ballerina.toml.semantic.ast.TomlStringValueNode;
 import io.ballerina.tools.diagnostics.Diagnostic;
 import io.ballerina.tools.diagnostics.DiagnosticFactory;
 import io.ballerina.tools.diagnostics.DiagnosticInfo;
@@ -106,35 +118,63 @@ public class LambdaUtils {
                 Constants.LAMBDA_KEYWORD.equals(moduleNames.get(1).text());
     }
 
+    /**
+     * Creates the {@code main} function, which dispatches on the handler name to the proxy of the matching function:
+     * <pre>
+     * match lambda:__handler() {
+     *     "echo" => { return lambda:__process(__func_proxy__echo, json, lambda:JSON_EVENT); }
+     * }
+     * lambda:__invalidHandler();
+     * </pre>
+     */
     public static FunctionDefinitionNode createMainFunction(SemanticModel semanticModel,
             Collection<FunctionDeploymentContext> functionDeploymentContexts) {
 
         FunctionDefinitionNode mainFunction = LambdaUtils.createMainFunction();
+        List<MatchClauseNode> matchClauses = new ArrayList<>();
         for (FunctionDeploymentContext functionContext : functionDeploymentContexts) {
             String functionHandlerName = functionContext.getGeneratedFunction().functionName().text();
             PositionalArgumentNode handler = NodeFactory.createPositionalArgumentNode(
                     NodeFactory.createSimpleNameReferenceNode(NodeFactory.createIdentifierToken(functionHandlerName)));
-            PositionalArgumentNode functionName =
-                    NodeFactory.createPositionalArgumentNode(
-                            LambdaUtils
-                                    .createStringLiteral(
-                                            functionContext.getOriginalFunction().functionName().text()));
             TypeDescriptorNode eventTypeDesc = getEventType(functionContext.getOriginalFunction(), semanticModel);
             PositionalArgumentNode typeDesc = NodeFactory.createPositionalArgumentNode(eventTypeDesc);
-            ExpressionNode register =
-                    createLambdaFunctionInvocationNode(Constants.LAMBDA_REG_FUNCTION_NAME, functionName, handler,
-                            typeDesc);
-            ExpressionStatementNode expressionStatementNode =
-                    NodeFactory.createExpressionStatementNode(SyntaxKind.CALL_STATEMENT, register,
-                            NodeFactory.createToken(SyntaxKind.SEMICOLON_TOKEN));
-            mainFunction = addStatementToFunctionBody(expressionStatementNode, mainFunction);
+            PositionalArgumentNode binding = NodeFactory.createPositionalArgumentNode(
+                    getEventBinding(functionContext.getOriginalFunction(), semanticModel));
+            ExpressionNode process = createLambdaFunctionInvocationNode(Constants.LAMBDA_PROCESS_FUNCTION_NAME,
+                    handler, typeDesc, binding);
+            ReturnStatementNode returnStatementNode =
+                    NodeFactory.createReturnStatementNode(
+                            NodeFactory.createToken(SyntaxKind.RETURN_KEYWORD, NodeFactory.createEmptyMinutiaeList(),
+                                    generateMinutiaeListWithWhitespace()),
+                            process, NodeFactory.createToken(SyntaxKind.SEMICOLON_TOKEN));
+            BlockStatementNode blockStatementNode = NodeFactory.createBlockStatementNode(
+                    NodeFactory.createToken(SyntaxKind.OPEN_BRACE_TOKEN, NodeFactory.createEmptyMinutiaeList(),
+                            generateMinutiaeListWithNewline()),
+                    NodeFactory.createNodeList(returnStatementNode),
+                    NodeFactory.createToken(SyntaxKind.CLOSE_BRACE_TOKEN, NodeFactory.createEmptyMinutiaeList(),
+                            generateMinutiaeListWithNewline()));
+            matchClauses.add(NodeFactory.createMatchClauseNode(
+                    NodeFactory.createSeparatedNodeList(
+                            createStringLiteral(functionContext.getOriginalFunction().functionName().text())),
+                    null, NodeFactory.createToken(SyntaxKind.RIGHT_DOUBLE_ARROW_TOKEN), blockStatementNode));
         }
-        ExpressionNode processExpr = createLambdaFunctionInvocationNode("__process");
-        ExpressionStatementNode processStatement =
-                NodeFactory.createExpressionStatementNode(SyntaxKind.CALL_STATEMENT, processExpr,
+        MatchStatementNode matchStatementNode = NodeFactory.createMatchStatementNode(
+                NodeFactory.createToken(SyntaxKind.MATCH_KEYWORD, NodeFactory.createEmptyMinutiaeList(),
+                        generateMinutiaeListWithWhitespace()),
+                createLambdaFunctionInvocationNode(Constants.LAMBDA_HANDLER_FUNCTION_NAME),
+                NodeFactory.createToken(SyntaxKind.OPEN_BRACE_TOKEN, NodeFactory.createEmptyMinutiaeList(),
+                        generateMinutiaeListWithNewline()),
+                NodeFactory.createNodeList(matchClauses),
+                NodeFactory.createToken(SyntaxKind.CLOSE_BRACE_TOKEN, NodeFactory.createEmptyMinutiaeList(),
+                        generateMinutiaeListWithNewline()), null);
+        mainFunction = addStatementToFunctionBody(matchStatementNode, mainFunction);
+
+        ExpressionNode invalidHandlerExpr = createLambdaFunctionInvocationNode(
+                Constants.LAMBDA_INVALID_HANDLER_FUNCTION_NAME);
+        ExpressionStatementNode invalidHandlerStatement =
+                NodeFactory.createExpressionStatementNode(SyntaxKind.CALL_STATEMENT, invalidHandlerExpr,
                         NodeFactory.createToken(SyntaxKind.SEMICOLON_TOKEN));
-
-        return addStatementToFunctionBody(processStatement, mainFunction);
+        return addStatementToFunctionBody(invalidHandlerStatement, mainFunction);
     }
 
     private static TypeDescriptorNode getEventType(FunctionDefinitionNode functionDefinitionNode,
@@ -146,9 +186,49 @@ public class LambdaUtils {
         return (TypeDescriptorNode) getTypeNameNode(semanticModel, lambdaIdentifier, requiredParameterNode);
     }
 
+    /**
+     * Returns how the runtime should bind the event payload to the event parameter of the function. Events declared
+     * as {@code json} or {@code anydata} are handed over as parsed, while any other type is parsed straight into
+     * the declared type.
+     */
+    private static QualifiedNameReferenceNode getEventBinding(FunctionDefinitionNode functionDefinitionNode,
+                                                              SemanticModel semanticModel) {
+
+        String binding = Constants.TYPED_EVENT_BINDING;
+        Optional<Symbol> symbol = semanticModel.symbol(functionDefinitionNode);
+        if (symbol.isPresent() && symbol.get().kind() == SymbolKind.FUNCTION) {
+            FunctionSymbol functionSymbol = (FunctionSymbol) symbol.get();
+            List<ParameterSymbol> params = functionSymbol.typeDescriptor().params().orElse(List.of());
+            if (params.size() > 1 && isJsonType(params.get(1).typeDescriptor())) {
+                binding = Constants.JSON_EVENT_BINDING;
+            }
+        }
+        return createLambdaQualifiedNameReference(binding);
+    }
+
+    private static boolean isJsonType(TypeSymbol typeSymbol) {
+
+        while (typeSymbol.typeKind() == TypeDescKind.TYPE_REFERENCE) {
+            typeSymbol = ((TypeReferenceTypeSymbol) typeSymbol).typeDescriptor();
+        }
+        return typeSymbol.typeKind() == TypeDescKind.JSON || typeSymbol.typeKind() == TypeDescKind.ANYDATA;
+    }
+
     public static ModulePartNode createModulePartNode(Collection<FunctionDeploymentContext> functionDeploymentContexts,
                                                       FunctionDefinitionNode mainFunction) {
 
+        List<ModuleMemberDeclarationNode> memberDeclarationNodeList = new ArrayList<>();
+
+        memberDeclarationNodeList.add(mainFunction);
+
+        for (FunctionDeploymentContext functionDeploymentContext : functionDeploymentContexts) {
+            memberDeclarationNodeList.add(functionDeploymentContext.getGeneratedFunction());
+        }
+        return createModulePartNode(memberDeclarationNodeList);
+    }
+
+    public static ModulePartNode createModulePartNode(List<ModuleMemberDeclarationNode> memberDeclarationNodeList) {
+
         ImportDeclarationNode afImport = NodeFactory.createImportDeclarationNode(NodeFactory
                         .createToken(SyntaxKind.IMPORT_KEYWORD, NodeFactory.createEmptyMinutiaeList(),
                                 LambdaUtils.generateMinutiaeListWithWhitespace()),
@@ -158,13 +238,6 @@ public class LambdaUtils {
                 null, NodeFactory.createToken(SyntaxKind.SEMICOLON_TOKEN, NodeFactory.createEmptyMinutiaeList(),
                         LambdaUtils.generateMinutiaeListWithNewline()));
 
-        List<ModuleMemberDeclarationNode> memberDeclarationNodeList = new ArrayList<>();
-
-        memberDeclarationNodeList.add(mainFunction);
-
-        for (FunctionDeploymentContext functionDeploymentContext : functionDeploymentContexts) {
-            memberDeclarationNodeList.add(functionDeploymentContext.getGeneratedFunction());
-        }
         NodeList<ModuleMemberDeclarationNode> nodeList = NodeFactory.createNodeList(memberDeclarationNodeList);
         Token eofToken = NodeFactory.createToken(SyntaxKind.EOF_TOKEN, NodeFactory.createEmptyMinutiaeList(),
                 LambdaUtils.generateMinutiaeListWithNewline());
@@ -327,11 +400,7 @@ public class LambdaUtils {
     public static ExpressionNode createLambdaFunctionInvocationNode(String functionName,
                                                                     PositionalArgumentNode... args) {
 
-        QualifiedNameReferenceNode qualifiedNameReferenceNode =
-                NodeFactory.createQualifiedNameReferenceNode(
-                        NodeFactory.createIdentifierToken(Constants.LAMBDA_KEYWORD),
-                        NodeFactory.createToken(SyntaxKind.COLON_TOKEN),
-                        NodeFactory.createIdentifierToken(functionName));
+        QualifiedNameReferenceNode qualifiedNameReferenceNode = createLambdaQualifiedNameReference(functionName);
         SeparatedNodeList<FunctionArgumentNode> separatedNodeList = getFunctionParamList(args);
 
         return NodeFactory.createFunctionCallExpressionNode(qualifiedNameReferenceNode,
@@ -339,6 +408,14 @@ public class LambdaUtils {
                 NodeFactory.createToken(SyntaxKind.CLOSE_PAREN_TOKEN));
     }
 
+    public static QualifiedNameReferenceNode createLambdaQualifiedNameReference(String name) {
+
+        return NodeFactory.createQualifiedNameReferenceNode(
+                NodeFactory.createIdentifierToken(Constants.LAMBDA_KEYWORD),
+                NodeFactory.createToken(SyntaxKind.COLON_TOKEN),
+                NodeFactory.createIdentifierToken(name));
+    }
+
     private static SeparatedNodeList<FunctionArgumentNode> getFunctionParamList(PositionalArgumentNode... args) {
 
         List<Node> nodeList = new ArrayList<>();
@@ -362,6 +439,40 @@ public class LambdaUtils {
                 NodeFactory.createToken(SyntaxKind.CLOSE_PAREN_TOKEN));
     }
 
+    /**
+     * Returns whether the package asks for one deployment artifact per function, set as
+     * <pre>
+     * [aws.lambda]
+     * packaging = "per-function"
+     * </pre>
+     * in its Ballerina.toml.
+     *
+     * @param currentPackage the package being built
+     * @return true if each function is packaged on its own
+     */
+    public static boolean isPerFunctionPackaging(Package currentPackage) {
+
+        return getLambdaTable(currentPackage, null)
+                .flatMap(lambda -> lambda.<TomlStringValueNode>get(Constants.PACKAGING_KEY))
+                .map(packaging -> Constants.PER_FUNCTION_PACKAGING.equals(packaging.getValue()))
+                .orElse(false);
+    }
+
+    /**
+     * Returns the {@code [aws.lambda]} table of the Ballerina.toml of a package, or a table within it.
+     *
+     * @param currentPackage the package being built
+     * @param tableName      name of the table within {@code [aws.lambda]}, or null for {@code [aws.lambda]} itself
+     * @return the table, if present
+     */
+    public static Optional<Toml> getLambdaTable(Package currentPackage, String tableName) {
+
+        Optional<Toml> lambda = currentPackage.ballerinaToml()
+                .flatMap(ballerinaToml -> ballerinaToml.tomlDocument().toml().getTable(Constants.AWS_ORG))
+                .flatMap(aws -> aws.getTable(Constants.LAMBDA_KEYWORD));
+        return tableName == null ? lambda : lambda.flatMap(table -> table.getTable(tableName));
+    }
+
     public static Path getFunctionsDir(Project project, Path jarPath) {
 
         return getTargetDir(project, jarPath).resolve(Constants.FUNCTION_DIRECTORY);
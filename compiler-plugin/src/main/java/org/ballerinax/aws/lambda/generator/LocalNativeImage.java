@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A GraalVM {@code native-image} installed on the build host, used instead of the Docker builder image when the host
+ * can produce executables for AWS Lambda itself, that is when it is a Linux x86_64 host with GraalVM for JDK 21.
+ * <p>
+ * The toolchain is looked up in {@code GRAALVM_HOME}, {@code JAVA_HOME} and the {@code PATH}, in that order. Setting
+ * {@value #BUILDER_ENV} to {@code docker} always builds with Docker.
+ *
+ * @since 3.3.1
+ */
+public class LocalNativeImage {
+
+    public static final String BUILDER_ENV = "BALLERINA_AWS_LAMBDA_NATIVE_BUILDER";
+
+    private static final String DOCKER_BUILDER = "docker";
+    private static final String NATIVE_IMAGE = "native-image";
+    private static final String STATIC_OPTION = "--static";
+    private static final int GRAALVM_JDK_VERSION = 21;
+    private static final Pattern VERSION_PATTERN = Pattern.compile("native-image (\\d+)[.\\s]");
+    // Profile-guided optimization and the G1 collector are only available in Oracle GraalVM, not in GraalVM
+    // Community Edition
+    private static final String ORACLE_GRAALVM = "Oracle GraalVM";
+    private static final long VERSION_TIMEOUT_SECONDS = 30;
+    private static final Path DOCKER_BUILD_TIMES = Path.of(System.getProperty("user.home"), ".ballerina",
+            "aws-lambda", "docker-native-builds");
+
+    private final Path executable;
+    private final String version;
+    private final boolean oracleGraalVM;
+
+    private LocalNativeImage(Path executable, String version, boolean oracleGraalVM) {
+        this.executable = executable;
+        this.version = version;
+        this.oracleGraalVM = oracleGraalVM;
+    }
+
+    /**
+     * Looks for a {@code native-image} on the host that builds executables AWS Lambda can run.
+     *
+     * @return the toolchain, or empty if the build should go through Docker
+     */
+    public static Optional<LocalNativeImage> detect() {
+
+        Map<String, String> env = System.getenv();
+        if (DOCKER_BUILDER.equalsIgnoreCase(env.getOrDefault(BUILDER_ENV, "")) || !isLambdaCompatibleHost()) {
+            return Optional.empty();
+        }
+        List<Path> candidates = new ArrayList<>();
+        for (String home : new String[]{env.get("GRAALVM_HOME"), env.get("JAVA_HOME")}) {
+            if (home != null && !home.isBlank()) {
+                candidates.add(Path.of(home, "bin", NATIVE_IMAGE));
+            }
+        }
+        String path = env.get("PATH");
+        if (path != null) {
+            for (String dir : path.split(File.pathSeparator)) {
+                if (!dir.isBlank()) {
+                    candidates.add(Path.of(dir, NATIVE_IMAGE));
+                }
+            }
+        }
+        for (Path candidate : candidates) {
+            if (Files.isExecutable(candidate)) {
+                Optional<LocalNativeImage> nativeImage = probe(candidate);
+                if (nativeImage.isPresent()) {
+                    return nativeImage;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    static boolean isLambdaCompatibleHost() {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        String arch = System.getProperty("os.arch", "").toLowerCase(Locale.ROOT);
+        return os.startsWith("linux") && (arch.equals("amd64") || arch.equals("x86_64"));
+    }
+
+    /**
+     * Runs {@code native-image --version}, accepting the toolchain if it is GraalVM for JDK 21.
+     */
+    private static Optional<LocalNativeImage> probe(Path executable) {
+
+        try {
+            Process process = new ProcessBuilder(executable.toString(), "--version").redirectErrorStream(true)
+                    .start();
+            String output;
+            try (InputStream inputStream = process.getInputStream()) {
+                output = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(VERSION_TIMEOUT_SECONDS, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                process.destroyForcibly();
+                return Optional.empty();
+            }
+            String firstLine = output.lines().findFirst().orElse("").trim();
+            Matcher matcher = VERSION_PATTERN.matcher(firstLine + " ");
+            if (matcher.find() && Integer.parseInt(matcher.group(1)) == GRAALVM_JDK_VERSION) {
+                boolean oracleGraalVM = output.contains(ORACLE_GRAALVM);
+                return Optional.of(new LocalNativeImage(executable,
+                        oracleGraalVM ? firstLine + " (" + ORACLE_GRAALVM + ")" : firstLine, oracleGraalVM));
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the version of the toolchain, as printed by {@code native-image --version}.
+     *
+     * @return the version
+     */
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the home directory of the GraalVM installation the toolchain belongs to.
+     *
+     * @return the GraalVM home
+     * @throws IOException if the toolchain is a link that cannot be followed
+     */
+    public Path getGraalVMHome() throws IOException {
+        return this.executable.toRealPath().getParent().getParent();
+    }
+
+    /**
+     * Returns whether the toolchain can build profile-guided optimized executables.
+     *
+     * @return true for Oracle GraalVM
+     */
+    public boolean supportsPgo() {
+        return this.oracleGraalVM;
+    }
+
+    /**
+     * Returns whether the toolchain can build executables with the G1 garbage collector.
+     *
+     * @return true for Oracle GraalVM
+     */
+    public boolean supportsG1() {
+        return this.oracleGraalVM;
+    }
+
+    /**
+     * Builds the native executable of a jar, with the same options as the Docker builder image and the given
+     * additional options.
+     *
+     * @param jarPath        the jar
+     * @param executablePath where to write the executable
+     * @param options        additional {@code native-image} options
+     */
+    public void build(Path jarPath, Path executablePath, List<String> options) {
+
+        Path outputDir = executablePath.toAbsolutePath().getParent();
+        ProcessBuilder pb = new ProcessBuilder(this.executable.toString(), "-jar", jarPath.toAbsolutePath().toString());
+        // Fully static executables replace the mostly static linking of build-native.sh
+        if (!options.contains(STATIC_OPTION)) {
+            pb.command().add("-H:+StaticExecutableWithDynamicLibC");
+        }
+        pb.command().addAll(List.of("--no-fallback", "-H:Name=" + executablePath.getFileName(),
+                "-H:Path=" + outputDir));
+        pb.command().addAll(options);
+        pb.directory(outputDir.toFile());
+        pb.inheritIO();
+        try {
+            Process process = pb.start();
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new NativeBuildException("Native executable generation with " + this.executable +
+                        " failed with exit code " + exitCode + ". Refer to the above build log for information");
+            }
+        } catch (IOException e) {
+            throw new NativeBuildException("Native executable generation with " + this.executable + " failed: " +
+                    e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NativeBuildException("Native executable generation with " + this.executable +
+                    " was interrupted");
+        }
+    }
+
+    /**
+     * Remembers how long the latest build through Docker in a directory took, to compare host builds of the same jar
+     * and options against. Only one build is kept for each directory, replacing the one before.
+     *
+     * @param outputDir directory the executable is built in
+     * @param buildKey  hash of the jar and the options of the build
+     * @param elapsed   duration of the Docker build
+     * @return false if the duration could not be saved, which only affects reporting
+     */
+    public static boolean recordDockerBuild(Path outputDir, String buildKey, Duration elapsed) {
+        try {
+            Files.createDirectories(DOCKER_BUILD_TIMES);
+            Files.writeString(getDockerBuildPath(outputDir), buildKey + " " + elapsed.toMillis(),
+                    StandardCharsets.UTF_8);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns how long the latest build through Docker in a directory took, if it built the same jar with the same
+     * options.
+     *
+     * @param outputDir directory the executable is built in
+     * @param buildKey  hash of the jar and the options of the build
+     * @return duration of the Docker build, or empty if the latest one was of another jar or options, or none was
+     * recorded
+     */
+    public static Optional<Duration> getLastDockerBuild(Path outputDir, String buildKey) {
+        try {
+            String[] build = Files.readString(getDockerBuildPath(outputDir), StandardCharsets.UTF_8).trim()
+                    .split(" ");
+            if (build.length != 2 || !build[0].equals(buildKey)) {
+                return Optional.empty();
+            }
+            return Optional.of(Duration.ofMillis(Long.parseLong(build[1])));
+        } catch (IOException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Path getDockerBuildPath(Path outputDir) throws IOException {
+        return DOCKER_BUILD_TIMES.resolve(ArtifactManifest.hashInputs(List.of(outputDir.toAbsolutePath()
+                .normalize().toString())));
+    }
+}
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stand-in for the AWS Lambda Runtime API, serving the {@code /2018-06-01/runtime/invocation/next}, {@code /response}
+ * and {@code /error} endpoints on a loopback port so that a function can be run with sample events during the build,
+ * or driven by the tests of the module, without deploying it to AWS.
+ *
+ * @since 3.3.1
+ */
+public class LocalRuntimeApi implements AutoCloseable {
+
+    private static final String INVOCATION_PATH = "/2018-06-01/runtime/invocation/";
+    private static final String INIT_ERROR_PATH = "/2018-06-01/runtime/init/error";
+    private static final String FUNCTION_ARN = "arn:aws:lambda:us-east-1:000000000000:function:local";
+    private static final long DEADLINE_MS = 60000;
+    private static final long POLL_INTERVAL_MS = 1000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final BlockingQueue<Invocation> pending = new LinkedBlockingQueue<>();
+    private final Map<String, Invocation> inFlight = new ConcurrentHashMap<>();
+    private final CompletableFuture<Long> firstPoll = new CompletableFuture<>();
+    private volatile String initError;
+
+    public LocalRuntimeApi() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(this.executor);
+        this.server.createContext(INVOCATION_PATH, this::handleInvocation);
+        this.server.createContext(INIT_ERROR_PATH, this::handleInitError);
+        this.server.start();
+    }
+
+    /**
+     * Starts a function against a new stand-in, invokes it with the given events and stops it once it has posted the
+     * result of each of them. The function is stopped with {@code SIGTERM}, so that it can write out whatever it
+     * collected before exiting.
+     *
+     * @param function   name of the function
+     * @param events     events to invoke the function with
+     * @param iterations times the events are replayed
+     * @param log        file the output of the function is written to
+     * @param launcher   creates the process of the function for the address of the stand-in
+     * @return number of events the function posted an error for
+     * @throws IOException if the events cannot be read, the function cannot be started or it stops or times out
+     *                     before handling all of them
+     */
+    public static int replay(String function, List<Path> events, int iterations, Path log, Launcher launcher)
+            throws IOException {
+
+        List<byte[]> payloads = new ArrayList<>();
+        for (Path event : events) {
+            payloads.add(Files.readAllBytes(event));
+        }
+        try (LocalRuntimeApi runtimeApi = new LocalRuntimeApi()) {
+            ProcessBuilder pb = launcher.create(runtimeApi.getAddress());
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(log.toFile());
+            Process process = pb.start();
+            try {
+                List<Invocation> invocations = new ArrayList<>();
+                for (int i = 0; i < iterations; i++) {
+                    for (byte[] payload : payloads) {
+                        invocations.add(runtimeApi.submit(payload));
+                    }
+                }
+                runtimeApi.awaitResults(process, function, invocations, log);
+                return (int) invocations.stream().filter(invocation -> !invocation.isSuccess()).count();
+            } finally {
+                stop(process);
+            }
+        }
+    }
+
+    /**
+     * Starts a function against a new stand-in and measures how long it takes to initialize, from starting the process
+     * to its first request for an event, which is when AWS Lambda considers the init phase over. The function is
+     * stopped without being invoked.
+     *
+     * @param log      file the output of the function is written to
+     * @param launcher creates the process of the function for the address of the stand-in
+     * @return the time to the first request, or empty if the function stopped or failed to initialize before it
+     * @throws IOException if the function cannot be started
+     */
+    public static Optional<Duration> measureInit(Path log, Launcher launcher) throws IOException {
+
+        try (LocalRuntimeApi runtimeApi = new LocalRuntimeApi()) {
+            ProcessBuilder pb = launcher.create(runtimeApi.getAddress());
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(log.toFile());
+            long start = System.nanoTime();
+            Process process = pb.start();
+            try {
+                long deadline = start + TimeUnit.MILLISECONDS.toNanos(DEADLINE_MS);
+                while (true) {
+                    try {
+                        return Optional.of(Duration.ofNanos(runtimeApi.firstPoll.get(POLL_INTERVAL_MS,
+                                TimeUnit.MILLISECONDS) - start));
+                    } catch (TimeoutException e) {
+                        if (runtimeApi.initError != null || !process.isAlive() || System.nanoTime() > deadline) {
+                            return Optional.empty();
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            } catch (ExecutionException e) {
+                return Optional.empty();
+            } finally {
+                stop(process);
+            }
+        }
+    }
+
+    /**
+     * Returns the value to be set as {@code AWS_LAMBDA_RUNTIME_API} for the function process.
+     *
+     * @return host and port of the stand-in
+     */
+    public String getAddress() {
+        return "127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    /**
+     * Queues an event to be handed to the next {@code next} request.
+     *
+     * @param payload JSON event payload
+     * @return invocation which completes once the function posts a response or an error
+     */
+    public Invocation submit(String payload) {
+        return submit(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Queues an event to be handed to the next {@code next} request.
+     *
+     * @param payload event payload
+     * @return invocation which completes once the function posts a response or an error
+     */
+    public Invocation submit(byte[] payload) {
+        Invocation invocation = new Invocation(UUID.randomUUID().toString(), payload);
+        this.pending.add(invocation);
+        return invocation;
+    }
+
+    /**
+     * Returns the time at which the function first requested an event.
+     *
+     * @return future completing with {@link System#nanoTime()} of the first {@code next} request
+     */
+    public CompletableFuture<Long> getFirstPoll() {
+        return this.firstPoll;
+    }
+
+    /**
+     * Returns the error the function posted when it failed to initialize.
+     *
+     * @return the body of the init error, or {@code null} if none was posted
+     */
+    public String getInitError() {
+        return this.initError;
+    }
+
+    private void awaitResults(Process process, String function, List<Invocation> invocations, Path log)
+            throws IOException {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEADLINE_MS * invocations.size());
+        CompletableFuture<Void> results = CompletableFuture.allOf(invocations.toArray(new CompletableFuture[0]));
+        try {
+            while (true) {
+                try {
+                    results.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (TimeoutException e) {
+                    if (this.initError != null || !process.isAlive()) {
+                        throw new IOException("Running " + function + " with sample events failed as " +
+                                "the function stopped. Refer to " + log + " for information");
+                    }
+                    if (System.nanoTime() > deadline) {
+                        throw new IOException("Running " + function + " with sample events timed out " +
+                                "before all events were handled. Refer to " + log + " for information");
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Running " + function + " with sample events was interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Running " + function + " with sample events failed: " + e.getMessage());
+        }
+    }
+
+    private static void stop(Process process) {
+        process.destroy();
+        try {
+            if (!process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleInvocation(HttpExchange exchange) throws IOException {
+
+        String action = exchange.getRequestURI().getPath().substring(INVOCATION_PATH.length());
+        try (exchange) {
+            if ("next".equals(action) && "GET".equals(exchange.getRequestMethod())) {
+                this.firstPoll.complete(System.nanoTime());
+                Invocation invocation = this.pending.take();
+                invocation.dispatchedAt = System.nanoTime();
+                this.inFlight.put(invocation.requestId, invocation);
+                exchange.getResponseHeaders().add("Lambda-Runtime-Aws-Request-Id", invocation.requestId);
+                exchange.getResponseHeaders().add("Lambda-Runtime-Deadline-Ms",
+                        Long.toString(System.currentTimeMillis() + DEADLINE_MS));
+                exchange.getResponseHeaders().add("Lambda-Runtime-Invoked-Function-Arn", FUNCTION_ARN);
+                exchange.getResponseHeaders().add("Lambda-Runtime-Trace-Id", "Root=" + invocation.requestId);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, invocation.payload.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(invocation.payload);
+                }
+                return;
+            }
+            int separator = action.indexOf('/');
+            Invocation invocation = separator < 0 ? null : this.inFlight.remove(action.substring(0, separator));
+            if (invocation == null || !"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            invocation.chunked = "chunked".equalsIgnoreCase(
+                    exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            invocation.responseMode = exchange.getRequestHeaders().getFirst("Lambda-Runtime-Function-Response-Mode");
+            invocation.contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            byte[] body = readBody(exchange.getRequestBody(), invocation.chunkArrivals);
+            exchange.sendResponseHeaders(202, -1);
+            invocation.complete(action.endsWith("/response"), body);
+        } catch (InterruptedException e) {
+            // The stand-in is being closed while the function waits for an event
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleInitError(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            this.initError = new String(readBody(exchange.getRequestBody(), new ArrayList<>()),
+                    StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(202, -1);
+        }
+    }
+
+    /**
+     * Reads a body as it arrives, recording the time at which each part of it was received.
+     */
+    private static byte[] readBody(InputStream inputStream, List<Long> arrivals) throws IOException {
+        try (inputStream) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                if (read > 0) {
+                    arrivals.add(System.nanoTime());
+                    body.write(buffer, 0, read);
+                }
+            }
+            return body.toByteArray();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+        try {
+            this.executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates the process of a function.
+     */
+    @FunctionalInterface
+    public interface Launcher {
+
+        /**
+         * Creates the process of the function, to be started against the stand-in at the given address.
+         *
+         * @param runtimeApi value of {@code AWS_LAMBDA_RUNTIME_API} for the function
+         * @return the process to start
+         */
+        ProcessBuilder create(String runtimeApi);
+    }
+
+    /**
+     * A single event handed to the function and its outcome.
+     */
+    public static class Invocation extends CompletableFuture<Invocation> {
+
+        private final String requestId;
+        private final byte[] payload;
+        private final long submittedAt;
+        private final List<Long> chunkArrivals = new CopyOnWriteArrayList<>();
+        private volatile long dispatchedAt;
+        private volatile long completedAt;
+        private volatile boolean success;
+        private volatile boolean chunked;
+        private volatile String responseMode;
+        private volatile String contentType;
+        private volatile byte[] response;
+
+        Invocation(String requestId, byte[] payload) {
+            this.requestId = requestId;
+            this.payload = payload;
+            this.submittedAt = System.nanoTime();
+        }
+
+        private void complete(boolean success, byte[] response) {
+            this.completedAt = System.nanoTime();
+            this.success = success;
+            this.response = response;
+            complete(this);
+        }
+
+        public String getRequestId() {
+            return this.requestId;
+        }
+
+        /**
+         * Returns whether the function posted a response rather than an error.
+         *
+         * @return true for a response
+         */
+        public boolean isSuccess() {
+            return this.success;
+        }
+
+        public String getResponse() {
+            return new String(this.response, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Returns whether the result was posted with chunked transfer encoding.
+         *
+         * @return true if the result was posted in chunks
+         */
+        public boolean isChunked() {
+            return this.chunked;
+        }
+
+        /**
+         * Returns the {@code Lambda-Runtime-Function-Response-Mode} the result was posted with.
+         *
+         * @return the response mode, or {@code null} for a buffered response
+         */
+        public String getResponseMode() {
+            return this.responseMode;
+        }
+
+        /**
+         * Returns the {@code Content-Type} the result was posted with.
+         *
+         * @return the content type, or {@code null} if none was sent
+         */
+        public String getContentType() {
+            return this.contentType;
+        }
+
+        /**
+         * Returns when each part of the posted result arrived, relative to the event being handed out on
+         * {@code next}.
+         *
+         * @return arrival times in nanoseconds
+         */
+        public List<Long> getChunkArrivalNanos() {
+            List<Long> arrivals = new ArrayList<>();
+            for (long arrival : this.chunkArrivals) {
+                arrivals.add(arrival - this.dispatchedAt);
+            }
+            return arrivals;
+        }
+
+        /**
+         * Returns the time between the event being handed out on {@code next} and its result being posted.
+         *
+         * @return round-trip time in nanoseconds
+         */
+        public long getRoundTripNanos() {
+            return this.completedAt - this.dispatchedAt;
+        }
+
+        /**
+         * Returns the time between the event being submitted and its result being posted, including queueing.
+         *
+         * @return end-to-end time in nanoseconds
+         */
+        public long getEndToEndNanos() {
+            return this.completedAt - this.submittedAt;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Local cache of native executables built for AWS Lambda, so that a jar that was already compiled to a native
+ * executable is not compiled again.
+ * <p>
+ * Executables are stored under a key made of the content hash of the jar, the builder image and the arguments of the
+ * build. The cache lives in {@code ~/.ballerina/aws-lambda/native-cache} unless
+ * {@value #CACHE_DIR_ENV} names another directory, and is kept below {@value #DEFAULT_LIMIT_MB} MB, or the number of
+ * MB set in {@value #CACHE_LIMIT_ENV}, by evicting the least recently used executables. A limit of 0 turns the cache
+ * off.
+ *
+ * @since 3.3.1
+ */
+public class NativeBuildCache {
+
+    public static final String CACHE_DIR_ENV = "BALLERINA_AWS_LAMBDA_NATIVE_CACHE";
+    public static final String CACHE_LIMIT_ENV = "BALLERINA_AWS_LAMBDA_NATIVE_CACHE_LIMIT_MB";
+
+    private static final long DEFAULT_LIMIT_MB = 2048;
+    private static final String EXECUTABLE_FILE = "executable";
+    private static final String REPORT_FILE = "report.json";
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    private final Path cacheDir;
+    private final long limitBytes;
+
+    NativeBuildCache(Path cacheDir, long limitBytes) {
+        this.cacheDir = cacheDir;
+        this.limitBytes = limitBytes;
+    }
+
+    /**
+     * Returns the cache configured through the environment.
+     *
+     * @return the cache
+     * @throws IOException if the size limit is not a number
+     */
+    public static NativeBuildCache fromEnvironment() throws IOException {
+
+        Map<String, String> env = System.getenv();
+        String dir = env.get(CACHE_DIR_ENV);
+        Path cacheDir = dir == null || dir.isBlank() ?
+                Path.of(System.getProperty("user.home"), ".ballerina", "aws-lambda", "native-cache") : Path.of(dir);
+        long limitMb = DEFAULT_LIMIT_MB;
+        String limit = env.get(CACHE_LIMIT_ENV);
+        if (limit != null && !limit.isBlank()) {
+            try {
+                limitMb = Long.parseLong(limit.trim());
+            } catch (NumberFormatException e) {
+                throw new IOException(CACHE_LIMIT_ENV + " must be a number of MB: " + limit, e);
+            }
+        }
+        return new NativeBuildCache(cacheDir, Math.max(0, limitMb) * 1024 * 1024);
+    }
+
+    public boolean isEnabled() {
+        return this.limitBytes > 0;
+    }
+
+    /**
+     * Returns the key of a native build.
+     *
+     * @param jarPath      the jar being compiled
+     * @param builderImage the image the build runs in
+     * @param arguments    arguments of the build
+     * @return the cache key
+     * @throws IOException if the jar cannot be read
+     */
+    public static String getKey(Path jarPath, String builderImage, List<String> arguments) throws IOException {
+
+        List<String> values = new ArrayList<>();
+        values.add(builderImage);
+        values.addAll(arguments);
+        return ArtifactManifest.hashInputs(values, jarPath);
+    }
+
+    /**
+     * Copies the cached executable of a build and its build report to the given paths.
+     *
+     * @param key        the cache key
+     * @param executable where to put the executable
+     * @param report     where to put the build report, which is left alone if none was cached
+     * @return true if the cache held an executable for the key
+     * @throws IOException if the executable cannot be copied
+     */
+    public boolean restore(String key, Path executable, Path report) throws IOException {
+
+        Path cached = this.cacheDir.resolve(key).resolve(EXECUTABLE_FILE);
+        if (!isEnabled() || !Files.isRegularFile(cached)) {
+            return false;
+        }
+        Files.copy(cached, executable, StandardCopyOption.REPLACE_EXISTING);
+        Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwxr-xr-x"));
+        Path cachedReport = cached.resolveSibling(REPORT_FILE);
+        if (Files.isRegularFile(cachedReport)) {
+            Files.copy(cachedReport, report, StandardCopyOption.REPLACE_EXISTING);
+        }
+        touch(cached.getParent());
+        return true;
+    }
+
+    /**
+     * Stores the executable of a build and its build report, then evicts the least recently used executables that no
+     * longer fit.
+     *
+     * @param key        the cache key
+     * @param executable the executable that was built
+     * @param report     the build report of the executable
+     * @throws IOException if the executable cannot be stored
+     */
+    public void store(String key, Path executable, Path report) throws IOException {
+
+        if (!isEnabled() || Files.size(executable) > this.limitBytes) {
+            return;
+        }
+        Path entryDir = this.cacheDir.resolve(key);
+        Files.createDirectories(entryDir);
+        // Copied next to its final name first, so that a concurrent build never sees a partly written executable
+        Path temp = Files.createTempFile(entryDir, TEMP_PREFIX, null);
+        try {
+            Files.copy(executable, temp, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.move(temp, entryDir.resolve(EXECUTABLE_FILE), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entryDir.resolve(EXECUTABLE_FILE), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        if (Files.isRegularFile(report)) {
+            Files.copy(report, entryDir.resolve(REPORT_FILE), StandardCopyOption.REPLACE_EXISTING);
+        }
+        touch(entryDir);
+        evict(entryDir);
+    }
+
+    private void evict(Path keep) throws IOException {
+
+        List<Path> entries;
+        try (Stream<Path> children = Files.list(this.cacheDir)) {
+            entries = new ArrayList<>(children.filter(Files::isDirectory).toList());
+        }
+        entries.sort(Comparator.comparing(NativeBuildCache::lastUsed));
+        long total = 0;
+        for (Path entry : entries) {
+            total += size(entry);
+        }
+        for (Path entry : entries) {
+            if (total <= this.limitBytes) {
+                break;
+            }
+            if (!entry.equals(keep)) {
+                long size = size(entry);
+                LambdaUtils.deleteDirectory(entry);
+                total -= size;
+            }
+        }
+    }
+
+    private static void touch(Path entryDir) throws IOException {
+        Files.setLastModifiedTime(entryDir, FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    private static FileTime lastUsed(Path entryDir) {
+        try {
+            return Files.getLastModifiedTime(entryDir);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long size(Path entryDir) {
+        Path executable = entryDir.resolve(EXECUTABLE_FILE);
+        try {
+            return Files.isRegularFile(executable) ? Files.size(executable) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.TypeDefinitionNode;
+import io.ballerina.projects.Document;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.Module;
+import io.ballerina.projects.Package;
+import io.ballerina.projects.ResolvedPackageDependency;
+import io.ballerina.toml.api.Toml;
+import io.ballerina.toml.semantic.ast.TomlBooleanValueNode;
+import io.ballerina.toml.semantic.ast.TomlLongValueNode;
+import io.ballerina.toml.semantic.ast.TomlStringValueNode;
+import io.ballerina.toml.semantic.ast.TomlValueNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Options of the native build of a package, read from the {@code [aws.lambda]} section of its Ballerina.toml.
+ * <p>
+ * The {@code native-image} options are set in {@code [aws.lambda.native]}, and can be set for a single function in
+ * {@code [aws.lambda.native.functions.<function>]}, which applies when each function is packaged on its own:
+ * <pre>
+ * [aws.lambda.native]
+ * optimization = "s"          # -Os, or "b", "0", "1", "2", "3"
+ * gc = "serial"               # or "epsilon", which never collects, for short-lived functions
+ * memory-size = 512           # memory of the function in MB, which caps the heap
+ * static = true               # fully static executable linked against musl
+ * build-time-event-types = true
+ * size-budget = 64            # fails the build when the executable is larger, in MB
+ * </pre>
+ * The {@code memorySize} and {@code preset} of the {@link FunctionConfig annotation} of a function set its memory size
+ * and optimization level when it is packaged on its own, unless the table of the function sets them.
+ *
+ * @since 3.3.1
+ */
+public class NativeBuildOptions {
+
+    public static final NativeBuildOptions NONE = new NativeBuildOptions(SampleEvents.NONE, SampleEvents.NONE,
+            new Settings(), Map.of(), List.of());
+
+    private static final String NATIVE_KEY = "native";
+    private static final String FUNCTIONS_KEY = "functions";
+    private static final String OPTIMIZATION_KEY = "optimization";
+    private static final String GC_KEY = "gc";
+    private static final String MEMORY_SIZE_KEY = "memory-size";
+    private static final String STATIC_KEY = "static";
+    private static final String BUILD_TIME_EVENT_TYPES_KEY = "build-time-event-types";
+    private static final String SIZE_BUDGET_KEY = "size-budget";
+    private static final Set<String> OPTIMIZATION_LEVELS = Set.of("b", "s", "0", "1", "2", "3");
+    private static final String G1 = "G1";
+    private static final Set<String> GARBAGE_COLLECTORS = Set.of("serial", "epsilon", G1);
+    private static final long MIN_MEMORY_SIZE = 128;
+    private static final long MAX_MEMORY_SIZE = 10240;
+    // The rest of the memory of the function is left to the image heap, the code, thread stacks and the OS
+    private static final long HEAP_PERCENTAGE = 75;
+    // Optimization levels of the presets of function annotations
+    private static final Map<String, String> PRESET_OPTIMIZATION_LEVELS = Map.of("fast-start", "1", "throughput", "3");
+    private static final String EVENTS_DOCUMENT = "events.bal";
+    // Record types are generated as $value$<type> classes in the package of their module
+    private static final Pattern EVENT_TYPE_CLASS = Pattern.compile(
+            "ballerinax/aws\\$0046lambda/[^/]+/\\$value\\$([^/$]+)\\.class");
+
+    private final SampleEvents pgoEvents;
+    private final SampleEvents tracingAgentEvents;
+    private final Settings settings;
+    private final Map<String, Settings> functionSettings;
+    private final List<String> eventTypeNames;
+
+    private NativeBuildOptions(SampleEvents pgoEvents, SampleEvents tracingAgentEvents, Settings settings,
+                               Map<String, Settings> functionSettings, List<String> eventTypeNames) {
+        this.pgoEvents = pgoEvents;
+        this.tracingAgentEvents = tracingAgentEvents;
+        this.settings = settings;
+        this.functionSettings = functionSettings;
+        this.eventTypeNames = eventTypeNames;
+    }
+
+    /**
+     * Reads the native build options of a package.
+     *
+     * @param currentPackage the package being built
+     * @param functions      the functions of the package
+     * @return the options
+     * @throws IOException if the options are invalid or name files that cannot be read
+     */
+    public static NativeBuildOptions load(Package currentPackage, Collection<FunctionConfig> functions)
+            throws IOException {
+
+        Optional<Toml> nativeTable = LambdaUtils.getLambdaTable(currentPackage, NATIVE_KEY);
+        String section = Constants.LAMBDA_MODULE_NAME + "." + NATIVE_KEY;
+        Settings settings = nativeTable.isPresent() ? Settings.read(nativeTable.get(), section) : new Settings();
+        Map<String, Settings> functionSettings = new HashMap<>();
+        Optional<Toml> functionsTable = nativeTable.flatMap(table -> table.getTable(FUNCTIONS_KEY));
+        List<String> functionNames = new ArrayList<>();
+        for (FunctionConfig function : functions) {
+            String name = function.getName();
+            functionNames.add(name);
+            Settings annotated = Settings.fromConfig(function);
+            Optional<Toml> functionTable = functionsTable.flatMap(table -> table.getTable(name));
+            if (functionTable.isPresent()) {
+                functionSettings.put(name, annotated.merge(Settings.read(functionTable.get(),
+                        section + "." + FUNCTIONS_KEY + "." + name)));
+            } else if (function.isSet()) {
+                functionSettings.put(name, annotated);
+            }
+        }
+        boolean g1 = G1.equals(settings.gc) ||
+                functionSettings.values().stream().anyMatch(value -> G1.equals(value.gc));
+        if (g1 && !LocalNativeImage.detect().map(LocalNativeImage::supportsG1).orElse(false)) {
+            throw new IOException(section + " " + GC_KEY + " \"" + G1 + "\" requires Oracle GraalVM for JDK 21 on a " +
+                    "Linux x86_64 host, as GraalVM Community Edition of the builder image does not support it");
+        }
+        boolean buildTimeEventTypes = Boolean.TRUE.equals(settings.buildTimeEventTypes) ||
+                functionSettings.values().stream().anyMatch(value -> Boolean.TRUE.equals(value.buildTimeEventTypes));
+        return new NativeBuildOptions(
+                SampleEvents.load(currentPackage, Constants.PGO_KEY).forFunctions(functionNames),
+                SampleEvents.load(currentPackage, Constants.TRACING_AGENT_KEY).forFunctions(functionNames),
+                settings, functionSettings, buildTimeEventTypes ? getEventTypeNames(currentPackage) : List.of());
+    }
+
+    /**
+     * Returns the names of the record types declared in {@code events.bal} of {@code ballerinax/aws.lambda}.
+     */
+    private static List<String> getEventTypeNames(Package currentPackage) {
+
+        List<String> names = new ArrayList<>();
+        for (ResolvedPackageDependency dependency : currentPackage.getResolution().allDependencies()) {
+            Package dependencyPackage = dependency.packageInstance();
+            if (!Constants.LAMBDA_ORG_NAME.equals(dependencyPackage.packageOrg().value()) ||
+                    !Constants.LAMBDA_MODULE_NAME.equals(dependencyPackage.packageName().value())) {
+                continue;
+            }
+            Module module = dependencyPackage.getDefaultModule();
+            for (DocumentId documentId : module.documentIds()) {
+                Document document = module.document(documentId);
+                if (!EVENTS_DOCUMENT.equals(document.name())) {
+                    continue;
+                }
+                ModulePartNode modulePartNode = document.syntaxTree().rootNode();
+                for (ModuleMemberDeclarationNode member : modulePartNode.members()) {
+                    if (member instanceof TypeDefinitionNode typeDefinition &&
+                            typeDefinition.typeDescriptor().kind() == SyntaxKind.RECORD_TYPE_DESC) {
+                        names.add(typeDefinition.typeName().text());
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the options for building a single function on its own.
+     *
+     * @param function name of the function
+     * @return the options of the function
+     */
+    public NativeBuildOptions forFunction(String function) {
+
+        Settings override = this.functionSettings.get(function);
+        return new NativeBuildOptions(this.pgoEvents.forFunctions(List.of(function)),
+                this.tracingAgentEvents.forFunctions(List.of(function)),
+                override == null ? this.settings : this.settings.merge(override), Map.of(), this.eventTypeNames);
+    }
+
+    /**
+     * Checks that the functions sharing the executable built with these options are deployed with the memory size its
+     * heap is capped to.
+     *
+     * @param functions the functions sharing the executable
+     * @throws IOException if the annotation of a function sets another memory size
+     */
+    public void checkSharedMemorySize(Collection<FunctionConfig> functions) throws IOException {
+
+        if (this.settings.memorySize == null) {
+            return;
+        }
+        for (FunctionConfig function : functions) {
+            Optional<Long> memorySize = function.getMemorySize();
+            if (memorySize.isPresent() && !memorySize.get().equals(this.settings.memorySize)) {
+                throw new IOException("memorySize " + memorySize.get() + " of function " + function.getName() +
+                        " differs from " + Constants.LAMBDA_MODULE_NAME + "." + NATIVE_KEY + " " + MEMORY_SIZE_KEY +
+                        " " + this.settings.memorySize + ", which the heap of the native executable shared by all " +
+                        "functions is capped to. Set the same memory size, or package each function on its own");
+            }
+        }
+    }
+
+    /**
+     * Returns the events that the executable is profiled with for profile-guided optimization.
+     *
+     * @return the events, configured in {@code [aws.lambda.pgo]}
+     */
+    public SampleEvents getPgoEvents() {
+        return this.pgoEvents;
+    }
+
+    /**
+     * Returns the events that the jar is run with under the tracing agent to collect reachability metadata.
+     *
+     * @return the events, configured in {@code [aws.lambda.tracing-agent]}
+     */
+    public SampleEvents getTracingAgentEvents() {
+        return this.tracingAgentEvents;
+    }
+
+    /**
+     * Returns the memory size of the function, if set.
+     *
+     * @return memory size in MB
+     */
+    public Optional<Long> getMemorySize() {
+        return Optional.ofNullable(this.settings.memorySize);
+    }
+
+    /**
+     * Returns the size the executable must not exceed, if set.
+     *
+     * @return size budget in MB
+     */
+    public Optional<Long> getSizeBudget() {
+        return Optional.ofNullable(this.settings.sizeBudget);
+    }
+
+    /**
+     * Returns the {@code native-image} options to build the given jar with, on top of those of
+     * {@code build-native.sh}.
+     *
+     * @param jarPath the jar
+     * @return the options
+     * @throws IOException if the jar cannot be read
+     */
+    public List<String> getNativeImageArguments(Path jarPath) throws IOException {
+
+        List<String> arguments = new ArrayList<>();
+        if (this.settings.optimization != null) {
+            arguments.add("-O" + this.settings.optimization);
+        }
+        if (this.settings.gc != null) {
+            arguments.add("--gc=" + this.settings.gc);
+        }
+        if (this.settings.memorySize != null) {
+            arguments.add("-R:MaxHeapSize=" + this.settings.memorySize * HEAP_PERCENTAGE / 100 + "m");
+        }
+        if (Boolean.TRUE.equals(this.settings.staticExecutable)) {
+            arguments.add("--static");
+            arguments.add("--libc=musl");
+        }
+        if (Boolean.TRUE.equals(this.settings.buildTimeEventTypes)) {
+            Set<String> classes = getEventTypeClasses(jarPath);
+            if (!classes.isEmpty()) {
+                arguments.add("--initialize-at-build-time=" + String.join(",", classes));
+            }
+        }
+        return arguments;
+    }
+
+    private Set<String> getEventTypeClasses(Path jarPath) throws IOException {
+
+        Set<String> classes = new TreeSet<>();
+        try (ZipFile jarFile = new ZipFile(jarPath.toFile())) {
+            for (ZipEntry entry : jarFile.stream().toList()) {
+                Matcher matcher = EVENT_TYPE_CLASS.matcher(entry.getName());
+                if (matcher.matches() && this.eventTypeNames.contains(matcher.group(1))) {
+                    String name = entry.getName();
+                    classes.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Returns what, besides the jar, decides the native executable built with these options.
+     *
+     * @return values to be hashed with the jar
+     * @throws IOException if an event cannot be read
+     */
+    public List<String> getInputValues() throws IOException {
+        return List.of(this.pgoEvents.getHash(), this.tracingAgentEvents.getHash(), this.settings.toString());
+    }
+
+    /**
+     * {@code native-image} settings of {@code [aws.lambda.native]} or of a function, null where not set.
+     */
+    private static class Settings {
+
+        private String optimization;
+        private String gc;
+        private Long memorySize;
+        private Boolean staticExecutable;
+        private Boolean buildTimeEventTypes;
+        private Long sizeBudget;
+
+        static Settings read(Toml table, String section) throws IOException {
+
+            Settings settings = new Settings();
+            settings.optimization = getString(table, OPTIMIZATION_KEY, section);
+            if (settings.optimization != null && !OPTIMIZATION_LEVELS.contains(settings.optimization)) {
+                throw new IOException(section + " " + OPTIMIZATION_KEY + " must be one of " +
+                        new TreeSet<>(OPTIMIZATION_LEVELS));
+            }
+            settings.gc = getString(table, GC_KEY, section);
+            if (settings.gc != null && !GARBAGE_COLLECTORS.contains(settings.gc)) {
+                throw new IOException(section + " " + GC_KEY + " must be one of " +
+                        new TreeSet<>(GARBAGE_COLLECTORS));
+            }
+            Optional<TomlValueNode> memorySize = table.get(MEMORY_SIZE_KEY);
+            if (memorySize.isPresent()) {
+                if (!(memorySize.get() instanceof TomlLongValueNode value) || value.getValue() < MIN_MEMORY_SIZE ||
+                        value.getValue() > MAX_MEMORY_SIZE) {
+                    throw new IOException(section + " " + MEMORY_SIZE_KEY + " must be a number of MB between " +
+                            MIN_MEMORY_SIZE + " and " + MAX_MEMORY_SIZE);
+                }
+                settings.memorySize = value.getValue();
+            }
+            settings.staticExecutable = getBoolean(table, STATIC_KEY, section);
+            settings.buildTimeEventTypes = getBoolean(table, BUILD_TIME_EVENT_TYPES_KEY, section);
+            Optional<TomlValueNode> sizeBudget = table.get(SIZE_BUDGET_KEY);
+            if (sizeBudget.isPresent()) {
+                if (!(sizeBudget.get() instanceof TomlLongValueNode value) || value.getValue() < 1) {
+                    throw new IOException(section + " " + SIZE_BUDGET_KEY + " must be a positive number of MB");
+                }
+                settings.sizeBudget = value.getValue();
+            }
+            return settings;
+        }
+
+        /**
+         * Returns the settings set by the annotation of a function.
+         */
+        static Settings fromConfig(FunctionConfig config) {
+
+            Settings settings = new Settings();
+            settings.memorySize = config.getMemorySize().orElse(null);
+            settings.optimization = config.getPreset().map(PRESET_OPTIMIZATION_LEVELS::get).orElse(null);
+            return settings;
+        }
+
+        private static String getString(Toml table, String key, String section) throws IOException {
+
+            Optional<TomlValueNode> value = table.get(key);
+            if (value.isEmpty()) {
+                return null;
+            }
+            if (value.get() instanceof TomlStringValueNode stringValue) {
+                return stringValue.getValue();
+            }
+            // Optimization levels are easily written as numbers
+            if (value.get() instanceof TomlLongValueNode longValue) {
+                return longValue.getValue().toString();
+            }
+            throw new IOException(section + " " + key + " must be a string");
+        }
+
+        private static Boolean getBoolean(Toml table, String key, String section) throws IOException {
+
+            Optional<TomlValueNode> value = table.get(key);
+            if (value.isEmpty()) {
+                return null;
+            }
+            if (value.get() instanceof TomlBooleanValueNode booleanValue) {
+                return booleanValue.getValue();
+            }
+            throw new IOException(section + " " + key + " must be true or false");
+        }
+
+        /**
+         * Returns these settings with those set in the given settings taking precedence.
+         */
+        Settings merge(Settings override) {
+
+            Settings merged = new Settings();
+            merged.optimization = override.optimization != null ? override.optimization : this.optimization;
+            merged.gc = override.gc != null ? override.gc : this.gc;
+            merged.memorySize = override.memorySize != null ? override.memorySize : this.memorySize;
+            merged.staticExecutable = override.staticExecutable != null ? override.staticExecutable :
+                    this.staticExecutable;
+            merged.buildTimeEventTypes = override.buildTimeEventTypes != null ? override.buildTimeEventTypes :
+                    this.buildTimeEventTypes;
+            merged.sizeBudget = override.sizeBudget != null ? override.sizeBudget : this.sizeBudget;
+            return merged;
+        }
+
+        /**
+         * Leaves out the size budget, which is checked against the report of the executable on every build instead of
+         * changing what is built.
+         */
+        @Override
+        public String toString() {
+            return OPTIMIZATION_KEY + "=" + this.optimization + "," + GC_KEY + "=" + this.gc + "," + MEMORY_SIZE_KEY +
+                    "=" + this.memorySize + "," + STATIC_KEY + "=" + this.staticExecutable + "," +
+                    BUILD_TIME_EVENT_TYPES_KEY + "=" + this.buildTimeEventTypes;
+        }
+    }
+}
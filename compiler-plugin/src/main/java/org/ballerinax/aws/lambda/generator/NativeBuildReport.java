@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Size and startup report of a native executable, written as JSON next to its deployment zip.
+ * <p>
+ * The sizes come from the build output JSON and the dashboard dump that {@code native-image} writes when built with
+ * {@link #getNativeImageArguments(String, String)}: the size of the executable, of its code area and of its image
+ * heap, the number of types registered for reflection, the profile-guided optimization it was built with, and the
+ * packages and classes taking up the most code and heap.
+ * The report is completed with the time the executable takes from starting to asking the {@link LocalRuntimeApi} for
+ * its first event, which is measured on Linux x86_64 hosts only as the executable cannot run elsewhere.
+ *
+ * @since 3.3.1
+ */
+public class NativeBuildReport {
+
+    public static final String REPORT_SUFFIX = "-native-report.json";
+
+    private static final PrintStream OUT = System.out;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final String BUILD_OUTPUT_SUFFIX = "-build-output.json";
+    private static final String DASHBOARD_SUFFIX = "-dashboard";
+    private static final String INIT_LOG_SUFFIX = "-init.log";
+    private static final String NO_PACKAGE = "(no package)";
+    private static final int LARGEST_ENTRIES = 10;
+    // The median of a few runs, as the first run also pays for reading the executable from disk
+    private static final int INIT_RUNS = 3;
+
+    private String executable;
+    private long imageSizeBytes;
+    private Long codeAreaBytes;
+    private Long imageHeapBytes;
+    private Long reflectionTypes;
+    private String builder;
+    private Long buildTimeMs;
+    private List<String> pgo = List.of();
+    private Long timeToFirstNextMs;
+    private Map<String, Long> timeToFirstNextMsByFunction = Map.of();
+    private List<Entry> largestPackagesByCode = List.of();
+    private List<Entry> largestClassesByCode = List.of();
+    private List<Entry> largestPackagesByHeap = List.of();
+    private List<Entry> largestClassesByHeap = List.of();
+
+    /**
+     * Returns the {@code native-image} options that make it write what the report is made of.
+     *
+     * @param outputDir      directory the executable is written to, as seen by {@code native-image}
+     * @param executableName name of the executable
+     * @return the options
+     */
+    public static List<String> getNativeImageArguments(String outputDir, String executableName) {
+        String prefix = outputDir + "/" + executableName;
+        return List.of("-H:BuildOutputJSONFile=" + prefix + BUILD_OUTPUT_SUFFIX,
+                "-H:DashboardDump=" + prefix + DASHBOARD_SUFFIX, "-H:+DashboardCode", "-H:+DashboardHeap",
+                "-H:+DashboardJson");
+    }
+
+    /**
+     * Creates the report of a freshly built executable from what {@code native-image} wrote next to it, deleting
+     * those files. A build that did not write them, such as one with an older builder image, only reports the size of
+     * the executable.
+     *
+     * @param executablePath the executable
+     * @return the report
+     * @throws IOException if the executable cannot be read
+     */
+    public static NativeBuildReport collect(Path executablePath) throws IOException {
+
+        NativeBuildReport report = forExecutable(executablePath);
+        String executableName = executablePath.getFileName().toString();
+        Path buildOutput = executablePath.resolveSibling(executableName + BUILD_OUTPUT_SUFFIX);
+        Optional<JsonObject> buildOutputJson = readJson(buildOutput);
+        if (buildOutputJson.isPresent()) {
+            report.readBuildOutput(buildOutputJson.get());
+        }
+        Files.deleteIfExists(buildOutput);
+        List<Path> dashboards;
+        try (Stream<Path> files = Files.list(executablePath.getParent())) {
+            dashboards = files.filter(file -> file.getFileName().toString()
+                    .startsWith(executableName + DASHBOARD_SUFFIX)).toList();
+        }
+        for (Path dashboard : dashboards) {
+            Optional<JsonObject> dashboardJson = readJson(dashboard);
+            if (dashboardJson.isPresent()) {
+                report.readDashboard(dashboardJson.get());
+            }
+            Files.delete(dashboard);
+        }
+        return report;
+    }
+
+    /**
+     * Creates a report holding only the size of an executable.
+     *
+     * @param executablePath the executable
+     * @return the report
+     * @throws IOException if the executable cannot be read
+     */
+    public static NativeBuildReport forExecutable(Path executablePath) throws IOException {
+
+        NativeBuildReport report = new NativeBuildReport();
+        report.executable = executablePath.getFileName().toString();
+        report.imageSizeBytes = Files.size(executablePath);
+        return report;
+    }
+
+    private static Optional<JsonObject> readJson(Path path) {
+
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            JsonElement element = JsonParser.parseReader(reader);
+            return element.isJsonObject() ? Optional.of(element.getAsJsonObject()) : Optional.empty();
+        } catch (IOException | JsonParseException e) {
+            // Dashboard dumps in the binary graph format are skipped
+            return Optional.empty();
+        }
+    }
+
+    private void readBuildOutput(JsonObject buildOutput) {
+
+        JsonObject imageDetails = getObject(buildOutput, "image_details");
+        this.codeAreaBytes = getLong(getObject(imageDetails, "code_area"), "bytes");
+        this.imageHeapBytes = getLong(getObject(imageDetails, "image_heap"), "bytes");
+        JsonObject analysisResults = getObject(buildOutput, "analysis_results");
+        // Named classes before GraalVM for JDK 21
+        JsonObject types = analysisResults != null && analysisResults.has("types") ?
+                getObject(analysisResults, "types") : getObject(analysisResults, "classes");
+        this.reflectionTypes = getLong(types, "reflection");
+        // user-provided for an executable optimized with a profile, instrument for one collecting a profile
+        this.pgo = getStrings(getObject(getObject(buildOutput, "general_info"), "graal_compiler"), "pgo");
+    }
+
+    private void readDashboard(JsonObject dashboard) {
+
+        List<Entry> code = getEntries(getObject(dashboard, "code-breakdown"), "code-size");
+        if (!code.isEmpty()) {
+            // Code is broken down by method, named like java.lang.String.hashCode()
+            List<Entry> classes = code.stream().map(entry -> {
+                int parameters = entry.name.indexOf('(');
+                String method = parameters < 0 ? entry.name : entry.name.substring(0, parameters);
+                return new Entry(getQualifier(method), entry.bytes);
+            }).toList();
+            this.largestClassesByCode = getLargest(classes);
+            this.largestPackagesByCode = getLargest(toPackages(classes));
+        }
+        List<Entry> heap = getEntries(getObject(dashboard, "heap-breakdown"), "heap-size");
+        if (!heap.isEmpty()) {
+            this.largestClassesByHeap = getLargest(heap);
+            this.largestPackagesByHeap = getLargest(toPackages(heap));
+        }
+    }
+
+    private static List<Entry> getEntries(JsonObject breakdown, String key) {
+
+        List<Entry> entries = new ArrayList<>();
+        if (breakdown == null || !breakdown.has(key) || !breakdown.get(key).isJsonArray()) {
+            return entries;
+        }
+        JsonArray array = breakdown.getAsJsonArray(key);
+        for (JsonElement element : array) {
+            if (!element.isJsonObject()) {
+                continue;
+            }
+            JsonObject object = element.getAsJsonObject();
+            Long size = getLong(object, "size");
+            if (object.has("name") && size != null) {
+                entries.add(new Entry(object.get("name").getAsString(), size));
+            }
+        }
+        return entries;
+    }
+
+    private static List<Entry> toPackages(List<Entry> classes) {
+        return classes.stream().map(entry -> {
+            String qualifier = getQualifier(entry.name);
+            return new Entry(qualifier.equals(entry.name) ? NO_PACKAGE : qualifier, entry.bytes);
+        }).toList();
+    }
+
+    private static String getQualifier(String name) {
+        int separator = name.lastIndexOf('.');
+        return separator < 0 ? name : name.substring(0, separator);
+    }
+
+    /**
+     * Sums the sizes of entries of the same name, returning the largest of them.
+     */
+    private static List<Entry> getLargest(List<Entry> entries) {
+
+        Map<String, Long> sizes = new HashMap<>();
+        for (Entry entry : entries) {
+            sizes.merge(entry.name, entry.bytes, Long::sum);
+        }
+        return sizes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(LARGEST_ENTRIES)
+                .map(entry -> new Entry(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static JsonObject getObject(JsonObject object, String key) {
+        return object != null && object.has(key) && object.get(key).isJsonObject() ? object.getAsJsonObject(key) :
+                null;
+    }
+
+    private static List<String> getStrings(JsonObject object, String key) {
+
+        List<String> strings = new ArrayList<>();
+        if (object == null || !object.has(key) || !object.get(key).isJsonArray()) {
+            return strings;
+        }
+        for (JsonElement element : object.getAsJsonArray(key)) {
+            if (element.isJsonPrimitive()) {
+                strings.add(element.getAsString());
+            }
+        }
+        return strings;
+    }
+
+    private static Long getLong(JsonObject object, String key) {
+        try {
+            return object != null && object.has(key) ? object.get(key).getAsLong() : null;
+        } catch (NumberFormatException | UnsupportedOperationException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records what built the executable and how long it took.
+     *
+     * @param builder the host toolchain or the builder image
+     * @param elapsed duration of the build
+     */
+    public void setBuildTime(String builder, Duration elapsed) {
+        this.builder = builder;
+        this.buildTimeMs = elapsed.toMillis();
+    }
+
+    /**
+     * Measures how long the executable takes to ask for its first event when run as each of the given functions,
+     * reporting the slowest of them as the time of the executable.
+     *
+     * @param executablePath the executable
+     * @param functions      names of the functions to run the executable as
+     * @throws IOException if the executable cannot be started
+     */
+    public void measureTimeToFirstNext(Path executablePath, List<String> functions) throws IOException {
+
+        if (!LocalNativeImage.isLambdaCompatibleHost()) {
+            OUT.println("\t@aws.lambda:Time to first event of " + this.executable + " is only measured on Linux " +
+                    "x86_64 hosts\n");
+            return;
+        }
+        Map<String, Long> times = new LinkedHashMap<>();
+        for (String function : functions) {
+            Optional<Duration> time = measureTimeToFirstNext(executablePath, function);
+            if (time.isEmpty()) {
+                return;
+            }
+            times.put(function, time.get().toMillis());
+        }
+        this.timeToFirstNextMsByFunction = times;
+        this.timeToFirstNextMs = times.values().stream().max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    private Optional<Duration> measureTimeToFirstNext(Path executablePath, String function) throws IOException {
+
+        String handler = executablePath.getFileName() + "." + function;
+        Path log = executablePath.resolveSibling(executablePath.getFileName() + INIT_LOG_SUFFIX);
+        List<Duration> runs = new ArrayList<>();
+        for (int i = 0; i < INIT_RUNS; i++) {
+            Optional<Duration> run = LocalRuntimeApi.measureInit(log, runtimeApi -> {
+                ProcessBuilder pb = new ProcessBuilder(executablePath.toAbsolutePath().toString());
+                pb.directory(executablePath.toAbsolutePath().getParent().toFile());
+                pb.environment().put("AWS_LAMBDA_RUNTIME_API", runtimeApi);
+                pb.environment().put("_HANDLER", handler);
+                return pb;
+            });
+            if (run.isEmpty()) {
+                OUT.println("\t@aws.lambda:Time to first event of " + this.executable + " as " + function +
+                        " could not be measured as it stopped before asking for an event. Refer to " + log +
+                        " for information\n");
+                return Optional.empty();
+            }
+            runs.add(run.get());
+        }
+        Files.deleteIfExists(log);
+        runs.sort(Comparator.naturalOrder());
+        return Optional.of(runs.get(runs.size() / 2));
+    }
+
+    /**
+     * Fails if the executable is larger than the given size.
+     *
+     * @param sizeBudget size budget in MB
+     */
+    public void checkSizeBudget(long sizeBudget) {
+        if (this.imageSizeBytes > sizeBudget * 1024 * 1024) {
+            throw new NativeBuildException("Native executable " + this.executable + " is " +
+                    toMegabytes(this.imageSizeBytes) + " MB, which exceeds the size budget of " + sizeBudget +
+                    " MB. Refer to the largest packages and classes in its report for what takes up the space");
+        }
+    }
+
+    /**
+     * Prints a summary of the report.
+     */
+    public void print() {
+        OUT.println("\t@aws.lambda:Native image " + this.executable + ": " + toMegabytes(this.imageSizeBytes) + " MB" +
+                (this.codeAreaBytes == null ? "" : ", " + toMegabytes(this.codeAreaBytes) + " MB code") +
+                (this.imageHeapBytes == null ? "" : ", " + toMegabytes(this.imageHeapBytes) + " MB image heap") +
+                (this.reflectionTypes == null ? "" : ", " + this.reflectionTypes + " reflection types") +
+                (this.timeToFirstNextMs == null ? "" : ", first event requested after " + this.timeToFirstNextMs +
+                        " ms" + (this.timeToFirstNextMsByFunction.size() > 1 ? " by the slowest of " +
+                        this.timeToFirstNextMsByFunction.size() + " functions" : "")));
+    }
+
+    private static String toMegabytes(long bytes) {
+        return String.format("%.1f", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Reads a report.
+     *
+     * @param reportPath the report
+     * @return the report, or empty if there is none or it cannot be read
+     */
+    public static Optional<NativeBuildReport> read(Path reportPath) {
+
+        if (!Files.isRegularFile(reportPath)) {
+            return Optional.empty();
+        }
+        try (Reader reader = Files.newBufferedReader(reportPath, StandardCharsets.UTF_8)) {
+            return Optional.ofNullable(GSON.fromJson(reader, NativeBuildReport.class));
+        } catch (IOException | JsonParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void write(Path reportPath) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+    }
+
+    /**
+     * Size taken up by a package or class.
+     */
+    private static class Entry {
+
+        private final String name;
+        private final long bytes;
+
+        Entry(String name, long bytes) {
+            this.name = name;
+            this.bytes = bytes;
+        }
+    }
+}
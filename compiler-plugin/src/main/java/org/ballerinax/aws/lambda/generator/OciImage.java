@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.ballerina.projects.Package;
+import io.ballerina.toml.api.Toml;
+import io.ballerina.toml.semantic.ast.TomlStringValueNode;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the functions of a package as a container image for AWS Lambda, in an OCI image archive that is written
+ * without a container engine:
+ * <pre>
+ * [aws.lambda.image]
+ * base = "base-image"   # OCI image layout of public.ecr.aws/lambda/provided:al2023
+ * </pre>
+ * The layers of the base image are read from the OCI image layout on disk, so that images build offline, and the
+ * layers of the functions are added on top of them: the Java runtime, the dependencies of the package in
+ * {@value ExplodedLayout#DEPENDENCY_LAYER_PATH}, and the classes of the package with the launcher as
+ * {@code /var/runtime/bootstrap}, which the entrypoint of the provided base images starts. Layers are written like
+ * deployment zips, the same for the same content, so that a change to the code of the package changes the last layer
+ * alone and registries receive nothing else again.
+ *
+ * @since 3.3.1
+ */
+public class OciImage {
+
+    // The root of the layers and where the task and the runtime live in them
+    public static final String OPT_DIRECTORY = "opt/";
+    public static final String TASK_DIRECTORY = "var/task/";
+    public static final String BOOTSTRAP = "var/runtime/bootstrap";
+
+    private static final PrintStream OUT = System.out;
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final String IMAGE_KEY = "image";
+    private static final String BASE_KEY = "base";
+    private static final String INDEX_FILE = "index.json";
+    private static final String LAYOUT_FILE = "oci-layout";
+    private static final String BLOBS_DIRECTORY = "blobs";
+    private static final String SHA256 = "sha256";
+    private static final String INDEX_MEDIA_TYPE = "application/vnd.oci.image.index.v1+json";
+    private static final String DOCKER_LIST_MEDIA_TYPE = "application/vnd.docker.distribution.manifest.list.v2+json";
+    private static final String MANIFEST_MEDIA_TYPE = "application/vnd.oci.image.manifest.v1+json";
+    private static final String CONFIG_MEDIA_TYPE = "application/vnd.oci.image.config.v1+json";
+    private static final String LAYER_MEDIA_TYPE = "application/vnd.oci.image.layer.v1.tar+gzip";
+    private static final String OS = "linux";
+    private static final String ARCHITECTURE = "amd64";
+    private static final String CREATED_BY = "ballerinax/aws.lambda";
+
+    private final Path baseDir;
+    private final String baseManifestDigest;
+    private final JsonObject baseManifest;
+    private final JsonObject baseConfig;
+
+    private OciImage(Path baseDir, String baseManifestDigest, JsonObject baseManifest, JsonObject baseConfig) {
+        this.baseDir = baseDir;
+        this.baseManifestDigest = baseManifestDigest;
+        this.baseManifest = baseManifest;
+        this.baseConfig = baseConfig;
+    }
+
+    /**
+     * Reads whether a package is built as a container image, and the base image it is built on.
+     *
+     * @param currentPackage the package being built
+     * @return the image, or empty if the package is only packaged as zips
+     * @throws IOException if the base image cannot be read
+     */
+    public static Optional<OciImage> load(Package currentPackage) throws IOException {
+
+        Optional<Toml> imageTable = LambdaUtils.getLambdaTable(currentPackage, IMAGE_KEY);
+        if (imageTable.isEmpty()) {
+            return Optional.empty();
+        }
+        String section = Constants.LAMBDA_MODULE_NAME + "." + IMAGE_KEY;
+        Optional<String> base = imageTable.get().<TomlStringValueNode>get(BASE_KEY)
+                .map(TomlStringValueNode::getValue);
+        if (base.isEmpty()) {
+            throw new IOException(section + " " + BASE_KEY + " must name the OCI image layout of the base image");
+        }
+        Path baseDir = currentPackage.project().sourceRoot().resolve(base.get());
+        if (!Files.isRegularFile(baseDir.resolve(INDEX_FILE))) {
+            throw new IOException(section + " " + BASE_KEY + " " + baseDir + " is not an OCI image layout");
+        }
+        String invalidLayout = section + " " + BASE_KEY + " " + baseDir + " is not a valid OCI image layout";
+        try {
+            JsonObject descriptor = selectManifest(readJson(baseDir.resolve(INDEX_FILE)), baseDir);
+            String manifestDigest = getString(descriptor, "digest");
+            JsonObject manifest = manifestDigest == null ? null : readJson(getBlobPath(baseDir, manifestDigest));
+            String configDigest = manifest == null || !manifest.has("config") ? null :
+                    getString(manifest.getAsJsonObject("config"), "digest");
+            if (configDigest == null || !manifest.has("layers")) {
+                throw new IOException(invalidLayout);
+            }
+            JsonObject config = readJson(getBlobPath(baseDir, configDigest));
+            if (!config.has("rootfs") || !config.getAsJsonObject("rootfs").has("diff_ids")) {
+                throw new IOException(invalidLayout);
+            }
+            if (!OS.equals(getString(config, "os")) || !ARCHITECTURE.equals(getString(config, "architecture"))) {
+                throw new IOException(section + " " + BASE_KEY + " must be a " +
+                        Constants.LAMBDA_REMOTE_COMPATIBLE_ARCHITECTURE + " image");
+            }
+            return Optional.of(new OciImage(baseDir, manifestDigest, manifest, config));
+        } catch (JsonParseException | IllegalStateException | ClassCastException e) {
+            throw new IOException(invalidLayout);
+        }
+    }
+
+    /**
+     * Returns what, besides the layers of the functions, decides the content of the image.
+     *
+     * @return values to hash
+     */
+    public List<String> getInputValues() {
+        return List.of(this.baseManifestDigest);
+    }
+
+    /**
+     * Returns the Java runtime of this build, which is deployed in the image when there is no linked runtime.
+     *
+     * @return the home directory of the runtime
+     * @throws IOException if this host does not run a Java runtime AWS Lambda can run
+     */
+    public static Path getHostJavaHome() throws IOException {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        String arch = System.getProperty("os.arch", "").toLowerCase(Locale.ROOT);
+        if (!os.startsWith("linux") || !(arch.equals("amd64") || arch.equals("x86_64"))) {
+            throw new IOException("the Java runtime of the build can only be deployed in an image from Linux x86_64 " +
+                    "hosts, set [" + Constants.LAMBDA_MODULE_NAME + ".jre] jlink = true to link one instead");
+        }
+        return Path.of(System.getProperty("java.home"));
+    }
+
+    /**
+     * Returns a layer of the files of a directory.
+     *
+     * @param description what the layer holds
+     * @param dir         the directory
+     * @param root        where the directory is in the image, without a leading slash
+     * @return the layer
+     */
+    public static Layer directoryLayer(String description, Path dir, String root) {
+        return new Layer(description, tarWriter -> {
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(dir)) {
+                files = paths.filter(Files::isRegularFile).sorted().toList();
+            }
+            for (Path file : files) {
+                tarWriter.addFile(root + "/" + dir.relativize(file).toString().replace('\\', '/'), file,
+                        Files.isExecutable(file) ? DeploymentZipWriter.EXECUTABLE_MODE :
+                                DeploymentZipWriter.FILE_MODE);
+            }
+        });
+    }
+
+    /**
+     * Writes the image with the given layers on top of the base image.
+     *
+     * @param archivePath where to write the OCI image archive
+     * @param layoutDir   directory to write the OCI image layout in before archiving it, deleted afterwards
+     * @param name        name of the image, with its tag
+     * @param command     handler the image starts when a function does not set one
+     * @param layers      the layers of the functions
+     * @throws IOException if a layer or the image cannot be written
+     */
+    public void write(Path archivePath, Path layoutDir, String name, String command, List<Layer> layers)
+            throws IOException {
+
+        LambdaUtils.deleteDirectory(layoutDir);
+        Path blobsDir = layoutDir.resolve(BLOBS_DIRECTORY).resolve(SHA256);
+        Files.createDirectories(blobsDir);
+
+        JsonArray layerDescriptors = new JsonArray();
+        for (JsonElement baseLayer : this.baseManifest.getAsJsonArray("layers")) {
+            String digest = baseLayer.getAsJsonObject().get("digest").getAsString();
+            Files.copy(getBlobPath(this.baseDir, digest), getBlobPath(layoutDir, digest),
+                    StandardCopyOption.REPLACE_EXISTING);
+            layerDescriptors.add(baseLayer);
+        }
+        JsonObject config = this.baseConfig.deepCopy();
+        JsonArray diffIds = config.getAsJsonObject("rootfs").getAsJsonArray("diff_ids");
+        JsonArray history = config.has("history") ? config.getAsJsonArray("history") : null;
+        for (Layer layer : layers) {
+            String[] digests = writeLayer(blobsDir, layer);
+            long size = Files.size(getBlobPath(layoutDir, digests[0]));
+            layerDescriptors.add(descriptor(LAYER_MEDIA_TYPE, digests[0], size));
+            diffIds.add(digests[1]);
+            if (history != null) {
+                JsonObject entry = new JsonObject();
+                entry.addProperty("created_by", CREATED_BY + ": " + layer.description());
+                history.add(entry);
+            }
+            OUT.println("\t@aws.lambda:Image layer of the " + layer.description() + " " + digests[0] + ", " +
+                    size / 1024 + " KB");
+        }
+        JsonObject containerConfig = config.has("config") ? config.getAsJsonObject("config") : new JsonObject();
+        JsonArray cmd = new JsonArray();
+        cmd.add(command);
+        containerConfig.add("Cmd", cmd);
+        config.add("config", containerConfig);
+
+        byte[] configBytes = GSON.toJson(config).getBytes(StandardCharsets.UTF_8);
+        String configDigest = writeBlob(blobsDir, configBytes);
+        JsonObject manifest = new JsonObject();
+        manifest.addProperty("schemaVersion", 2);
+        manifest.addProperty("mediaType", MANIFEST_MEDIA_TYPE);
+        manifest.add("config", descriptor(CONFIG_MEDIA_TYPE, configDigest, configBytes.length));
+        manifest.add("layers", layerDescriptors);
+        byte[] manifestBytes = GSON.toJson(manifest).getBytes(StandardCharsets.UTF_8);
+        String manifestDigest = writeBlob(blobsDir, manifestBytes);
+
+        JsonObject manifestDescriptor = descriptor(MANIFEST_MEDIA_TYPE, manifestDigest, manifestBytes.length);
+        JsonObject annotations = new JsonObject();
+        annotations.addProperty("org.opencontainers.image.ref.name", name.substring(name.lastIndexOf(':') + 1));
+        // The name docker load tags the image with
+        annotations.addProperty("io.containerd.image.name", name);
+        manifestDescriptor.add("annotations", annotations);
+        JsonArray manifests = new JsonArray();
+        manifests.add(manifestDescriptor);
+        JsonObject index = new JsonObject();
+        index.addProperty("schemaVersion", 2);
+        index.addProperty("mediaType", INDEX_MEDIA_TYPE);
+        index.add("manifests", manifests);
+        Files.writeString(layoutDir.resolve(INDEX_FILE), GSON.toJson(index), StandardCharsets.UTF_8);
+        Files.writeString(layoutDir.resolve(LAYOUT_FILE), "{\"imageLayoutVersion\":\"1.0.0\"}",
+                StandardCharsets.UTF_8);
+
+        Files.deleteIfExists(archivePath);
+        try (TarWriter tarWriter = new TarWriter(new BufferedOutputStream(Files.newOutputStream(archivePath)))) {
+            tarWriter.addFile(LAYOUT_FILE, layoutDir.resolve(LAYOUT_FILE), DeploymentZipWriter.FILE_MODE);
+            tarWriter.addFile(INDEX_FILE, layoutDir.resolve(INDEX_FILE), DeploymentZipWriter.FILE_MODE);
+            List<Path> blobs;
+            try (Stream<Path> paths = Files.list(blobsDir)) {
+                blobs = paths.sorted().toList();
+            }
+            for (Path blob : blobs) {
+                tarWriter.addFile(BLOBS_DIRECTORY + "/" + SHA256 + "/" + blob.getFileName(), blob,
+                        DeploymentZipWriter.FILE_MODE);
+            }
+        }
+        LambdaUtils.deleteDirectory(layoutDir);
+        OUT.println("\t@aws.lambda:Image " + name + " " + manifestDigest + ", " +
+                Files.size(archivePath) / (1024 * 1024) + " MB");
+    }
+
+    /**
+     * Writes a layer as a gzipped tar blob, returning its digest and the digest of the tar, which the config lists.
+     */
+    private static String[] writeLayer(Path blobsDir, Layer layer) throws IOException {
+
+        Path tempPath = blobsDir.resolve("layer.tmp");
+        MessageDigest blobDigest = newDigest();
+        MessageDigest tarDigest = newDigest();
+        // The header of the gzip stream written here holds no time, so the same tar compresses to the same blob
+        try (OutputStream blobStream = new DigestOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(tempPath)), blobDigest);
+             TarWriter tarWriter = new TarWriter(new DigestOutputStream(new GZIPOutputStream(blobStream, 65536),
+                     tarDigest))) {
+            layer.content().write(tarWriter);
+        }
+        String digest = toDigest(blobDigest);
+        Files.move(tempPath, getBlobPath(blobsDir.getParent().getParent(), digest),
+                StandardCopyOption.REPLACE_EXISTING);
+        return new String[]{digest, toDigest(tarDigest)};
+    }
+
+    private static String writeBlob(Path blobsDir, byte[] content) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(content);
+        String blobDigest = toDigest(digest);
+        Files.write(getBlobPath(blobsDir.getParent().getParent(), blobDigest), content);
+        return blobDigest;
+    }
+
+    /**
+     * Returns the descriptor of the image manifest for Linux x86_64 in an index, following nested indexes.
+     */
+    private static JsonObject selectManifest(JsonObject index, Path baseDir) throws IOException {
+
+        JsonArray manifests = index.getAsJsonArray("manifests");
+        for (JsonElement element : manifests == null ? new JsonArray() : manifests) {
+            JsonObject descriptor = element.getAsJsonObject();
+            if (descriptor.has("platform")) {
+                JsonObject platform = descriptor.getAsJsonObject("platform");
+                if (!OS.equals(getString(platform, "os")) ||
+                        !ARCHITECTURE.equals(getString(platform, "architecture"))) {
+                    continue;
+                }
+            }
+            String mediaType = getString(descriptor, "mediaType");
+            String digest = getString(descriptor, "digest");
+            if (digest != null && (INDEX_MEDIA_TYPE.equals(mediaType) || DOCKER_LIST_MEDIA_TYPE.equals(mediaType))) {
+                return selectManifest(readJson(getBlobPath(baseDir, digest)), baseDir);
+            }
+            return descriptor;
+        }
+        throw new IOException("the base image has no " + Constants.LAMBDA_REMOTE_COMPATIBLE_ARCHITECTURE + " image");
+    }
+
+    private static JsonObject descriptor(String mediaType, String digest, long size) {
+        JsonObject descriptor = new JsonObject();
+        descriptor.addProperty("mediaType", mediaType);
+        descriptor.addProperty("digest", digest);
+        descriptor.addProperty("size", size);
+        return descriptor;
+    }
+
+    private static Path getBlobPath(Path layoutDir, String digest) throws IOException {
+        int colon = digest.indexOf(':');
+        if (colon < 0 || !digest.substring(colon + 1).matches("[0-9a-f]+")) {
+            throw new IOException("invalid digest " + digest);
+        }
+        return layoutDir.resolve(BLOBS_DIRECTORY).resolve(digest.substring(0, colon)).resolve(
+                digest.substring(colon + 1));
+    }
+
+    private static JsonObject readJson(Path path) throws IOException {
+        return JsonParser.parseString(Files.readString(path, StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+
+    private static String getString(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toDigest(MessageDigest digest) {
+        return SHA256 + ":" + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * A layer of the functions, with what it holds as printed by the build.
+     *
+     * @param description what the layer holds
+     * @param content     writes the files of the layer
+     */
+    public record Layer(String description, LayerContent content) {
+    }
+
+    /**
+     * Writes the files of a layer.
+     */
+    public interface LayerContent {
+
+        void write(TarWriter tarWriter) throws IOException;
+    }
+}
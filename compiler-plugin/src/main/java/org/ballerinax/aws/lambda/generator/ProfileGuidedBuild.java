@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a profile-guided optimized native executable: an instrumented executable is built first and run against a
+ * {@link LocalRuntimeApi} with the events of a {@link SampleEvents}, then the executable is built again with the
+ * profiles it wrote.
+ *
+ * @since 3.3.1
+ */
+public class ProfileGuidedBuild {
+
+    private static final PrintStream OUT = System.out;
+    private static final String WORK_DIRECTORY_SUFFIX = "-pgo";
+    private static final String INSTRUMENTED_SUFFIX = "-instrumented";
+    private static final String PROFILE_FILE = "default.iprof";
+    private static final String LOG_FILE = "output.log";
+
+    private ProfileGuidedBuild() {
+    }
+
+    /**
+     * Builds the optimized executable of a jar.
+     *
+     * @param nativeImage    toolchain that supports profile-guided optimization
+     * @param jarPath        the jar
+     * @param executablePath where to write the executable
+     * @param events         events to profile the executable with
+     * @param options        additional {@code native-image} options of both builds
+     * @throws IOException if the profiling runs cannot be set up
+     */
+    public static void build(LocalNativeImage nativeImage, Path jarPath, Path executablePath, SampleEvents events,
+                             List<String> options) throws IOException {
+
+        String executableName = executablePath.getFileName().toString();
+        Path workDir = executablePath.toAbsolutePath().getParent().resolve(executableName + WORK_DIRECTORY_SUFFIX);
+        LambdaUtils.deleteDirectory(workDir);
+        Files.createDirectories(workDir);
+        Path instrumented = workDir.resolve(executableName + INSTRUMENTED_SUFFIX);
+        OUT.println("\t@aws.lambda:Building instrumented native image with " + nativeImage.getVersion() +
+                " for profile-guided optimization. This may take a while.\n");
+        // Exit handlers make the executable write its profile when it is stopped after the last event
+        List<String> instrumentOptions = new ArrayList<>(options);
+        instrumentOptions.add("--pgo-instrument");
+        instrumentOptions.add("--install-exit-handlers");
+        nativeImage.build(jarPath, instrumented, instrumentOptions);
+
+        List<String> profiles = new ArrayList<>();
+        for (String function : events.getFunctions()) {
+            profiles.add(profile(instrumented, executableName, function, events).toString());
+        }
+        OUT.println("\t@aws.lambda:Building native image optimized with " + profiles.size() + " profile(s)\n");
+        List<String> optimizeOptions = new ArrayList<>(options);
+        optimizeOptions.add("--pgo=" + String.join(",", profiles));
+        nativeImage.build(jarPath, executablePath, optimizeOptions);
+        LambdaUtils.deleteDirectory(workDir);
+    }
+
+    /**
+     * Runs the instrumented executable as the given function with its events, returning the profile it wrote.
+     */
+    private static Path profile(Path instrumented, String executableName, String function, SampleEvents events)
+            throws IOException {
+
+        Path runDir = instrumented.getParent().resolve(function);
+        Files.createDirectories(runDir);
+        Path log = runDir.resolve(LOG_FILE);
+        int errors = LocalRuntimeApi.replay(function, events.getEvents(function), events.getIterations(), log,
+                runtimeApi -> {
+                    ProcessBuilder pb = new ProcessBuilder(instrumented.toString());
+                    pb.directory(runDir.toFile());
+                    pb.environment().put("AWS_LAMBDA_RUNTIME_API", runtimeApi);
+                    pb.environment().put("_HANDLER", executableName + "." + function);
+                    return pb;
+                });
+        OUT.println("\t@aws.lambda:Profiled " + function + " with " +
+                events.getEvents(function).size() * events.getIterations() + " event(s), " + errors +
+                " of which returned an error");
+        Path profile = runDir.resolve(PROFILE_FILE);
+        if (!Files.exists(profile)) {
+            throw new NativeBuildException("Profiling " + function + " did not produce a profile. Refer to " + log +
+                    " for information");
+        }
+        return profile;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import io.ballerina.projects.Package;
+import io.ballerina.toml.api.Toml;
+import io.ballerina.toml.semantic.ast.TomlLongValueNode;
+import io.ballerina.toml.semantic.ast.TomlStringValueNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Sample events that functions are run with during a native build, configured in a table of Ballerina.toml such as
+ * {@code [aws.lambda.pgo]}:
+ * <pre>
+ * [aws.lambda.pgo]
+ * events = "pgo-events"
+ * iterations = 10
+ * </pre>
+ * Each sub directory of the events directory is named after a {@code @lambda:Function} and holds the JSON events that
+ * function is invoked with, in file name order. The events are replayed {@code iterations} times.
+ *
+ * @since 3.3.1
+ */
+public class SampleEvents {
+
+    public static final SampleEvents NONE = new SampleEvents(Map.of(), 0);
+
+    private static final String EVENTS_KEY = "events";
+    private static final String ITERATIONS_KEY = "iterations";
+    private static final int DEFAULT_ITERATIONS = 10;
+    private static final String EVENT_EXTENSION = ".json";
+
+    private final Map<String, List<Path>> events;
+    private final int iterations;
+
+    private SampleEvents(Map<String, List<Path>> events, int iterations) {
+        this.events = events;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Reads the sample events configured in a table of the {@code [aws.lambda]} section of a package.
+     *
+     * @param currentPackage the package being built
+     * @param tableName      name of the table within {@code [aws.lambda]}
+     * @return the events, or {@link #NONE} if the table does not name an events directory
+     * @throws IOException if the events directory cannot be read
+     */
+    public static SampleEvents load(Package currentPackage, String tableName) throws IOException {
+
+        Optional<Toml> table = LambdaUtils.getLambdaTable(currentPackage, tableName);
+        Optional<String> eventsDir = table.flatMap(node -> node.<TomlStringValueNode>get(EVENTS_KEY))
+                .map(TomlStringValueNode::getValue);
+        if (eventsDir.isEmpty()) {
+            return NONE;
+        }
+        String section = Constants.LAMBDA_MODULE_NAME + "." + tableName;
+        int iterations = table.flatMap(node -> node.<TomlLongValueNode>get(ITERATIONS_KEY))
+                .map(value -> value.getValue().intValue())
+                .orElse(DEFAULT_ITERATIONS);
+        if (iterations < 1) {
+            throw new IOException(section + " iterations must be at least 1");
+        }
+        Path root = currentPackage.project().sourceRoot().resolve(eventsDir.get());
+        if (!Files.isDirectory(root)) {
+            throw new IOException(section + " events directory " + root + " does not exist");
+        }
+        Map<String, List<Path>> events = new TreeMap<>();
+        try (Stream<Path> functionDirs = Files.list(root)) {
+            for (Path functionDir : functionDirs.filter(Files::isDirectory).toList()) {
+                try (Stream<Path> files = Files.list(functionDir)) {
+                    List<Path> functionEvents = files
+                            .filter(file -> file.getFileName().toString().endsWith(EVENT_EXTENSION))
+                            .sorted()
+                            .toList();
+                    if (!functionEvents.isEmpty()) {
+                        events.put(functionDir.getFileName().toString(), functionEvents);
+                    }
+                }
+            }
+        }
+        return new SampleEvents(events, iterations);
+    }
+
+    /**
+     * Returns the events of the given functions only.
+     *
+     * @param functions names of the functions
+     * @return the events of the functions
+     */
+    public SampleEvents forFunctions(Collection<String> functions) {
+
+        Map<String, List<Path>> selected = new TreeMap<>();
+        for (String function : functions) {
+            List<Path> functionEvents = this.events.get(function);
+            if (functionEvents != null) {
+                selected.put(function, functionEvents);
+            }
+        }
+        return new SampleEvents(selected, this.iterations);
+    }
+
+    public boolean isEmpty() {
+        return this.events.isEmpty();
+    }
+
+    public Set<String> getFunctions() {
+        return this.events.keySet();
+    }
+
+    public List<Path> getEvents(String function) {
+        return this.events.getOrDefault(function, List.of());
+    }
+
+    public int getIterations() {
+        return this.iterations;
+    }
+
+    /**
+     * Returns the hash of the events, so that executables are built again whenever the events change.
+     *
+     * @return hex SHA-256 of the events, or an empty string if there are none
+     * @throws IOException if an event cannot be read
+     */
+    public String getHash() throws IOException {
+
+        if (isEmpty()) {
+            return "";
+        }
+        List<String> values = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        values.add(Integer.toString(this.iterations));
+        for (Map.Entry<String, List<Path>> entry : this.events.entrySet()) {
+            values.add(entry.getKey());
+            for (Path file : entry.getValue()) {
+                values.add(file.getFileName().toString());
+                files.add(file);
+            }
+        }
+        return ArtifactManifest.hashInputs(values, files.toArray(new Path[0]));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes tar archives that are byte for byte the same for the same content, for the layers of container images and
+ * the image archive holding them.
+ * <p>
+ * Like {@link DeploymentZipWriter}, entries are written in the order they are added, owned by root and with the same
+ * fixed modification time. The parent directories of an entry are added before it unless they were added already.
+ * Names longer than the ustar header allows are recorded in a pax extended header.
+ *
+ * @since 3.3.1
+ */
+public class TarWriter implements ArchiveWriter, Closeable {
+
+    public static final int DIRECTORY_MODE = 0755;
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final byte REGULAR_FILE = '0';
+    private static final byte DIRECTORY = '5';
+    private static final byte PAX_HEADER = 'x';
+    private static final long MTIME = DeploymentZipWriter.ENTRY_TIME.toMillis() / 1000;
+
+    private final OutputStream out;
+    private final Set<String> directories = new HashSet<>();
+
+    /**
+     * Creates a writer to the given stream, which is closed along with the writer.
+     *
+     * @param out stream to write the archive to
+     */
+    public TarWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Adds a file to the archive.
+     *
+     * @param name   name of the entry
+     * @param source file to add
+     * @param mode   unix file mode of the entry
+     * @throws IOException if the file cannot be read or the archive cannot be written
+     */
+    public void addFile(String name, Path source, int mode) throws IOException {
+        long size = Files.size(source);
+        addParentDirectories(name);
+        writeHeader(name, REGULAR_FILE, mode, size);
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            if (inputStream.transferTo(this.out) != size) {
+                throw new IOException("entry " + name + " changed while it was added to the archive");
+            }
+        }
+        pad(size);
+    }
+
+    @Override
+    public void addBytes(String name, byte[] content, int mode) throws IOException {
+        addParentDirectories(name);
+        writeHeader(name, REGULAR_FILE, mode, content.length);
+        this.out.write(content);
+        pad(content.length);
+    }
+
+    private void addParentDirectories(String name) throws IOException {
+        int slash = name.indexOf('/');
+        while (slash > 0) {
+            String directory = name.substring(0, slash + 1);
+            if (this.directories.add(directory)) {
+                writeHeader(directory, DIRECTORY, DIRECTORY_MODE, 0);
+            }
+            slash = name.indexOf('/', slash + 1);
+        }
+    }
+
+    private void writeHeader(String name, byte type, int mode, long size) throws IOException {
+
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > NAME_LENGTH) {
+            // A record is "<length> path=<name>\n", its length counting the digits of the length itself
+            int recordLength = nameBytes.length + " path=\n".length();
+            int length = recordLength + Integer.toString(recordLength).length();
+            if (Integer.toString(length).length() > Integer.toString(recordLength).length()) {
+                length++;
+            }
+            byte[] record = (length + " path=" + name + "\n").getBytes(StandardCharsets.UTF_8);
+            writeHeaderBlock("PaxHeaders/" + Integer.toHexString(name.hashCode()), PAX_HEADER, 0644, record.length);
+            this.out.write(record);
+            pad(record.length);
+        }
+        // Readers without pax support see the name cut to the length of the field
+        writeHeaderBlock(name, type, mode, size);
+    }
+
+    private void writeHeaderBlock(String name, byte type, int mode, long size) throws IOException {
+
+        byte[] header = new byte[BLOCK_SIZE];
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, NAME_LENGTH));
+        putOctal(header, 100, 8, mode);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, MTIME);
+        header[156] = type;
+        putString(header, 257, "ustar\0");
+        putString(header, 263, "00");
+        putString(header, 265, "root");
+        putString(header, 297, "root");
+        // The checksum is summed with its own field taken as spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putOctal(header, 148, 7, checksum);
+        this.out.write(header);
+    }
+
+    private static void putOctal(byte[] header, int offset, int length, long value) throws IOException {
+        String octal = Long.toOctalString(value);
+        if (octal.length() > length - 1) {
+            throw new IOException("value " + value + " is too large for a tar header");
+        }
+        String padded = "0".repeat(length - 1 - octal.length()) + octal;
+        putString(header, offset, padded);
+        header[offset + length - 1] = 0;
+    }
+
+    private static void putString(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+
+    private void pad(long size) throws IOException {
+        int remainder = (int) (size % BLOCK_SIZE);
+        if (remainder != 0) {
+            this.out.write(new byte[BLOCK_SIZE - remainder]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (OutputStream outputStream = this.out) {
+            // The end of the archive is marked by two empty blocks
+            outputStream.write(new byte[2 * BLOCK_SIZE]);
+        }
+    }
+}
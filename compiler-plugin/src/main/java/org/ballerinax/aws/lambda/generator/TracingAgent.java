@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Collects the reachability metadata of a function by running its jar on the JVM under the GraalVM tracing agent
+ * with sample events, and adds the metadata to the jar so that {@code native-image} registers only what the function
+ * actually reached for reflection, resources, JNI, proxies and serialization.
+ * <p>
+ * The metadata is added under {@code META-INF/native-image} of the jar, which {@code native-image} reads on its own,
+ * so it is picked up the same way by {@code build-native.sh} in the builder image and by a host toolchain. The agent
+ * runs on the JDK of the host GraalVM for JDK 21 when there is one, and otherwise in the builder image, which needs a
+ * Linux host for the container to reach the Runtime API stand-in on the loopback interface.
+ *
+ * @since 3.3.1
+ */
+public class TracingAgent {
+
+    private static final PrintStream OUT = System.out;
+    private static final String METADATA_PATH = "META-INF/native-image/ballerinax/aws.lambda/tracing-agent/";
+    private static final String CONFIG_SUFFIX = "-config.json";
+    // Needs the classes the agent extracted alongside it, which are not added to the jar
+    private static final String PREDEFINED_CLASSES_CONFIG = "predefined-classes-config.json";
+    private static final String[] AGENT_LIBRARIES = {"libnative-image-agent.so", "libnative-image-agent.dylib",
+            "native-image-agent.dll"};
+    private static final String JAVA_21_RELEASE = "JAVA_VERSION=\"21";
+    private static final String CONTAINER_WORK_DIR = "output/";
+
+    private final Path java;
+
+    private TracingAgent(Path java) {
+        this.java = java;
+    }
+
+    /**
+     * Looks for a JDK to run the tracing agent on, preferring the GraalVM of the host toolchain, then the GraalVM in
+     * {@code GRAALVM_HOME} or {@code JAVA_HOME}, then the builder image.
+     *
+     * @param nativeImage the host toolchain, if the native build runs on the host
+     * @return the agent, or empty if it cannot run on this host
+     */
+    public static Optional<TracingAgent> detect(Optional<LocalNativeImage> nativeImage) {
+
+        List<Path> homes = new ArrayList<>();
+        if (nativeImage.isPresent()) {
+            try {
+                homes.add(nativeImage.get().getGraalVMHome());
+            } catch (IOException e) {
+                OUT.println("\t@aws.lambda:GraalVM home of the native-image toolchain not found: " + e.getMessage());
+            }
+        }
+        Map<String, String> env = System.getenv();
+        for (String home : new String[]{env.get("GRAALVM_HOME"), env.get("JAVA_HOME")}) {
+            if (home != null && !home.isBlank()) {
+                homes.add(Path.of(home));
+            }
+        }
+        for (Path home : homes) {
+            if (hasAgent(home)) {
+                return Optional.of(new TracingAgent(home.resolve("bin").resolve("java")));
+            }
+        }
+        if (nativeImage.isEmpty() && System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("linux")) {
+            return Optional.of(new TracingAgent(null));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean hasAgent(Path home) {
+
+        try {
+            Path release = home.resolve("release");
+            if (!Files.isExecutable(home.resolve("bin").resolve("java")) || !Files.isRegularFile(release) ||
+                    !Files.readString(release, StandardCharsets.UTF_8).contains(JAVA_21_RELEASE)) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        for (String library : AGENT_LIBRARIES) {
+            if (Files.exists(home.resolve("lib").resolve(library))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the jar as each function with its events, merging the metadata of all of them into the given directory.
+     *
+     * @param jarPath     the jar
+     * @param events      events of the functions
+     * @param metadataDir directory the metadata is written to, next to the jar
+     * @throws IOException if the functions cannot be run
+     */
+    public void trace(Path jarPath, SampleEvents events, Path metadataDir) throws IOException {
+
+        Files.createDirectories(metadataDir);
+        String executableName = jarPath.getFileName().toString().replaceFirst(".jar", "");
+        OUT.println("\t@aws.lambda:Collecting reachability metadata with the tracing agent" +
+                (this.java == null ? " in " + Constants.NATIVE_BUILDER_IMAGE : "") + "\n");
+        for (String function : events.getFunctions()) {
+            String handler = executableName + "." + function;
+            int errors = LocalRuntimeApi.replay(function, events.getEvents(function), events.getIterations(),
+                    metadataDir.resolve(function + ".log"),
+                    runtimeApi -> this.java == null ? createContainer(jarPath, metadataDir, runtimeApi, handler) :
+                            createProcess(jarPath, metadataDir, runtimeApi, handler));
+            OUT.println("\t@aws.lambda:Traced " + function + " with " +
+                    events.getEvents(function).size() * events.getIterations() + " event(s), " + errors +
+                    " of which returned an error");
+        }
+    }
+
+    private ProcessBuilder createProcess(Path jarPath, Path metadataDir, String runtimeApi, String handler) {
+
+        ProcessBuilder pb = new ProcessBuilder(this.java.toString(),
+                "-agentlib:native-image-agent=config-merge-dir=" + metadataDir.toAbsolutePath(),
+                "-jar", jarPath.toAbsolutePath().toString());
+        pb.directory(jarPath.toAbsolutePath().getParent().toFile());
+        pb.environment().put("AWS_LAMBDA_RUNTIME_API", runtimeApi);
+        pb.environment().put("_HANDLER", handler);
+        return pb;
+    }
+
+    /**
+     * Runs the agent in the builder image, with the directory of the jar mounted as the build output directory. The
+     * container shares the network of the host to reach the stand-in, and receives the {@code SIGTERM} sent to
+     * {@code docker run} on stop.
+     */
+    private static ProcessBuilder createContainer(Path jarPath, Path metadataDir, String runtimeApi, String handler) {
+
+        String volumeMount = jarPath.toAbsolutePath().getParent() + Constants.CONTAINER_OUTPUT_PATH;
+        return new ProcessBuilder("docker", "run", "--rm", Constants.DOCKER_PLATFORM_FLAG,
+                Constants.LAMBDA_REMOTE_COMPATIBLE_ARCHITECTURE, "--network", "host", "-v", volumeMount,
+                "-e", "AWS_LAMBDA_RUNTIME_API=" + runtimeApi, "-e", "_HANDLER=" + handler,
+                "--entrypoint", "java", Constants.NATIVE_BUILDER_IMAGE,
+                "-agentlib:native-image-agent=config-merge-dir=" + CONTAINER_WORK_DIR + metadataDir.getFileName(),
+                "-jar", CONTAINER_WORK_DIR + jarPath.getFileName());
+    }
+
+    /**
+     * Replaces the jar with a copy holding the collected metadata.
+     *
+     * @param jarPath     the jar
+     * @param metadataDir directory the metadata was written to
+     * @return number of metadata files added
+     * @throws IOException if the jar cannot be written
+     */
+    public static int addMetadata(Path jarPath, Path metadataDir) throws IOException {
+
+        List<Path> configs;
+        try (Stream<Path> files = Files.list(metadataDir)) {
+            configs = files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.endsWith(CONFIG_SUFFIX) && !name.equals(PREDEFINED_CLASSES_CONFIG);
+            }).sorted().toList();
+        }
+        Path copy = jarPath.resolveSibling(jarPath.getFileName() + ".tmp");
+        try (ZipFile jarFile = new ZipFile(jarPath.toFile());
+             OutputStream outputStream = Files.newOutputStream(copy);
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            for (ZipEntry entry : jarFile.stream().toList()) {
+                if (entry.getName().startsWith(METADATA_PATH)) {
+                    continue;
+                }
+                ZipEntry entryCopy = new ZipEntry(entry.getName());
+                entryCopy.setTime(entry.getTime());
+                zipOutputStream.putNextEntry(entryCopy);
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    inputStream.transferTo(zipOutputStream);
+                }
+                zipOutputStream.closeEntry();
+            }
+            for (Path config : configs) {
+                zipOutputStream.putNextEntry(new ZipEntry(METADATA_PATH + config.getFileName()));
+                Files.copy(config, zipOutputStream);
+                zipOutputStream.closeEntry();
+            }
+        }
+        Files.move(copy, jarPath, StandardCopyOption.REPLACE_EXISTING);
+        return configs.size();
+    }
+}
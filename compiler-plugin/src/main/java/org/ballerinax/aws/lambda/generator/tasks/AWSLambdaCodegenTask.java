@@ -20,6 +20,7 @@ package org.ballerinax.aws.lambda.generator.tasks;
 import com.google.gson.Gson;
 import io.ballerina.compiler.api.SemanticModel;
 import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModulePartNode;
 import io.ballerina.projects.Module;
 import io.ballerina.projects.Package;
@@ -35,6 +36,7 @@ import io.ballerina.tools.text.TextDocument;
 import io.ballerina.tools.text.TextDocuments;
 import io.ballerina.tools.text.TextRange;
 import org.ballerinax.aws.lambda.generator.Constants;
+import org.ballerinax.aws.lambda.generator.FunctionConfig;
 import org.ballerinax.aws.lambda.generator.FunctionDeploymentContext;
 import org.ballerinax.aws.lambda.generator.LambdaFunctionExtractor;
 import org.ballerinax.aws.lambda.generator.LambdaFunctionHolder;
@@ -78,8 +80,24 @@ public class AWSLambdaCodegenTask implements GeneratorTask<SourceGeneratorContex
             sourceGeneratorContext.reportDiagnostic(DiagnosticFactory.createDiagnostic(diagnosticInfo,
                     new NullLocation()));
         }
-        TextDocument textDocument = generateHandlerDocument(generatedFunctions, semanticModel);
-        sourceGeneratorContext.addSourceFile(textDocument, Constants.AWS_LAMBDA_PREFIX, module.moduleId());
+        if (!LambdaUtils.isPerFunctionPackaging(currentPackage)) {
+            TextDocument textDocument = generateHandlerDocument(generatedFunctions, semanticModel);
+            sourceGeneratorContext.addSourceFile(textDocument, Constants.AWS_LAMBDA_PREFIX, module.moduleId());
+            return;
+        }
+        // Each proxy is compiled into a class of its own, which is what lets the per-function packaging drop the
+        // proxies, and whatever only they reach, of every other function.
+        FunctionDefinitionNode mainFunction = LambdaUtils.createMainFunction(semanticModel, generatedFunctions);
+        sourceGeneratorContext.addSourceFile(toTextDocument(List.of(mainFunction)), Constants.AWS_LAMBDA_PREFIX,
+                module.moduleId());
+        for (FunctionDeploymentContext functionContext : generatedFunctions) {
+            sourceGeneratorContext.addSourceFile(toTextDocument(List.of(functionContext.getGeneratedFunction())),
+                    Constants.AWS_LAMBDA_PREFIX, module.moduleId());
+        }
+    }
+
+    private TextDocument toTextDocument(List<ModuleMemberDeclarationNode> members) {
+        return TextDocuments.from(LambdaUtils.createModulePartNode(members).toSourceCode());
     }
 
     private TextDocument generateHandlerDocument(List<FunctionDeploymentContext> generatedFunctions,
@@ -96,9 +114,9 @@ public class AWSLambdaCodegenTask implements GeneratorTask<SourceGeneratorContex
         Files.deleteIfExists(jsonPath);
         Files.createFile(jsonPath);
         try (FileWriter r = new FileWriter(jsonPath.toAbsolutePath().toString(), StandardCharsets.UTF_8)) {
-            List<String> functionList = new ArrayList<>();
+            List<FunctionConfig> functionList = new ArrayList<>();
             for (FunctionDeploymentContext ctx : generatedFunctions) {
-                functionList.add(ctx.getOriginalFunction().functionName().text());
+                functionList.add(ctx.getConfig());
             }
             gson.toJson(functionList, r);
         }
@@ -23,9 +23,25 @@ import io.ballerina.projects.Project;
 import io.ballerina.projects.plugins.CompilerLifecycleEventContext;
 import io.ballerina.projects.plugins.CompilerLifecycleTask;
 import io.ballerina.projects.plugins.CompilerPluginException;
+import org.ballerinax.aws.lambda.generator.ArtifactManifest;
+import org.ballerinax.aws.lambda.generator.CdsArchive;
 import org.ballerinax.aws.lambda.generator.Constants;
+import org.ballerinax.aws.lambda.generator.DeploymentZipWriter;
 import org.ballerinax.aws.lambda.generator.DockerBuildException;
+import org.ballerinax.aws.lambda.generator.ExplodedLayout;
+import org.ballerinax.aws.lambda.generator.FunctionConfig;
+import org.ballerinax.aws.lambda.generator.FunctionJarShrinker;
+import org.ballerinax.aws.lambda.generator.JlinkRuntime;
+import org.ballerinax.aws.lambda.generator.JvmLauncher;
 import org.ballerinax.aws.lambda.generator.LambdaUtils;
+import org.ballerinax.aws.lambda.generator.LocalNativeImage;
+import org.ballerinax.aws.lambda.generator.NativeBuildCache;
+import org.ballerinax.aws.lambda.generator.NativeBuildOptions;
+import org.ballerinax.aws.lambda.generator.NativeBuildReport;
+import org.ballerinax.aws.lambda.generator.OciImage;
+import org.ballerinax.aws.lambda.generator.ProfileGuidedBuild;
+import org.ballerinax.aws.lambda.generator.SampleEvents;
+import org.ballerinax.aws.lambda.generator.TracingAgent;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -34,21 +50,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
-import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.PosixFilePermission;
-import java.nio.file.attribute.PosixFilePermissions;
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Contains the code generation part of the lambda functions.
@@ -58,6 +70,13 @@ import java.util.stream.Collectors;
 public class LambdaCodeGeneratedTask implements CompilerLifecycleTask<CompilerLifecycleEventContext> {
 
     private static final PrintStream OUT = System.out;
+    private static final String ARM64_RUNTIME = "provided.al2023";
+    private static final String TRACING_AGENT_DIRECTORY_SUFFIX = "-reachability-metadata";
+    private static final String CDS_DIRECTORY_SUFFIX = "-cds";
+    private static final String JRE_LAYER_DIRECTORY = "aws-ballerina-lambda-jre";
+    private static final String IMAGE_LAYOUT_DIRECTORY = "aws-ballerina-lambda-image";
+    // Output directory of build-native.sh, relative to the working directory of the builder image
+    private static final String CONTAINER_OUTPUT_DIRECTORY = "output";
 
     @Override
     public void perform(CompilerLifecycleEventContext lifecycleEventContext) {
@@ -67,7 +86,8 @@ public class LambdaCodeGeneratedTask implements CompilerLifecycleTask<CompilerLi
         Gson gson = new Gson();
         try (FileReader file = new FileReader(lambdaJson.toAbsolutePath().toString(),
                 StandardCharsets.UTF_8)) {
-            List<String> generatedFunctions = gson.fromJson(file, List.class);
+            List<FunctionConfig> functionConfigs = List.of(gson.fromJson(file, FunctionConfig[].class));
+            List<String> generatedFunctions = functionConfigs.stream().map(FunctionConfig::getName).toList();
             file.close();
             BuildOptions buildOptions = project.buildOptions();
             boolean isNative = buildOptions.nativeImage();
@@ -76,31 +96,128 @@ public class LambdaCodeGeneratedTask implements CompilerLifecycleTask<CompilerLi
                 Path executablePath = generatedArtifactPath.get();
                 try {
                     Path functionsDir = LambdaUtils.getFunctionsDir(project, executablePath);
-                    LambdaUtils.deleteDirectory(functionsDir);
                     Files.createDirectories(functionsDir);
+                    ArtifactManifest manifest = ArtifactManifest.load(project.targetDir());
 
-                    if (isNative) {
-                        this.generateNativeZipFile(functionsDir, executablePath);
+                    boolean perFunction = LambdaUtils.isPerFunctionPackaging(project.currentPackage());
+                    NativeBuildOptions nativeOptions = isNative ?
+                            NativeBuildOptions.load(project.currentPackage(), functionConfigs) :
+                            NativeBuildOptions.NONE;
+                    if (!perFunction) {
+                        nativeOptions.checkSharedMemorySize(functionConfigs);
+                    }
+                    Optional<JlinkRuntime> jlinkRuntime = isNative ? Optional.empty() :
+                            JlinkRuntime.load(project.currentPackage());
+                    JvmLauncher layerLauncher = isNative ? JvmLauncher.DEFAULT :
+                            JvmLauncher.load(project.currentPackage(), functionConfigs);
+                    JvmLauncher launcher = jlinkRuntime.isPresent() ?
+                            layerLauncher.withJavaHome(JlinkRuntime.JAVA_HOME) : layerLauncher;
+                    SampleEvents cdsEvents = isNative ? SampleEvents.NONE :
+                            SampleEvents.load(project.currentPackage(), Constants.CDS_KEY)
+                                    .forFunctions(generatedFunctions);
+                    if (launcher.getLayout() != JvmLauncher.Layout.JAR && !cdsEvents.isEmpty()) {
+                        throw new IOException("class data sharing archives cannot be created for the " +
+                                launcher.getLayout().getName() + " layout, whose classes are not in a jar");
+                    }
+                    Optional<OciImage> image = OciImage.load(project.currentPackage());
+                    if (isNative && image.isPresent()) {
+                        throw new IOException("container images can only be built for JVM functions, remove [" +
+                                Constants.LAMBDA_MODULE_NAME + ".image] to build native functions");
+                    }
+                    boolean arm64 = functionConfigs.stream().anyMatch(FunctionConfig::isArm64);
+                    if (arm64 && (isNative || jlinkRuntime.isPresent() || image.isPresent() || !cdsEvents.isEmpty())) {
+                        throw new IOException("functions can only be deployed on " + FunctionConfig.ARM64 +
+                                " with the JVM, as native executables, linked Java runtimes, container images and " +
+                                "class data sharing archives are built for x86_64");
+                    }
+                    String packagePath = ExplodedLayout.getPackagePath(project.currentPackage());
+                    List<String> zipFileNames = new ArrayList<>();
+                    List<String> directories = new ArrayList<>(perFunction ? generatedFunctions : List.of());
+                    Path runtimeDir = jlinkRuntime.isPresent() ?
+                            generateRuntimeLayer(functionsDir, executablePath, jlinkRuntime.get(), manifest) : null;
+                    if (jlinkRuntime.isPresent()) {
+                        zipFileNames.add(Constants.JRE_LAYER_ZIP_FILENAME);
+                        directories.add(JRE_LAYER_DIRECTORY);
+                    }
+                    boolean dependencyLayer = launcher.getLayout() == JvmLauncher.Layout.LAYERED;
+                    if (dependencyLayer) {
+                        generateDependencyLayer(functionsDir, executablePath, packagePath, manifest);
+                        zipFileNames.add(Constants.LIB_LAYER_ZIP_FILENAME);
+                    }
+                    if (perFunction) {
+                        this.generateFunctionZipFiles(functionsDir, executablePath, generatedFunctions, isNative,
+                                nativeOptions, launcher, cdsEvents, jlinkRuntime, runtimeDir, packagePath, manifest,
+                                zipFileNames);
                     } else {
-                        this.generateZipFile(functionsDir, executablePath, false);
+                        Path zipPath = functionsDir.resolve(Constants.LAMBDA_OUTPUT_ZIP_FILENAME);
+                        Path reportPath = isNative ? getReportPath(zipPath) : null;
+                        String inputHash = ArtifactManifest.hashInputs(getInputValues(isNative, null, nativeOptions,
+                                launcher, cdsEvents, jlinkRuntime, executablePath), executablePath);
+                        generateArtifact(manifest, zipPath, reportPath, inputHash, () -> {
+                            if (isNative) {
+                                this.generateNativeZipFile(functionsDir, executablePath, nativeOptions, reportPath,
+                                        generatedFunctions);
+                            } else {
+                                this.generateJarZipFile(zipPath, executablePath, launcher, cdsEvents, runtimeDir,
+                                        packagePath);
+                            }
+                        });
+                        if (isNative) {
+                            checkSizeBudget(reportPath, nativeOptions);
+                        }
+                        zipFileNames.add(zipPath.getFileName().toString());
                     }
-                    String version = getResourceFileAsString("layer-version.txt");
                     String fileName = executablePath.getFileName().toString();
                     String balxName = fileName.substring(0, fileName.lastIndexOf('.'));
-                    String layer = " --layers arn:aws:lambda:$REGION_ID:367134611783:layer:ballerina-jre21:" + version;
-                    if (isNative) {
-                        layer = "";
+                    String imageName = project.currentPackage().packageName().value().toLowerCase(Locale.ROOT) +
+                            ":" + project.currentPackage().packageVersion().value().toString();
+                    if (image.isPresent()) {
+                        generateImage(functionsDir, executablePath, image.get(), imageName,
+                                balxName + "." + generatedFunctions.get(0), launcher, jlinkRuntime, runtimeDir,
+                                packagePath, manifest);
+                        zipFileNames.add(Constants.IMAGE_ARCHIVE_FILENAME);
                     }
+                    manifest.retain(zipFileNames);
+                    manifest.save();
+                    deleteStaleArtifacts(functionsDir, zipFileNames, directories, isNative);
+                    String version = getResourceFileAsString("layer-version.txt");
+                    String jreLayer = isNative ? "" :
+                            "arn:aws:lambda:$REGION_ID:367134611783:layer:ballerina-jre21:" + version;
                     OUT.println("\t@aws.lambda:Function: " + String.join(", ", generatedFunctions));
-                    OUT.println("\n\tRun the following command to deploy each Ballerina AWS Lambda function:");
-                    OUT.println("\taws lambda create-function --function-name $FUNCTION_NAME --zip-file fileb://"
-                            + functionsDir + File.separator + Constants.LAMBDA_OUTPUT_ZIP_FILENAME +
-                            " --handler " +
-                            balxName + ".$FUNCTION_NAME --runtime provided --role $LAMBDA_ROLE_ARN" + layer +
-                            " --memory-size 512 --timeout 10");
-                    OUT.println("\n\tRun the following command to re-deploy an updated Ballerina AWS Lambda function:");
-                    OUT.println("\taws lambda update-function-code --function-name $FUNCTION_NAME --zip-file fileb://"
-                            + Constants.LAMBDA_OUTPUT_ZIP_FILENAME + "\n\n");
+                    if (jlinkRuntime.isPresent()) {
+                        jreLayer = "$JRE_LAYER_ARN";
+                        OUT.println("\n\tRun the following command to publish the linked Java runtime as a layer, " +
+                                "and use its LayerVersionArn as $JRE_LAYER_ARN:");
+                        OUT.println("\taws lambda publish-layer-version --layer-name $JRE_LAYER_NAME " +
+                                "--zip-file fileb://" + functionsDir + File.separator +
+                                Constants.JRE_LAYER_ZIP_FILENAME + " --compatible-runtimes provided");
+                    }
+                    String libLayer = dependencyLayer ? "$LIB_LAYER_ARN" : "";
+                    if (dependencyLayer) {
+                        OUT.println("\n\tRun the following command to publish the dependencies as a layer when " +
+                                Constants.LIB_LAYER_ZIP_FILENAME + " has changed, and use its LayerVersionArn as " +
+                                "$LIB_LAYER_ARN:");
+                        OUT.println("\taws lambda publish-layer-version --layer-name $LIB_LAYER_NAME " +
+                                "--zip-file fileb://" + functionsDir + File.separator +
+                                Constants.LIB_LAYER_ZIP_FILENAME + " --compatible-runtimes provided");
+                    }
+                    if (arm64) {
+                        OUT.println("\n\tPublish a Java 21 runtime for " + FunctionConfig.ARM64 + " that extracts " +
+                                "to " + launcher.getJavaHome() + " as a layer, and use its LayerVersionArn as " +
+                                "$ARM64_JRE_LAYER_ARN for the functions deployed on " + FunctionConfig.ARM64 + ".");
+                    }
+                    if (image.isPresent()) {
+                        printImageDeployCommands(functionsDir, imageName, balxName, functionConfigs);
+                    }
+                    if (perFunction) {
+                        printFunctionDeployCommands(functionsDir, balxName, jreLayer, libLayer, functionConfigs,
+                                nativeOptions);
+                    } else {
+                        printSharedDeployCommands(functionsDir, balxName, jreLayer, libLayer, functionConfigs,
+                                nativeOptions);
+                    }
+                    printConcurrencyCommands(functionConfigs);
+                    OUT.println("\n");
                 } catch (IOException e) {
                     throw new CompilerPluginException("Error generating AWS lambda zip file: " + e.getMessage(), e);
                 }
@@ -110,45 +227,565 @@ public class LambdaCodeGeneratedTask implements CompilerLifecycleTask<CompilerLi
         }
     }
 
-    private void generateZipFile(Path functionsDir, Path binaryPath, boolean isNative) throws IOException {
-        Path path = functionsDir.toAbsolutePath().resolve(Constants.LAMBDA_OUTPUT_ZIP_FILENAME);
-        Files.deleteIfExists(path);
-        Map<String, String> env = new HashMap<>();
-        env.put("create", "true");
-        URI uri = URI.create("jar:file:" + path.toUri().getPath());
-        try (FileSystem zipfs = FileSystems.newFileSystem(uri, env)) {
-            Path pathInZipfile = zipfs.getPath("/" + binaryPath.getFileName());
+    private static void printImageDeployCommands(Path functionsDir, String imageName, String balxName,
+                                                 List<FunctionConfig> functions) {
+
+        OUT.println("\n\tRun the following command to push the container image of the functions to $REPOSITORY_URI " +
+                "in Amazon ECR, without a container engine:");
+        OUT.println("\tskopeo copy oci-archive:" + functionsDir + File.separator + Constants.IMAGE_ARCHIVE_FILENAME +
+                " docker://$REPOSITORY_URI:" + imageName.substring(imageName.lastIndexOf(':') + 1));
+        if (functions.stream().noneMatch(FunctionConfig::isSet)) {
+            OUT.println("\n\tRun the following command to deploy each Ballerina AWS Lambda function from the image:");
+            OUT.println("\taws lambda create-function --function-name $FUNCTION_NAME --package-type Image --code " +
+                    "ImageUri=$REPOSITORY_URI@$IMAGE_DIGEST --image-config Command=" + balxName + ".$FUNCTION_NAME " +
+                    "--role $LAMBDA_ROLE_ARN" + getResourceOptions(new FunctionConfig("$FUNCTION_NAME"),
+                    Optional.empty()));
+            return;
+        }
+        OUT.println("\n\tRun the following commands to deploy the Ballerina AWS Lambda functions from the image:");
+        for (FunctionConfig function : functions) {
+            OUT.println("\taws lambda create-function --function-name " + function.getName() + " --package-type " +
+                    "Image --code ImageUri=$REPOSITORY_URI@$IMAGE_DIGEST --image-config Command=" + balxName + "." +
+                    function.getName() + " --role $LAMBDA_ROLE_ARN" +
+                    getResourceOptions(function, function.getMemorySize()));
+        }
+    }
+
+    private static void printSharedDeployCommands(Path functionsDir, String balxName, String jreLayer,
+                                                  String libLayer, List<FunctionConfig> functions,
+                                                  NativeBuildOptions nativeOptions) {
+
+        String zipFile = " --zip-file fileb://" + functionsDir + File.separator + Constants.LAMBDA_OUTPUT_ZIP_FILENAME;
+        if (functions.stream().noneMatch(FunctionConfig::isSet)) {
+            OUT.println("\n\tRun the following command to deploy each Ballerina AWS Lambda function:");
+            FunctionConfig template = new FunctionConfig("$FUNCTION_NAME");
+            OUT.println("\taws lambda create-function --function-name $FUNCTION_NAME" + zipFile + " --handler " +
+                    balxName + ".$FUNCTION_NAME" + getRuntimeOptions(template, jreLayer, libLayer) +
+                    getResourceOptions(template, nativeOptions.getMemorySize()));
+            OUT.println("\n\tRun the following command to re-deploy an updated Ballerina AWS Lambda function:");
+            OUT.println("\taws lambda update-function-code --function-name $FUNCTION_NAME --zip-file fileb://"
+                    + Constants.LAMBDA_OUTPUT_ZIP_FILENAME);
+            return;
+        }
+        OUT.println("\n\tRun the following commands to deploy the Ballerina AWS Lambda functions:");
+        for (FunctionConfig function : functions) {
+            OUT.println("\taws lambda create-function --function-name " + function.getName() + zipFile +
+                    " --handler " + balxName + "." + function.getName() +
+                    getRuntimeOptions(function, jreLayer, libLayer) +
+                    getResourceOptions(function, nativeOptions.getMemorySize().or(function::getMemorySize)));
+        }
+        OUT.println("\n\tRun the following commands to re-deploy updated Ballerina AWS Lambda functions:");
+        for (FunctionConfig function : functions) {
+            OUT.println("\taws lambda update-function-code --function-name " + function.getName() +
+                    " --zip-file fileb://" + Constants.LAMBDA_OUTPUT_ZIP_FILENAME);
+        }
+    }
+
+    private static void printFunctionDeployCommands(Path functionsDir, String balxName, String jreLayer,
+                                                    String libLayer, List<FunctionConfig> functions,
+                                                    NativeBuildOptions nativeOptions) {
+
+        OUT.println("\n\tRun the following commands to deploy the Ballerina AWS Lambda functions:");
+        for (FunctionConfig function : functions) {
+            String name = function.getName();
+            // The settings of the native executable of a function already take its annotation into account
+            Optional<Long> memorySize = nativeOptions.forFunction(name).getMemorySize()
+                    .or(function::getMemorySize);
+            OUT.println("\taws lambda create-function --function-name " + name + " --zip-file fileb://"
+                    + functionsDir + File.separator + name + Constants.FUNCTION_ZIP_EXTENSION + " --handler " +
+                    balxName + "." + name + getRuntimeOptions(function, jreLayer, libLayer) +
+                    getResourceOptions(function, memorySize));
+        }
+        OUT.println("\n\tRun the following commands to re-deploy updated Ballerina AWS Lambda functions:");
+        for (FunctionConfig function : functions) {
+            OUT.println("\taws lambda update-function-code --function-name " + function.getName() +
+                    " --zip-file fileb://" + function.getName() + Constants.FUNCTION_ZIP_EXTENSION);
+        }
+    }
+
+    /**
+     * Returns the runtime, role and layers of a function, which takes a Java runtime for arm64 from
+     * {@code $ARM64_JRE_LAYER_ARN} in place of the given one when it is deployed on arm64.
+     */
+    private static String getRuntimeOptions(FunctionConfig function, String jreLayer, String libLayer) {
+
+        String runtime = function.isArm64() ? ARM64_RUNTIME : "provided";
+        List<String> layers = Stream.of(function.isArm64() ? "$ARM64_JRE_LAYER_ARN" : jreLayer, libLayer)
+                .filter(layer -> !layer.isEmpty()).toList();
+        return " --runtime " + runtime + " --role $LAMBDA_ROLE_ARN" +
+                (layers.isEmpty() ? "" : " --layers " + String.join(" ", layers));
+    }
+
+    /**
+     * Returns the given memory size and the timeout, architecture and ephemeral storage of a function, falling back
+     * to the defaults of the plugin where they are not set.
+     */
+    private static String getResourceOptions(FunctionConfig function, Optional<Long> memorySize) {
+
+        StringBuilder options = new StringBuilder(" --memory-size ")
+                .append(memorySize.orElse(FunctionConfig.DEFAULT_MEMORY_SIZE))
+                .append(" --timeout ").append(function.getTimeout().orElse(FunctionConfig.DEFAULT_TIMEOUT));
+        function.getArchitecture().ifPresent(architecture -> options.append(" --architectures ").append(architecture));
+        function.getEphemeralStorage().ifPresent(size -> options.append(" --ephemeral-storage Size=").append(size));
+        return options.toString();
+    }
+
+    private static void printConcurrencyCommands(List<FunctionConfig> functions) {
+
+        List<FunctionConfig> reserved = functions.stream()
+                .filter(function -> function.getReservedConcurrency().isPresent()).toList();
+        if (!reserved.isEmpty()) {
+            OUT.println("\n\tRun the following commands to reserve concurrency for the Ballerina AWS Lambda " +
+                    "functions:");
+            for (FunctionConfig function : reserved) {
+                OUT.println("\taws lambda put-function-concurrency --function-name " + function.getName() +
+                        " --reserved-concurrent-executions " + function.getReservedConcurrency().get());
+            }
+        }
+        List<FunctionConfig> provisioned = functions.stream()
+                .filter(function -> function.getProvisionedConcurrency().isPresent()).toList();
+        if (!provisioned.isEmpty()) {
+            OUT.println("\n\tRun the following commands after each deployment to publish a version of the " +
+                    "Ballerina AWS Lambda functions, and provision concurrency for the Version it returns as " +
+                    "$VERSION:");
+            for (FunctionConfig function : provisioned) {
+                OUT.println("\taws lambda publish-version --function-name " + function.getName());
+                OUT.println("\taws lambda put-provisioned-concurrency-config --function-name " + function.getName() +
+                        " --qualifier $VERSION --provisioned-concurrent-executions " +
+                        function.getProvisionedConcurrency().get());
+            }
+        }
+    }
+
+    /**
+     * Packages each function on its own, with a jar holding only the classes reachable from its handler.
+     */
+    private void generateFunctionZipFiles(Path functionsDir, Path binaryPath, List<String> functions,
+                                          boolean isNative, NativeBuildOptions nativeOptions,
+                                          JvmLauncher launcher, SampleEvents cdsEvents,
+                                          Optional<JlinkRuntime> jlinkRuntime, Path runtimeDir, String packagePath,
+                                          ArtifactManifest manifest, List<String> zipFileNames) throws IOException {
+
+        String jarFileName = binaryPath.getFileName().toString();
+        String executableName = jarFileName.replaceFirst(".jar", "");
+        FunctionJarShrinker shrinker = null;
+        for (String function : functions) {
+            Path functionDir = functionsDir.resolve(function);
+            Path zipPath = functionsDir.resolve(function + Constants.FUNCTION_ZIP_EXTENSION);
+            Path reportPath = isNative ? getReportPath(zipPath) : null;
+            NativeBuildOptions functionOptions = nativeOptions.forFunction(function);
+            JvmLauncher functionLauncher = launcher.forFunction(function);
+            SampleEvents functionCdsEvents = cdsEvents.forFunctions(List.of(function));
+            String inputHash = ArtifactManifest.hashInputs(getInputValues(isNative, function, functionOptions,
+                    functionLauncher, functionCdsEvents, jlinkRuntime, binaryPath), binaryPath);
+            zipFileNames.add(zipPath.getFileName().toString());
+            // The jar is only read once some function actually has to be packaged again
+            if (shrinker == null && !isUpToDate(manifest, zipPath, reportPath, inputHash)) {
+                shrinker = FunctionJarShrinker.load(binaryPath);
+            }
+            FunctionJarShrinker functionShrinker = shrinker;
+            generateArtifact(manifest, zipPath, reportPath, inputHash, () -> {
+                LambdaUtils.deleteDirectory(functionDir);
+                Files.createDirectories(functionDir);
+                Path jarPath = functionDir.resolve(jarFileName);
+                int classCount = functionShrinker.shrink(function, jarPath);
+                OUT.println("\t@aws.lambda:Function " + function + ": " + classCount + " of " +
+                        functionShrinker.getClassCount() + " classes, " + Files.size(jarPath) / 1024 + " KB");
+                if (isNative) {
+                    NativeBuildReport report = buildRemoteArtifacts(functionDir, jarFileName, functionOptions,
+                            reportPath);
+                    completeReport(report, functionDir.resolve(executableName), List.of(function), reportPath);
+                    generateZipFile(zipPath, functionDir.resolve(executableName));
+                } else {
+                    generateJarZipFile(zipPath, jarPath, functionLauncher, functionCdsEvents, runtimeDir,
+                            packagePath);
+                }
+            });
             if (isNative) {
-                Set<PosixFilePermission> ownerWritable = PosixFilePermissions.fromString("rwxr-xr-x");
-                Path bootstrapPath = functionsDir.resolve("bootstrap");
-                Files.write(bootstrapPath, Constants.BOOTSTRAP_CONTENT.getBytes(StandardCharsets.UTF_8));
-                Files.setPosixFilePermissions(bootstrapPath, ownerWritable);
-                Path bootstrapZipPath = zipfs.getPath("/bootstrap");
-                Files.copy(bootstrapPath, bootstrapZipPath, StandardCopyOption.COPY_ATTRIBUTES);
+                checkSizeBudget(reportPath, functionOptions);
+            }
+        }
+    }
+
+    /**
+     * Returns what, besides the executable jar, decides the content of a zip.
+     */
+    private static List<String> getInputValues(boolean isNative, String function, NativeBuildOptions nativeOptions,
+                                               JvmLauncher launcher, SampleEvents cdsEvents,
+                                               Optional<JlinkRuntime> jlinkRuntime, Path jarPath) throws IOException {
+
+        List<String> values = new ArrayList<>();
+        values.add(Constants.ARTIFACT_LAYOUT_VERSION);
+        if (isNative) {
+            values.add(Constants.NATIVE_BUILDER_IMAGE);
+            values.addAll(nativeOptions.getInputValues());
+        } else {
+            values.add(launcher.getLayout().getName());
+            values.add(launcher.generate(jarPath.getFileName().toString()));
+            if (!cdsEvents.isEmpty() && CdsArchive.isSupportedHost()) {
+                values.add(CdsArchive.LAYER_JRE_IMAGE);
+                values.add(cdsEvents.getHash());
+                // The archive is dumped on the runtime the jar is deployed with
+                jlinkRuntime.ifPresent(runtime -> values.addAll(runtime.getInputValues()));
+            }
+        }
+        if (function != null) {
+            values.add(Constants.PER_FUNCTION_PACKAGING);
+            values.add(function);
+        }
+        return values;
+    }
+
+    /**
+     * Returns whether a zip built from the same inputs before is still in place, along with what is kept next to it
+     * when there is something, such as the report of its native executable. A zip packaged without its class data
+     * sharing archive because training failed is not, so that training is tried again.
+     */
+    private static boolean isUpToDate(ArtifactManifest manifest, Path zipPath, Path companionPath, String inputHash)
+            throws IOException {
+        return manifest.isUpToDate(zipPath, inputHash) && (companionPath == null || Files.exists(companionPath)) &&
+                !Files.exists(getCdsDirectory(zipPath));
+    }
+
+    /**
+     * Builds a zip unless the zip built from the same inputs before is still in place, and prints its hash so that
+     * deployments of unchanged code can be skipped.
+     */
+    private static void generateArtifact(ArtifactManifest manifest, Path zipPath, Path companionPath,
+                                         String inputHash, ZipGenerator generator) throws IOException {
+
+        boolean upToDate = isUpToDate(manifest, zipPath, companionPath, inputHash);
+        if (!upToDate) {
+            generator.generate();
+            manifest.record(zipPath, inputHash);
+        }
+        String zipFileName = zipPath.getFileName().toString();
+        OUT.println("\t@aws.lambda:Artifact " + zipFileName + (upToDate ? " (unchanged)" : "") + " CodeSha256: " +
+                manifest.getCodeSha256(zipFileName));
+    }
+
+    /**
+     * Links the Java runtime of the jar and packages it as a layer zip, unless the layer zip of the same jar is still
+     * in place along with its runtime, which the class data sharing archives of the functions are trained on.
+     */
+    private static Path generateRuntimeLayer(Path functionsDir, Path jarPath, JlinkRuntime jlinkRuntime,
+                                             ArtifactManifest manifest) throws IOException {
+
+        Path zipPath = functionsDir.resolve(Constants.JRE_LAYER_ZIP_FILENAME);
+        Path workDir = functionsDir.resolve(JRE_LAYER_DIRECTORY);
+        Path runtimeDir = JlinkRuntime.getRuntimeDir(workDir);
+        List<String> values = new ArrayList<>();
+        values.add(Constants.ARTIFACT_LAYOUT_VERSION);
+        values.addAll(jlinkRuntime.getInputValues());
+        generateArtifact(manifest, zipPath, runtimeDir, ArtifactManifest.hashInputs(values, jarPath),
+                () -> JlinkRuntime.writeLayerZip(jlinkRuntime.link(jarPath, workDir), zipPath));
+        return runtimeDir;
+    }
+
+    /**
+     * Packages the dependencies of the jar as a layer zip, unless the layer zip of the same dependencies is still in
+     * place. Only the dependencies are hashed, so that a change to the code of the package leaves the layer as it is.
+     */
+    private static void generateDependencyLayer(Path functionsDir, Path jarPath, String packagePath,
+                                                ArtifactManifest manifest) throws IOException {
+
+        Path zipPath = functionsDir.resolve(Constants.LIB_LAYER_ZIP_FILENAME);
+        ExplodedLayout layout = ExplodedLayout.load(jarPath, packagePath);
+        List<String> values = List.of(Constants.ARTIFACT_LAYOUT_VERSION, layout.getDependencyHash());
+        generateArtifact(manifest, zipPath, null, ArtifactManifest.hashInputs(values), () -> {
+            try (DeploymentZipWriter zipWriter = new DeploymentZipWriter(zipPath)) {
+                layout.writeDependencies(zipWriter);
             }
-            Files.copy(binaryPath, pathInZipfile, StandardCopyOption.COPY_ATTRIBUTES);
+        });
+    }
+
+    /**
+     * Builds the container image of the functions unless the image of the same inputs is still in place. The Java
+     * runtime, the dependencies and the classes of the package are layers of their own, laid out as with the layered
+     * layout, so that a change to the code of the package changes the last layer alone.
+     */
+    private static void generateImage(Path functionsDir, Path jarPath, OciImage image, String imageName,
+                                      String command, JvmLauncher launcher, Optional<JlinkRuntime> jlinkRuntime,
+                                      Path runtimeDir, String packagePath, ArtifactManifest manifest)
+            throws IOException {
+
+        Path archivePath = functionsDir.resolve(Constants.IMAGE_ARCHIVE_FILENAME);
+        String bootstrap = launcher.generate(ExplodedLayout.getClassPath(JvmLauncher.Layout.LAYERED),
+                ExplodedLayout.load(jarPath, packagePath).getMainClass());
+        List<String> values = new ArrayList<>();
+        values.add(Constants.ARTIFACT_LAYOUT_VERSION);
+        values.addAll(image.getInputValues());
+        values.addAll(List.of(imageName, command, bootstrap));
+        if (jlinkRuntime.isPresent()) {
+            values.addAll(jlinkRuntime.get().getInputValues());
+        } else {
+            // The runtime of the build is deployed as it is
+            values.add(OciImage.getHostJavaHome().toString());
+            values.add(System.getProperty("java.runtime.version"));
+        }
+        generateArtifact(manifest, archivePath, null, ArtifactManifest.hashInputs(values, jarPath), () -> {
+            ExplodedLayout layout = ExplodedLayout.load(jarPath, packagePath);
+            Path javaHome = runtimeDir != null ? runtimeDir : OciImage.getHostJavaHome();
+            image.write(archivePath, functionsDir.resolve(IMAGE_LAYOUT_DIRECTORY), imageName, command, List.of(
+                    OciImage.directoryLayer("Java runtime", javaHome, launcher.getJavaHome().substring(1)),
+                    new OciImage.Layer("dependencies", tarWriter -> layout.writeDependencies(
+                            (name, content, mode) -> tarWriter.addBytes(OciImage.OPT_DIRECTORY + name, content,
+                                    mode))),
+                    new OciImage.Layer("package", tarWriter -> {
+                        tarWriter.addBytes(OciImage.BOOTSTRAP, bootstrap.getBytes(StandardCharsets.UTF_8),
+                                DeploymentZipWriter.EXECUTABLE_MODE);
+                        layout.writePackage((name, content, mode) -> tarWriter.addBytes(
+                                OciImage.TASK_DIRECTORY + name, content, mode));
+                    })));
+        });
+    }
+
+    /**
+     * Returns the path of the native build report of a zip.
+     */
+    private static Path getReportPath(Path zipPath) {
+        String zipFileName = zipPath.getFileName().toString();
+        return zipPath.resolveSibling(zipFileName.substring(0, zipFileName.length() -
+                Constants.FUNCTION_ZIP_EXTENSION.length()) + NativeBuildReport.REPORT_SUFFIX);
+    }
+
+    /**
+     * Returns the directory the class data sharing archive of a zip is trained in.
+     */
+    private static Path getCdsDirectory(Path zipPath) {
+        String zipFileName = zipPath.getFileName().toString();
+        return zipPath.resolveSibling(zipFileName.substring(0, zipFileName.length() -
+                Constants.FUNCTION_ZIP_EXTENSION.length()) + CDS_DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * Fails the build if the native executable of a zip exceeds the size budget of its function.
+     */
+    private static void checkSizeBudget(Path reportPath, NativeBuildOptions nativeOptions) {
+        Optional<Long> sizeBudget = nativeOptions.getSizeBudget();
+        if (sizeBudget.isPresent()) {
+            NativeBuildReport.read(reportPath).ifPresent(report -> report.checkSizeBudget(sizeBudget.get()));
         }
     }
 
-    private void generateNativeZipFile(Path functionsDir, Path binaryPath) throws IOException {
+    /**
+     * Adds the startup time of a native executable to its build report, and writes the report next to its zip.
+     */
+    private static void completeReport(NativeBuildReport report, Path executablePath, List<String> functions,
+                                       Path reportPath) throws IOException {
+        report.measureTimeToFirstNext(executablePath, functions);
+        report.write(reportPath);
+        report.print();
+    }
+
+    /**
+     * Removes zips, images, reports and directories left behind by earlier builds. The class data sharing directory
+     * of a zip is kept along with it, as it is only left behind when training failed and holds its logs.
+     */
+    private static void deleteStaleArtifacts(Path functionsDir, List<String> zipFileNames, List<String> directories,
+                                             boolean isNative) throws IOException {
+
+        try (Stream<Path> children = Files.list(functionsDir)) {
+            for (Path child : children.toList()) {
+                String name = child.getFileName().toString();
+                if (Files.isDirectory(child) && !directories.contains(name) && !(name.endsWith(CDS_DIRECTORY_SUFFIX) &&
+                        zipFileNames.contains(name.replace(CDS_DIRECTORY_SUFFIX, Constants.FUNCTION_ZIP_EXTENSION)))) {
+                    LambdaUtils.deleteDirectory(child);
+                } else if ((name.endsWith(Constants.FUNCTION_ZIP_EXTENSION) ||
+                        name.equals(Constants.IMAGE_ARCHIVE_FILENAME)) && !zipFileNames.contains(name)) {
+                    Files.delete(child);
+                } else if (name.endsWith(NativeBuildReport.REPORT_SUFFIX) && (!isNative || !zipFileNames.contains(
+                        name.replace(NativeBuildReport.REPORT_SUFFIX, Constants.FUNCTION_ZIP_EXTENSION)))) {
+                    Files.delete(child);
+                }
+            }
+        }
+    }
+
+    private void generateZipFile(Path zipPath, Path executablePath) throws IOException {
+        Files.deleteIfExists(zipPath);
+        try (DeploymentZipWriter zipWriter = new DeploymentZipWriter(zipPath)) {
+            zipWriter.addFile(Constants.BOOTSTRAP, executablePath, DeploymentZipWriter.EXECUTABLE_MODE);
+        }
+    }
+
+    /**
+     * Packages a jar with the launcher that starts it, which replaces the bootstrap of the Ballerina layer, and with
+     * its class data sharing archive when there are events to train it with. The exploded layout packages the entries
+     * of the jar in place of the jar, and the layered layout only those of the package.
+     */
+    private void generateJarZipFile(Path zipPath, Path jarPath, JvmLauncher launcher, SampleEvents cdsEvents,
+                                    Path runtimeDir, String packagePath) throws IOException {
+        Files.deleteIfExists(zipPath);
+        String jarFileName = jarPath.getFileName().toString();
+        String zipFileName = zipPath.getFileName().toString();
+        Path cdsDir = null;
+        Path archive = null;
+        if (!cdsEvents.isEmpty()) {
+            if (CdsArchive.isSupportedHost()) {
+                cdsDir = getCdsDirectory(zipPath);
+                try {
+                    archive = CdsArchive.create(jarPath, cdsDir, cdsEvents, runtimeDir);
+                } catch (IOException e) {
+                    // The archive only shortens startup, so the function is still packaged
+                    OUT.println("\t@aws.lambda:Class data sharing archive of " + zipFileName + " could not be " +
+                            "created, packaging it without one: " + e.getMessage());
+                    cdsDir = null;
+                }
+            } else {
+                OUT.println("\t@aws.lambda:Class data sharing archives can only be created on Linux hosts, " +
+                        "packaging " + zipFileName + " without one");
+            }
+        }
+        String archiveFileName = archive == null ? null : archive.getFileName().toString();
+        try (DeploymentZipWriter zipWriter = new DeploymentZipWriter(zipPath)) {
+            if (launcher.getLayout() != JvmLauncher.Layout.JAR) {
+                ExplodedLayout layout = ExplodedLayout.load(jarPath, packagePath);
+                zipWriter.addBytes(Constants.BOOTSTRAP, launcher.generate(ExplodedLayout.getClassPath(
+                        launcher.getLayout()), layout.getMainClass()).getBytes(StandardCharsets.UTF_8),
+                        DeploymentZipWriter.EXECUTABLE_MODE);
+                if (launcher.getLayout() == JvmLauncher.Layout.LAYERED) {
+                    layout.writePackage(zipWriter);
+                } else {
+                    layout.write(zipWriter);
+                }
+                return;
+            }
+            zipWriter.addBytes(Constants.BOOTSTRAP, launcher.generate(jarFileName, archiveFileName)
+                    .getBytes(StandardCharsets.UTF_8), DeploymentZipWriter.EXECUTABLE_MODE);
+            zipWriter.addFile(jarFileName, jarPath, DeploymentZipWriter.FILE_MODE);
+            if (archive != null) {
+                zipWriter.addFile(archiveFileName, archive, DeploymentZipWriter.FILE_MODE);
+            }
+        }
+        // Kept when training fails, for its logs, until the archive is created
+        if (cdsDir != null) {
+            LambdaUtils.deleteDirectory(cdsDir);
+        }
+    }
+
+    private void generateNativeZipFile(Path functionsDir, Path binaryPath, NativeBuildOptions nativeOptions,
+                                       Path reportPath, List<String> functions) throws IOException {
 
         String jarFileName = binaryPath.getFileName().toString();
         Path jarPath = functionsDir.resolve(jarFileName);
         Files.copy(binaryPath, jarPath, StandardCopyOption.REPLACE_EXISTING);
-        buildRemoteArtifacts(functionsDir, jarFileName);
+        NativeBuildReport report = buildRemoteArtifacts(functionsDir, jarFileName, nativeOptions, reportPath);
         String executableName = jarFileName.replaceFirst(".jar", "");
-        generateZipFile(functionsDir, functionsDir.resolve(executableName), true);
+        completeReport(report, functionsDir.resolve(executableName), functions, reportPath);
+        generateZipFile(functionsDir.resolve(Constants.LAMBDA_OUTPUT_ZIP_FILENAME),
+                functionsDir.resolve(executableName));
 
     }
 
-    public void buildRemoteArtifacts(Path jarPath, String jarFileName) {
+    public NativeBuildReport buildRemoteArtifacts(Path jarPath, String jarFileName, NativeBuildOptions nativeOptions,
+                                                  Path reportPath) throws IOException {
+        String executableName = jarFileName.replaceFirst(".jar", "");
+        Optional<LocalNativeImage> localNativeImage = LocalNativeImage.detect();
+        String builder = localNativeImage.map(LocalNativeImage::getVersion).orElse(Constants.NATIVE_BUILDER_IMAGE);
+        SampleEvents pgoEvents = nativeOptions.getPgoEvents();
+        boolean pgo = !pgoEvents.isEmpty() && localNativeImage.map(LocalNativeImage::supportsPgo).orElse(false);
+        if (!pgoEvents.isEmpty() && !pgo) {
+            OUT.println("\t@aws.lambda:Profile-guided optimization requires Oracle GraalVM for JDK 21 on a Linux " +
+                    "x86_64 host, building the native image without a profile\n");
+        }
+        SampleEvents tracingEvents = nativeOptions.getTracingAgentEvents();
+        Optional<TracingAgent> tracingAgent = tracingEvents.isEmpty() ? Optional.empty() :
+                TracingAgent.detect(localNativeImage);
+        if (!tracingEvents.isEmpty() && tracingAgent.isEmpty()) {
+            OUT.println("\t@aws.lambda:The tracing agent requires GraalVM for JDK 21 in GRAALVM_HOME or JAVA_HOME, " +
+                    "or a Linux host to run the builder image on, building the native image without its " +
+                    "reachability metadata\n");
+        }
+        List<String> nativeImageArguments = nativeOptions.getNativeImageArguments(jarPath.resolve(jarFileName));
+        List<String> buildArguments = new ArrayList<>(List.of(jarFileName, executableName));
+        buildArguments.addAll(nativeImageArguments);
+        if (pgo) {
+            buildArguments.add(pgoEvents.getHash());
+        }
+        if (tracingAgent.isPresent()) {
+            buildArguments.add(tracingEvents.getHash());
+        }
+        NativeBuildCache cache = NativeBuildCache.fromEnvironment();
+        String cacheKey = null;
+        Files.deleteIfExists(reportPath);
+        if (cache.isEnabled()) {
+            try {
+                cacheKey = NativeBuildCache.getKey(jarPath.resolve(jarFileName), builder, buildArguments);
+                if (cache.restore(cacheKey, jarPath.resolve(executableName), reportPath)) {
+                    OUT.println("\t@aws.lambda:Reusing cached native image " + cacheKey + "\n");
+                    // Executables cached before reports were kept only report their size
+                    Optional<NativeBuildReport> report = NativeBuildReport.read(reportPath);
+                    return report.isPresent() ? report.get() :
+                            NativeBuildReport.forExecutable(jarPath.resolve(executableName));
+                }
+            } catch (IOException e) {
+                OUT.println("\t@aws.lambda:Native image cache could not be read: " + e.getMessage());
+            }
+        }
+        if (tracingAgent.isPresent()) {
+            Path metadataDir = jarPath.resolve(executableName + TRACING_AGENT_DIRECTORY_SUFFIX);
+            LambdaUtils.deleteDirectory(metadataDir);
+            tracingAgent.get().trace(jarPath.resolve(jarFileName), tracingEvents, metadataDir);
+            int configCount = TracingAgent.addMetadata(jarPath.resolve(jarFileName), metadataDir);
+            OUT.println("\t@aws.lambda:Added " + configCount + " reachability metadata file(s) to " + jarFileName +
+                    "\n");
+            LambdaUtils.deleteDirectory(metadataDir);
+        }
+        // The report options are left out of the cache key, as they name the output directory
+        List<String> reportArguments = new ArrayList<>(nativeImageArguments);
+        reportArguments.addAll(NativeBuildReport.getNativeImageArguments(localNativeImage.isPresent() ?
+                jarPath.toAbsolutePath().toString() : CONTAINER_OUTPUT_DIRECTORY, executableName));
+        long start = System.nanoTime();
+        Duration elapsed;
+        if (pgo) {
+            ProfileGuidedBuild.build(localNativeImage.get(), jarPath.resolve(jarFileName),
+                    jarPath.resolve(executableName), pgoEvents, reportArguments);
+            elapsed = Duration.ofNanos(System.nanoTime() - start);
+            OUT.println("\t@aws.lambda:Profile-guided optimized native image built in " + elapsed.toSeconds() +
+                    "s\n");
+        } else if (localNativeImage.isPresent()) {
+            OUT.println("\t@aws.lambda:Building native image with " + builder + ". This may take a while.\n");
+            localNativeImage.get().build(jarPath.resolve(jarFileName), jarPath.resolve(executableName),
+                    reportArguments);
+            elapsed = Duration.ofNanos(System.nanoTime() - start);
+            // Only a build of the same jar with the same options through Docker is comparable
+            Optional<Duration> dockerBuild = LocalNativeImage.getLastDockerBuild(jarPath,
+                    ArtifactManifest.hashInputs(buildArguments, jarPath.resolve(jarFileName)));
+            Duration hostBuild = elapsed;
+            OUT.println("\t@aws.lambda:Native image built on the host in " + hostBuild.toSeconds() + "s" +
+                    dockerBuild.map(docker -> ", " + (docker.toSeconds() - hostBuild.toSeconds()) +
+                            "s less than the same build through Docker (" + docker.toSeconds() + "s)").orElse("") +
+                    "\n");
+        } else {
+            runRemoteBuild(jarPath, jarFileName, executableName, reportArguments);
+            elapsed = Duration.ofNanos(System.nanoTime() - start);
+            OUT.println("\t@aws.lambda:Native image built through Docker in " + elapsed.toSeconds() + "s\n");
+            LocalNativeImage.recordDockerBuild(jarPath, ArtifactManifest.hashInputs(buildArguments,
+                    jarPath.resolve(jarFileName)), elapsed);
+        }
+        NativeBuildReport report = NativeBuildReport.collect(jarPath.resolve(executableName));
+        report.setBuildTime(builder, elapsed);
+        report.write(reportPath);
+        if (cacheKey != null) {
+            try {
+                cache.store(cacheKey, jarPath.resolve(executableName), reportPath);
+            } catch (IOException e) {
+                OUT.println("\t@aws.lambda:Native image could not be cached: " + e.getMessage());
+            }
+        }
+        return report;
+    }
+
+    private void runRemoteBuild(Path jarPath, String jarFileName, String executableName,
+                                List<String> nativeImageArguments) {
         OUT.println("\t@aws.lambda:Building native image compatible for the Cloud using Docker. " +
                 "This may take a while.\n");
-        String executableName = jarFileName.replaceFirst(".jar", "");
         String volumeMount = jarPath.toAbsolutePath() + Constants.CONTAINER_OUTPUT_PATH;
         ProcessBuilder pb = new ProcessBuilder("docker", "run", "--rm", Constants.DOCKER_PLATFORM_FLAG,
                 Constants.LAMBDA_REMOTE_COMPATIBLE_ARCHITECTURE, "-v", volumeMount, Constants.NATIVE_BUILDER_IMAGE,
                 jarFileName, executableName);
+        pb.command().addAll(nativeImageArguments);
 
         pb.inheritIO();
 
@@ -167,6 +804,14 @@ public class LambdaCodeGeneratedTask implements CompilerLifecycleTask<CompilerLi
         }
     }
 
+    /**
+     * Generates a deployment zip.
+     */
+    @FunctionalInterface
+    private interface ZipGenerator {
+        void generate() throws IOException;
+    }
+
     /**
      * Reads given resource file as a string.
      *
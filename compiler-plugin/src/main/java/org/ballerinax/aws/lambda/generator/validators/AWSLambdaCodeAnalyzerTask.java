@@ -66,6 +66,8 @@ public class AWSLambdaCodeAnalyzerTask implements AnalysisTask<CompilationAnalys
                 }
                 diagnostics.addAll(validateMainFunction(rootNode));
                 if (module.isDefaultModule()) {
+                    rootNode.accept(new FunctionConfigValidator(compilationAnalysisContext.compilation()
+                            .getSemanticModel(moduleId), diagnostics));
                     continue;
                 }
                 diagnostics.addAll(validateSubmoduleDocument(rootNode));
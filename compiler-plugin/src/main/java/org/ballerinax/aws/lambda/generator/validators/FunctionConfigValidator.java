@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.generator.validators;
+
+import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.NodeVisitor;
+import io.ballerina.tools.diagnostics.Diagnostic;
+import org.ballerinax.aws.lambda.generator.FunctionConfig;
+
+import java.util.List;
+
+/**
+ * Responsible for rejecting values of the {@code @lambda:Function} annotation that AWS Lambda does not accept.
+ *
+ * @since 3.3.1
+ */
+public class FunctionConfigValidator extends NodeVisitor {
+
+    private final SemanticModel semanticModel;
+    private final List<Diagnostic> diagnostics;
+
+    public FunctionConfigValidator(SemanticModel semanticModel, List<Diagnostic> diagnostics) {
+
+        this.semanticModel = semanticModel;
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public void visit(FunctionDefinitionNode functionDefinitionNode) {
+        FunctionConfig.read(functionDefinitionNode, this.semanticModel, this.diagnostics);
+    }
+}
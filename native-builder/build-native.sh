@@ -13,8 +13,18 @@
 # See the License for the specific language governing permissions and
 # limitations under the License.
 
+# Arguments after the jar and executable names are passed on to native-image. Fully static executables replace the
+# default mostly static linking.
+linking="-H:+StaticExecutableWithDynamicLibC"
+for option in "${@:3}"; do
+  if [ "$option" = "--static" ]; then
+    linking=""
+  fi
+done
+
 native-image -jar "output/$1" \
--H:+StaticExecutableWithDynamicLibC \
+$linking \
 --no-fallback \
 -H:Name="$2" \
--H:Path="output"
+-H:Path="output" \
+"${@:3}"
@@ -0,0 +1,4 @@
+module org.ballerinax.awslambda.runtime {
+    requires io.ballerina.runtime;
+    exports org.ballerinax.aws.lambda.runtime;
+}
@@ -0,0 +1,554 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal HTTP/1.1 client connection for the AWS Lambda Runtime API.
+ * <p>
+ * Keeps a single persistent socket to the Runtime API and only implements what the runtime loop needs: requests
+ * with a known content length or a streamed body, and responses delimited by {@code Content-Length} or chunked
+ * encoding. Response bodies can be read in full or streamed; an unread body is skipped before the next request is
+ * sent.
+ * The socket has no read timeout, as the {@code next} call is a long poll.
+ *
+ * @since 3.3.1
+ */
+class HttpConnection {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int REQUEST_BUFFER_SIZE = 65536;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n'};
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private final String host;
+    private final int port;
+    private final byte[] hostHeader;
+    private final byte[] lineBuffer = new byte[BUFFER_SIZE];
+    private Socket socket;
+    private InputStream in;
+    private OutputStream out;
+    private BodyInputStream body;
+    private boolean closeAfterBody;
+
+    HttpConnection(String runtimeApi) {
+        int separator = runtimeApi.lastIndexOf(':');
+        this.host = separator < 0 ? runtimeApi : runtimeApi.substring(0, separator);
+        this.port = separator < 0 ? 80 : Integer.parseInt(runtimeApi.substring(separator + 1));
+        this.hostHeader = ("Host: " + runtimeApi + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Sends a request and reads only the response head. The body is then read with {@link #readBody(int)}.
+     * <p>
+     * A request on a reused connection is retried once on a fresh connection if it fails before a response head
+     * is received, since the Runtime API may have closed an idle keep-alive connection.
+     *
+     * @param method HTTP method
+     * @param path   request path
+     * @param body   request body, or {@code null} for none
+     * @return the response, without its body
+     * @throws IOException if the request fails
+     */
+    synchronized Response sendForStream(String method, String path, byte[] body) throws IOException {
+        skipBody();
+        boolean reused = this.socket != null;
+        try {
+            return sendOnce(method, path, body);
+        } catch (IOException e) {
+            close();
+            if (!reused) {
+                throw e;
+            }
+            return sendOnce(method, path, body);
+        }
+    }
+
+    /**
+     * Starts a request whose body is written through the returned stream. The response is read by
+     * {@link RequestBody#finish()}.
+     * <p>
+     * A body of unknown length is buffered up to a fixed size. If it fits, it is sent with a {@code Content-Length},
+     * otherwise the request switches to chunked encoding and the buffer is sent as a chunk each time it fills up, so
+     * the body is never held in memory as a whole.
+     *
+     * @param method        HTTP method
+     * @param path          request path
+     * @param contentType   content type of the body
+     * @param contentLength length of the body, or {@code -1} if it is not known up front
+     * @return the stream to write the request body to
+     * @throws IOException if the connection cannot be established
+     */
+    synchronized RequestBody openRequest(String method, String path, String contentType, long contentLength)
+            throws IOException {
+        return open(new RequestBody(method, path, contentLength, contentType, Map.of(), false));
+    }
+
+    /**
+     * Starts a request whose body is streamed with chunked encoding. Written data is buffered until
+     * {@link RequestBody#flush()} sends it as a chunk, so each flush reaches the server right away. The response is
+     * read by {@link RequestBody#finish(Map)}.
+     *
+     * @param method      HTTP method
+     * @param path        request path
+     * @param contentType content type of the body
+     * @param headers     additional request headers
+     * @return the stream to write the request body to
+     * @throws IOException if the connection cannot be established
+     */
+    synchronized RequestBody openStreamingRequest(String method, String path, String contentType,
+                                                  Map<String, String> headers) throws IOException {
+        return open(new RequestBody(method, path, -1, contentType, headers, true));
+    }
+
+    private RequestBody open(RequestBody requestBody) throws IOException {
+        skipBody();
+        try {
+            connect();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        return requestBody;
+    }
+
+    /**
+     * Reads the next part of the current response body.
+     *
+     * @param maxLength maximum number of bytes to return
+     * @return the next part of the body, or {@code null} once the body is fully read
+     * @throws IOException if reading fails
+     */
+    synchronized byte[] readBody(int maxLength) throws IOException {
+        if (this.body == null) {
+            return null;
+        }
+        try {
+            byte[] part = this.body.readNBytes(maxLength);
+            if (part.length == 0) {
+                endBody();
+                return null;
+            }
+            return part;
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Discards the unread remainder of the current response body, keeping the connection usable.
+     *
+     * @throws IOException if reading fails
+     */
+    synchronized void skipBody() throws IOException {
+        if (this.body == null) {
+            return;
+        }
+        try {
+            this.body.skip(Long.MAX_VALUE);
+            endBody();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private byte[] readBody() throws IOException {
+        if (this.body == null) {
+            return new byte[0];
+        }
+        try {
+            byte[] content = this.body.readAllBytes();
+            endBody();
+            return content;
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void endBody() {
+        this.body = null;
+        if (this.closeAfterBody) {
+            close();
+        }
+    }
+
+    private Response sendOnce(String method, String path, byte[] body) throws IOException {
+        connect();
+        int contentLength = body == null ? 0 : body.length;
+        writeRequestHead(method, path, "GET".equals(method) ? "" :
+                contentLengthHeader(JSON_CONTENT_TYPE, contentLength));
+        if (body != null) {
+            this.out.write(body);
+        }
+        this.out.flush();
+        return readResponseHead();
+    }
+
+    private Response readResponseHead() throws IOException {
+        Response response = readStatusAndHeaders();
+        this.closeAfterBody = "close".equalsIgnoreCase(response.getHeader("connection"));
+        if ("chunked".equalsIgnoreCase(response.getHeader("transfer-encoding"))) {
+            this.body = new BodyInputStream(-1);
+        } else {
+            String contentLength = response.getHeader("content-length");
+            this.body = new BodyInputStream(contentLength == null ? 0 : checkLength(Long.parseLong(contentLength)));
+        }
+        return response;
+    }
+
+    private void connect() throws IOException {
+        if (this.socket != null) {
+            return;
+        }
+        Socket newSocket = new Socket(this.host, this.port);
+        newSocket.setTcpNoDelay(true);
+        newSocket.setKeepAlive(true);
+        newSocket.setSoTimeout(0);
+        this.socket = newSocket;
+        this.in = new BufferedInputStream(newSocket.getInputStream(), BUFFER_SIZE);
+        this.out = new BufferedOutputStream(newSocket.getOutputStream(), BUFFER_SIZE);
+    }
+
+    private void writeRequestHead(String method, String path, String headers) throws IOException {
+        this.out.write((method + " " + path + " HTTP/1.1\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        this.out.write(this.hostHeader);
+        this.out.write(headers.getBytes(StandardCharsets.ISO_8859_1));
+        this.out.write(CRLF);
+    }
+
+    private static String contentLengthHeader(String contentType, long contentLength) {
+        return "Content-Type: " + contentType + "\r\nContent-Length: " + contentLength + "\r\n";
+    }
+
+    private static String toHeaderLines(Map<String, String> headers) {
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            lines.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        return lines.toString();
+    }
+
+    private Response readStatusAndHeaders() throws IOException {
+        String statusLine = readLine();
+        int start = statusLine.indexOf(' ');
+        if (!statusLine.startsWith("HTTP/1.") || start < 0 || statusLine.length() < start + 4) {
+            throw new IOException("malformed status line from runtime API: " + statusLine);
+        }
+        Response response = new Response(Integer.parseInt(statusLine.substring(start + 1, start + 4)));
+        String line;
+        while (!(line = readLine()).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                response.headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                        line.substring(colon + 1).trim());
+            }
+        }
+        return response;
+    }
+
+    private String readLine() throws IOException {
+        int length = 0;
+        int b;
+        while ((b = this.in.read()) != '\n') {
+            if (b < 0) {
+                throw new IOException("connection to runtime API closed unexpectedly");
+            }
+            if (length == this.lineBuffer.length) {
+                throw new IOException("header line from runtime API exceeds " + BUFFER_SIZE + " bytes");
+            }
+            this.lineBuffer[length++] = (byte) b;
+        }
+        if (length > 0 && this.lineBuffer[length - 1] == '\r') {
+            length--;
+        }
+        return new String(this.lineBuffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int checkLength(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE - 8) {
+            throw new IOException("invalid content length from runtime API: " + length);
+        }
+        return (int) length;
+    }
+
+    synchronized void close() {
+        this.body = null;
+        if (this.socket == null) {
+            return;
+        }
+        try {
+            this.socket.close();
+        } catch (IOException e) {
+            // ignore, the connection is being discarded
+        } finally {
+            this.socket = null;
+            this.in = null;
+            this.out = null;
+        }
+    }
+
+    /**
+     * Writes a request body to the connection, with a {@code Content-Length} if the length is known or fits the
+     * buffer, and with chunked encoding otherwise. A streamed body is always chunked.
+     */
+    class RequestBody extends OutputStream {
+        private final String method;
+        private final String path;
+        private final long contentLength;
+        private final String contentType;
+        private final Map<String, String> headers;
+        private final boolean streaming;
+        private final byte[] buffer;
+        private int count;
+        private boolean headSent;
+
+        private RequestBody(String method, String path, long contentLength, String contentType,
+                            Map<String, String> headers, boolean streaming) {
+            this.method = method;
+            this.path = path;
+            this.contentLength = contentLength;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.streaming = streaming;
+            this.buffer = contentLength < 0 ? new byte[REQUEST_BUFFER_SIZE] : null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            synchronized (HttpConnection.this) {
+                try {
+                    if (this.buffer == null) {
+                        sendHead();
+                        out.write(data, offset, length);
+                        return;
+                    }
+                    while (length > 0) {
+                        if (this.count == this.buffer.length) {
+                            sendChunk();
+                        }
+                        int copied = Math.min(length, this.buffer.length - this.count);
+                        System.arraycopy(data, offset, this.buffer, this.count, copied);
+                        this.count += copied;
+                        offset += copied;
+                        length -= copied;
+                    }
+                } catch (IOException e) {
+                    close();
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Sends the data written so far as a chunk of a streamed body. Has no effect on other bodies, which are only
+         * sent once the buffer fills up or the body is finished.
+         *
+         * @throws IOException if writing fails
+         */
+        @Override
+        public void flush() throws IOException {
+            if (!this.streaming) {
+                return;
+            }
+            synchronized (HttpConnection.this) {
+                try {
+                    if (this.count > 0) {
+                        sendChunk();
+                    } else {
+                        sendHead();
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    close();
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Completes the request body and reads the complete response.
+         *
+         * @return the response
+         * @throws IOException if the request fails
+         */
+        Response finish() throws IOException {
+            return finish(Map.of());
+        }
+
+        /**
+         * Completes the request body and reads the complete response.
+         *
+         * @param trailers trailer fields sent after the last chunk of a chunked body
+         * @return the response
+         * @throws IOException if the request fails
+         */
+        Response finish(Map<String, String> trailers) throws IOException {
+            synchronized (HttpConnection.this) {
+                try {
+                    if (this.buffer != null && !this.headSent && !this.streaming) {
+                        writeRequestHead(this.method, this.path, contentLengthHeader(this.contentType, this.count));
+                        this.headSent = true;
+                        out.write(this.buffer, 0, this.count);
+                    } else if (this.buffer != null) {
+                        if (this.count > 0) {
+                            sendChunk();
+                        }
+                        sendHead();
+                        out.write(LAST_CHUNK);
+                        out.write(toHeaderLines(trailers).getBytes(StandardCharsets.ISO_8859_1));
+                        out.write(CRLF);
+                    } else {
+                        sendHead();
+                    }
+                    out.flush();
+                    Response response = readResponseHead();
+                    response.body = readBody();
+                    return response;
+                } catch (IOException e) {
+                    close();
+                    throw e;
+                }
+            }
+        }
+
+        private void sendHead() throws IOException {
+            if (this.headSent) {
+                return;
+            }
+            this.headSent = true;
+            writeRequestHead(this.method, this.path, this.buffer == null ?
+                    contentLengthHeader(this.contentType, this.contentLength) :
+                    "Content-Type: " + this.contentType + "\r\nTransfer-Encoding: chunked\r\n" +
+                            toHeaderLines(this.headers));
+        }
+
+        private void sendChunk() throws IOException {
+            sendHead();
+            out.write((Integer.toHexString(this.count) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.write(this.buffer, 0, this.count);
+            out.write(CRLF);
+            this.count = 0;
+        }
+    }
+
+    /**
+     * Reads a response body off the connection, delimited either by a content length or by chunked encoding.
+     */
+    private class BodyInputStream extends InputStream {
+        private final boolean chunked;
+        private long remaining;
+        private boolean done;
+
+        /**
+         * @param contentLength length of the body, or {@code -1} for a chunked body
+         */
+        BodyInputStream(long contentLength) {
+            this.chunked = contentLength < 0;
+            this.remaining = this.chunked ? 0 : contentLength;
+            this.done = contentLength == 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (this.remaining == 0 && !nextChunk()) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, this.remaining));
+            if (read < 0) {
+                throw new IOException("unexpected end of response from runtime API");
+            }
+            this.remaining -= read;
+            if (this.chunked && this.remaining == 0) {
+                readLine();
+            }
+            return read;
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (this.done || !this.chunked) {
+                this.done = true;
+                return false;
+            }
+            String sizeLine = readLine();
+            int extension = sizeLine.indexOf(';');
+            this.remaining = Long.parseLong((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+            if (this.remaining == 0) {
+                // trailers
+                while (!readLine().isEmpty()) {
+                    continue;
+                }
+                this.done = true;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Represents a response from the Runtime API.
+     */
+    static class Response {
+        private final int status;
+        private final Map<String, String> headers = new HashMap<>();
+        private byte[] body;
+
+        Response(int status) {
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        String getHeader(String name) {
+            return headers.get(name);
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+    }
+}
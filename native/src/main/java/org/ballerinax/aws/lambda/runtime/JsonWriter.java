@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.aws.lambda.runtime;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Serializes a Ballerina {@code json} value straight to an output stream, producing the same text as
+ * {@code toJsonString()} without building it in memory first.
+ *
+ * @since 3.3.1
+ */
+class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+
+    private JsonWriter(OutputStream out) {
+        this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a {@code json} value to the stream. The stream itself is not closed.
+     *
+     * @param value the value
+     * @param out   the stream to write to
+     * @throws IOException if writing fails
+     */
+    static void write(Object value, OutputStream out) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(out);
+        jsonWriter.writeValue(value);
+        jsonWriter.writer.flush();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            this.writer.write("null");
+        } else if (value instanceof BString) {
+            writeString(((BString) value).getValue());
+        } else if (value instanceof Boolean || value instanceof Long || value instanceof Integer) {
+            this.writer.write(value.toString());
+        } else if (value instanceof Double || value instanceof BDecimal) {
+            this.writer.write(StringUtils.getJsonString(value));
+        } else if (value instanceof BMap) {
+            writeMap((BMap<?, ?>) value);
+        } else if (value instanceof BArray) {
+            writeArray((BArray) value);
+        } else {
+            this.writer.write(StringUtils.getJsonString(value));
+        }
+    }
+
+    private void writeMap(BMap<?, ?> map) throws IOException {
+        this.writer.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                this.writer.write(", ");
+            }
+            first = false;
+            writeString(entry.getKey().toString());
+            this.writer.write(':');
+            writeValue(entry.getValue());
+        }
+        this.writer.write('}');
+    }
+
+    private void writeArray(BArray array) throws IOException {
+        this.writer.write('[');
+        for (long i = 0, size = array.size(); i < size; i++) {
+            if (i > 0) {
+                this.writer.write(", ");
+            }
+            writeValue(array.get(i));
+        }
+        this.writer.write(']');
+    }
+
+    private void writeString(String value) throws IOException {
+        this.writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escaped;
+            switch (c) {
+                case '"':
+                    escaped = "\\\"";
+                    break;
+                case '\\':
+                    escaped = "\\\\";
+                    break;
+                case '\b':
+                    escaped = "\\b";
+                    break;
+                case '\f':
+                    escaped = "\\f";
+                    break;
+                case '\n':
+                    escaped = "\\n";
+                    break;
+                case '\r':
+                    escaped = "\\r";
+                    break;
+                case '\t':
+                    escaped = "\\t";
+                    break;
+                default:
+                    if (c >= 0x20) {
+                        continue;
+                    }
+                    escaped = new String(new char[]{'\\', 'u', '0', '0', HEX[c >> 4], HEX[c & 0xf]});
+                    break;
+            }
+            this.writer.write(value, start, i - start);
+            this.writer.write(escaped);
+            start = i + 1;
+        }
+        this.writer.write(value, start, value.length() - start);
+        this.writer.write('"');
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.aws.lambda.runtime;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interop functions backing the native AWS Lambda Runtime API client of {@code ballerinax/aws.lambda}.
+ *
+ * @since 3.3.1
+ */
+public class RuntimeApiClient {
+
+    private static final String INVOCATION_PATH = "/2018-06-01/runtime/invocation/";
+    private static final String INVOCATION_HEADERS_RECORD = "InvocationHeaders";
+    private static final int PAYLOAD_PART_SIZE = 16384;
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String BINARY_CONTENT_TYPE = "application/octet-stream";
+    private static final String RESPONSE_MODE_HEADER = "Lambda-Runtime-Function-Response-Mode";
+    private static final String ERROR_TYPE_TRAILER = "Lambda-Runtime-Function-Error-Type";
+    private static final String ERROR_BODY_TRAILER = "Lambda-Runtime-Function-Error-Body";
+
+    private final HttpConnection connection;
+    private HttpConnection.RequestBody responseStream;
+
+    private RuntimeApiClient(String runtimeApi) {
+        this.connection = new HttpConnection(runtimeApi);
+    }
+
+    /**
+     * Creates a client for the given Runtime API address. The connection is opened lazily on the first call.
+     *
+     * @param runtimeApi value of {@code AWS_LAMBDA_RUNTIME_API}
+     * @return the client
+     */
+    public static RuntimeApiClient create(BString runtimeApi) {
+        return new RuntimeApiClient(runtimeApi.getValue());
+    }
+
+    /**
+     * Blocks until the next event is available. Only the response head is read, the event payload is then
+     * streamed with {@link #readPayload(RuntimeApiClient)}.
+     *
+     * @param client the client
+     * @return an {@code InvocationHeaders} record, or an error
+     */
+    public static Object next(RuntimeApiClient client) {
+        try {
+            HttpConnection.Response response = client.connection.sendForStream("GET", INVOCATION_PATH + "next",
+                    null);
+            if (response.getStatus() != 200) {
+                return createError("unexpected status polling for next event: " + response.getStatus());
+            }
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("requestId", getHeader(response, "lambda-runtime-aws-request-id"));
+            fields.put("deadlineMs", getDeadline(response));
+            fields.put("invokedFunctionArn", getHeader(response, "lambda-runtime-invoked-function-arn"));
+            fields.put("traceId", getHeader(response, "lambda-runtime-trace-id"));
+            return ValueCreator.createRecordValue(ModuleUtils.getModule(), INVOCATION_HEADERS_RECORD, fields);
+        } catch (IOException e) {
+            return createError("error polling for next event: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the next part of the payload of the current event.
+     *
+     * @param client the client
+     * @return a {@code byte[]} part, {@code null} once the payload is fully read, or an error
+     */
+    public static Object readPayload(RuntimeApiClient client) {
+        try {
+            byte[] part = client.connection.readBody(PAYLOAD_PART_SIZE);
+            return part == null ? null : ValueCreator.createArrayValue(part);
+        } catch (IOException e) {
+            return createError("error reading event payload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Discards the unread remainder of the payload of the current event.
+     *
+     * @param client the client
+     * @return {@code null} on success, or an error
+     */
+    public static Object skipPayload(RuntimeApiClient client) {
+        try {
+            client.connection.skipBody();
+            return null;
+        } catch (IOException e) {
+            return createError("error reading event payload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Posts a binary payload to an invocation sub path such as {@code <requestId>/response}. The payload is copied
+     * to the connection in parts rather than as a whole.
+     *
+     * @param client  the client
+     * @param path    path relative to the invocation base path
+     * @param payload the payload
+     * @return {@code null} on success, or an error
+     */
+    public static Object post(RuntimeApiClient client, BString path, BArray payload) {
+        try {
+            HttpConnection.RequestBody body = client.connection.openRequest("POST",
+                    INVOCATION_PATH + path.getValue(), BINARY_CONTENT_TYPE, payload.size());
+            writeBytes(body, payload);
+            return checkResponse(path, body.finish());
+        } catch (IOException e) {
+            return createError("error posting to " + path.getValue() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Posts a JSON payload to an invocation sub path such as {@code <requestId>/response}. The payload is serialized
+     * straight to the connection, see {@link HttpConnection#openRequest(String, String, String, long)}.
+     *
+     * @param client  the client
+     * @param path    path relative to the invocation base path
+     * @param payload the {@code json} value
+     * @return {@code null} on success, or an error
+     */
+    public static Object postJson(RuntimeApiClient client, BString path, Object payload) {
+        try {
+            HttpConnection.RequestBody body = client.connection.openRequest("POST",
+                    INVOCATION_PATH + path.getValue(), JSON_CONTENT_TYPE, -1);
+            JsonWriter.write(payload, body);
+            return checkResponse(path, body.finish());
+        } catch (IOException e) {
+            return createError("error posting to " + path.getValue() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts streaming a response to an invocation sub path such as {@code <requestId>/response}, in the
+     * {@code streaming} response mode of the Runtime API.
+     *
+     * @param client      the client
+     * @param path        path relative to the invocation base path
+     * @param contentType content type of the streamed response
+     * @return {@code null} on success, or an error
+     */
+    public static Object openStream(RuntimeApiClient client, BString path, BString contentType) {
+        try {
+            client.responseStream = client.connection.openStreamingRequest("POST", INVOCATION_PATH + path.getValue(),
+                    contentType.getValue(), Map.of(RESPONSE_MODE_HEADER, "streaming",
+                            "Trailer", ERROR_TYPE_TRAILER + ", " + ERROR_BODY_TRAILER));
+            return null;
+        } catch (IOException e) {
+            return createError("error streaming response: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a binary part of the streamed response right away.
+     *
+     * @param client  the client
+     * @param payload the part
+     * @return {@code null} on success, or an error
+     */
+    public static Object writeStream(RuntimeApiClient client, BArray payload) {
+        if (client.responseStream == null) {
+            return createError("no response is being streamed");
+        }
+        try {
+            writeBytes(client.responseStream, payload);
+            client.responseStream.flush();
+            return null;
+        } catch (IOException e) {
+            client.responseStream = null;
+            return createError("error streaming response: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a {@code json} value of the streamed response right away, as one line of newline delimited JSON.
+     *
+     * @param client  the client
+     * @param payload the {@code json} value
+     * @return {@code null} on success, or an error
+     */
+    public static Object writeStreamJson(RuntimeApiClient client, Object payload) {
+        if (client.responseStream == null) {
+            return createError("no response is being streamed");
+        }
+        try {
+            JsonWriter.write(payload, client.responseStream);
+            client.responseStream.write('\n');
+            client.responseStream.flush();
+            return null;
+        } catch (IOException e) {
+            client.responseStream = null;
+            return createError("error streaming response: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Completes the streamed response. A failure of the function midway through the stream is reported through the
+     * error trailers of the streaming response mode.
+     *
+     * @param client    the client
+     * @param errorType error type if the function failed, or {@code null}
+     * @param errorBody serialized error details if the function failed, or {@code null}
+     * @return {@code null} on success, or an error
+     */
+    public static Object closeStream(RuntimeApiClient client, BString errorType, BString errorBody) {
+        HttpConnection.RequestBody body = client.responseStream;
+        client.responseStream = null;
+        if (body == null) {
+            return createError("no response is being streamed");
+        }
+        try {
+            Map<String, String> trailers = errorType == null ? Map.of() : Map.of(ERROR_TYPE_TRAILER,
+                    errorType.getValue(), ERROR_BODY_TRAILER, Base64.getEncoder().encodeToString(
+                            errorBody.getValue().getBytes(StandardCharsets.UTF_8)));
+            HttpConnection.Response response = body.finish(trailers);
+            if (response.getStatus() / 100 != 2) {
+                return createError("unexpected status streaming response: " + response.getStatus());
+            }
+            return null;
+        } catch (IOException e) {
+            return createError("error streaming response: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copies a byte array to the request body in parts rather than as a whole.
+     */
+    private static void writeBytes(HttpConnection.RequestBody body, BArray payload) throws IOException {
+        int size = payload.size();
+        byte[] part = new byte[Math.min(size, PAYLOAD_PART_SIZE)];
+        int offset = 0;
+        while (offset < size) {
+            int length = Math.min(part.length, size - offset);
+            for (int i = 0; i < length; i++) {
+                part[i] = payload.getByte(offset + i);
+            }
+            body.write(part, 0, length);
+            offset += length;
+        }
+    }
+
+    private static BError checkResponse(BString path, HttpConnection.Response response) {
+        if (response.getStatus() / 100 != 2) {
+            return createError("unexpected status posting to " + path.getValue() + ": " + response.getStatus());
+        }
+        return null;
+    }
+
+    private static BString getHeader(HttpConnection.Response response, String name) {
+        String value = response.getHeader(name);
+        return StringUtils.fromString(value == null ? "" : value);
+    }
+
+    private static long getDeadline(HttpConnection.Response response) {
+        try {
+            return Long.parseLong(response.getHeader("lambda-runtime-deadline-ms"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static BError createError(String message) {
+        return ErrorCreator.createError(StringUtils.fromString(message));
+    }
+}